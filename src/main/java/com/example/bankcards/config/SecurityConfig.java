@@ -1,9 +1,12 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.security.crypto.BoundedPasswordEncoder;
 import com.example.bankcards.security.filter.JwtAuthenticationFilter;
 import com.example.bankcards.security.handler.RestAccessDeniedHandler;
 import com.example.bankcards.security.handler.RestAuthenticationEntryPoint;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -75,7 +78,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(SecurityProperties securityProperties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), securityProperties, meterRegistry);
     }
 }
\ No newline at end of file
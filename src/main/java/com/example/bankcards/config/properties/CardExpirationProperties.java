@@ -0,0 +1,30 @@
+package com.example.bankcards.config.properties;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки фоновой отметки карт с истёкшим сроком действия.
+ */
+@ConfigurationProperties(prefix = "card-expiration")
+@Getter
+@Setter
+public class CardExpirationProperties {
+
+    /**
+     * Запускать ли отметку карт в этом экземпляре приложения.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Пауза между запусками отметки.
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Количество карт, отмечаемых в одной транзакции.
+     */
+    private int chunkSize = 1000;
+}
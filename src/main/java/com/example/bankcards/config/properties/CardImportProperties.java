@@ -0,0 +1,24 @@
+package com.example.bankcards.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки массового выпуска карт из файла.
+ */
+@ConfigurationProperties(prefix = "card-import")
+@Getter
+@Setter
+public class CardImportProperties {
+
+    /**
+     * Количество строк файла, обрабатываемых и фиксируемых в одной транзакции.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Количество потоков шифрования номеров порции.
+     */
+    private int parallelism = 4;
+}
@@ -1,6 +1,9 @@
 package com.example.bankcards.config.properties;
 
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -10,4 +13,43 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @Setter
 public class EncryptionProperties {
     private String secretKey;
-}
\ No newline at end of file
+
+    /**
+     * ID текущего ключа {@link #secretKey}, записываемый в начало шифртекста.
+     */
+    private String keyId = "1";
+
+    /**
+     * Прежние ключи по ID, которыми расшифровываются номера до завершения ротации.
+     */
+    private Map<String, String> previousKeys = new HashMap<>();
+
+    /**
+     * Ключ HMAC, по которому вычисляется {@code card_number_hash}.
+     */
+    private String hashKey;
+
+    /**
+     * Максимальное количество шифров AES и экземпляров HMAC в пулах для повторного использования.
+     */
+    private int cipherPoolSize = 16;
+
+    /**
+     * Количество карт, переводимых на AES-GCM и {@code card_number_hash} в одной транзакции.
+     */
+    private int hashBackfillChunkSize = 500;
+
+    private final Rotation rotation = new Rotation();
+
+    /**
+     * Настройки фонового перешифрования номеров карт текущим ключом.
+     */
+    @Getter
+    @Setter
+    public static class Rotation {
+        private boolean enabled = true;
+        private int chunkSize = 500;
+        private int parallelism = 2;
+        private Duration pause = Duration.ofMillis(100);
+    }
+}
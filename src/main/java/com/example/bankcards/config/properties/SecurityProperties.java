@@ -4,6 +4,8 @@ import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.time.Duration;
 import java.util.List;
 import lombok.AccessLevel;
@@ -22,6 +24,22 @@ public class SecurityProperties {
     @NotNull
     private final Jwt jwt = new Jwt();
 
+    @Valid
+    @NotNull
+    private final PrincipalCache principalCache = new PrincipalCache();
+
+    @Valid
+    @NotNull
+    private final TokenVersion tokenVersion = new TokenVersion();
+
+    @Valid
+    @NotNull
+    private final RefreshTokenStore refreshTokenStore = new RefreshTokenStore();
+
+    @Valid
+    @NotNull
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
     @Validated
     @Getter
     @Setter
@@ -44,6 +62,10 @@ public class SecurityProperties {
         @NotNull
         private final Token refreshToken = new Token();
 
+        @Valid
+        @NotNull
+        private final TokenCache tokenCache = new TokenCache();
+
         @Getter
         @Setter
         public static class Token {
@@ -55,5 +77,107 @@ public class SecurityProperties {
             @Setter(AccessLevel.NONE)
             private List<String> audience = List.of();
         }
+
+        /**
+         * Кэш проверенных access-токенов.
+         */
+        @Getter
+        @Setter
+        public static class TokenCache {
+
+            @PositiveOrZero
+            private long size = 10_000;
+        }
+    }
+
+    /**
+     * Кэш пользователей, загружаемых при проверке refresh-токена.
+     */
+    @Validated
+    @Getter
+    @Setter
+    public static class PrincipalCache {
+
+        @PositiveOrZero
+        private long size = 10_000;
+
+        /**
+         * Ограничивает устаревание записи на других экземплярах приложения: локальные
+         * изменения статуса и ролей сбрасывают запись сразу.
+         */
+        @NotNull
+        @DurationMin(seconds = 1)
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Версии токенов пользователей, по которым access-токены проверяются без обращения к БД.
+     */
+    @Validated
+    @Getter
+    @Setter
+    public static class TokenVersion {
+
+        /**
+         * Интервал загрузки версий, изменённых на других экземплярах приложения; ограничивает
+         * время, в течение которого там принимаются отозванные токены.
+         */
+        @NotNull
+        @DurationMin(millis = 100)
+        private Duration refreshInterval = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Хранилище выданных refresh-токенов.
+     */
+    @Validated
+    @Getter
+    @Setter
+    public static class RefreshTokenStore {
+
+        /**
+         * Пауза между удалениями токенов с истёкшим сроком действия.
+         */
+        @NotNull
+        @DurationMin(seconds = 1)
+        private Duration compactionInterval = Duration.ofHours(1);
+
+        /**
+         * Количество токенов, удаляемых в одной транзакции.
+         */
+        @Positive
+        private int compactionChunkSize = 1000;
+
+        /**
+         * Максимальное количество использованных и отозванных токенов в памяти.
+         */
+        @Positive
+        private long revocationCacheSize = 100_000;
+    }
+
+    /**
+     * Пул потоков хеширования и проверки паролей.
+     */
+    @Validated
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+
+        @Positive
+        private int threads = 4;
+
+        /**
+         * Количество задач, ожидающих свободного потока; при заполненной очереди запрос
+         * отклоняется с кодом 503.
+         */
+        @Positive
+        private int queueCapacity = 64;
+
+        /**
+         * Значение заголовка {@code Retry-After} в ответе на отклонённый запрос.
+         */
+        @NotNull
+        @DurationMin(seconds = 1)
+        private Duration retryAfter = Duration.ofSeconds(1);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.config.properties;
 
 import java.math.BigDecimal;
 
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -12,9 +13,132 @@ public class TransferProperties {
 
     private final Limit limit = new Limit();
 
+    private final Lock lock = new Lock();
+
+    private final Batch batch = new Batch();
+
+    private final Async async = new Async();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final CardLookup cardLookup = new CardLookup();
+
+    @Setter
+    private BalanceUpdateMode balanceUpdate = BalanceUpdateMode.ENTITY;
+
     @Getter
     @Setter
     public static class Limit {
         private BigDecimal daily = new BigDecimal("50000.00");
+        private BigDecimal weekly;
+        private BigDecimal monthly;
+        private SpendTracking spendTracking = SpendTracking.DATABASE;
+        private DailyWindow dailyWindow = DailyWindow.CALENDAR;
+        private Duration rollingBucket = Duration.ofMinutes(5);
+        private long policyCacheSize = 10_000;
+        private Duration policyCacheTtl = Duration.ofMinutes(5);
+        private long spendCacheSize = 100_000;
+        private Duration spendCacheTtl = Duration.ofHours(1);
+    }
+
+    /**
+     * Настройки блокировок карт на время выполнения перевода.
+     */
+    @Getter
+    @Setter
+    public static class Lock {
+        private int stripes = 1024;
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Настройки пакетного выполнения переводов.
+     */
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxSize = 5000;
+        private int chunkSize = 100;
+    }
+
+    /**
+     * Настройки асинхронного проведения переводов.
+     */
+    @Getter
+    @Setter
+    public static class Async {
+        private int workers = 4;
+        private int queueCapacity = 1000;
+    }
+
+    /**
+     * Настройки кэша и срока хранения ключей идемпотентности переводов.
+     */
+    @Getter
+    @Setter
+    public static class Idempotency {
+        private long cacheSize = 10_000;
+        private Duration cacheTtl = Duration.ofHours(1);
+        private Duration retention = Duration.ofDays(1);
+        private Duration sweepInterval = Duration.ofHours(1);
+        private int sweepChunkSize = 1000;
+    }
+
+    /**
+     * Настройки кэша ID карт по номеру.
+     */
+    @Getter
+    @Setter
+    public static class CardLookup {
+        private long cacheSize = 10_000;
+        private Duration cacheTtl = Duration.ofHours(1);
+    }
+
+    /**
+     * Источник израсходованной за день суммы при проверке лимита.
+     */
+    public enum SpendTracking {
+        /**
+         * Сумма переводов за день рассчитывается запросом к БД при каждой проверке.
+         */
+        DATABASE,
+        /**
+         * Суммы хранятся в памяти процесса и восстанавливаются из БД при первом обращении.
+         * Допустимо только при запуске одного экземпляра приложения.
+         */
+        MEMORY,
+        /**
+         * Суммы хранятся в таблице card_daily_spend и изменяются в транзакции перевода.
+         */
+        TABLE
+    }
+
+    /**
+     * Период, за который считается сумма для суточного лимита.
+     */
+    public enum DailyWindow {
+        /**
+         * Календарные сутки, сумма обнуляется в полночь.
+         */
+        CALENDAR,
+        /**
+         * Скользящие 24 часа, отсчитываемые от момента проверки с точностью до
+         * {@code rolling-bucket}. Не поддерживается при учёте в таблице card_daily_spend.
+         */
+        ROLLING
+    }
+
+    /**
+     * Способ изменения балансов карт при переводе.
+     */
+    public enum BalanceUpdateMode {
+        /**
+         * Загрузка карт с блокировкой строк и изменение баланса через сущности.
+         */
+        ENTITY,
+        /**
+         * Условные UPDATE-запросы без блокировки и изменения сущностей.
+         */
+        ATOMIC
     }
 }
@@ -0,0 +1,80 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.controller.support.OperatorContextResolver;
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.example.bankcards.service.CardImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST-контроллер массового выпуска карт из файла.
+ */
+@RestController
+@RequestMapping("/api/cards/imports")
+@RequiredArgsConstructor
+public class CardImportController {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final CardImportService cardImportService;
+    private final OperatorContextResolver operatorContextResolver;
+
+    /**
+     * Выпускает карты по файлу CSV или NDJSON, переданному в теле запроса.
+     */
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public CardImportDto importCsv(HttpServletRequest httpRequest) throws IOException {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return cardImportService.importCards(operatorId, CardImportFormat.CSV, httpRequest.getInputStream());
+    }
+
+    @PostMapping(consumes = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public CardImportDto importNdjson(HttpServletRequest httpRequest) throws IOException {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return cardImportService.importCards(operatorId, CardImportFormat.NDJSON, httpRequest.getInputStream());
+    }
+
+    /**
+     * Возвращает итоги загрузки.
+     */
+    @GetMapping("/{importId}")
+    public CardImportDto getImport(@PathVariable Long importId, HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return cardImportService.getImport(operatorId, importId);
+    }
+
+    /**
+     * Возвращает файл CSV со строками загрузки, по которым карты не выпущены.
+     */
+    @GetMapping(value = "/{importId}/errors", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> downloadErrors(@PathVariable Long importId,
+                                                                HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        cardImportService.getImport(operatorId, importId);
+        StreamingResponseBody body = output -> cardImportService.writeErrorReport(importId, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("card-import-" + importId + "-errors.csv")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
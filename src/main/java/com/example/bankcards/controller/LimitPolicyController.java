@@ -0,0 +1,74 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.controller.support.OperatorContextResolver;
+import com.example.bankcards.dto.CreateLimitPolicyRequestDto;
+import com.example.bankcards.dto.LimitPolicyDto;
+import com.example.bankcards.dto.UpdateLimitPolicyRequestDto;
+import com.example.bankcards.service.LimitPolicyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST-контроллер для управления политиками лимитов переводов.
+ */
+@RestController
+@RequestMapping("/api/limit-policies")
+@RequiredArgsConstructor
+public class LimitPolicyController {
+
+    private final LimitPolicyService limitPolicyService;
+    private final OperatorContextResolver operatorContextResolver;
+
+    /**
+     * Возвращает все политики лимитов.
+     */
+    @GetMapping
+    public List<LimitPolicyDto> getPolicies(HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return limitPolicyService.getPolicies(operatorId);
+    }
+
+    /**
+     * Создаёт политику лимитов для карты, пользователя или роли.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public LimitPolicyDto createPolicy(@Valid @RequestBody CreateLimitPolicyRequestDto request,
+                                       HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return limitPolicyService.createPolicy(operatorId, request);
+    }
+
+    /**
+     * Изменяет лимиты политики.
+     */
+    @PutMapping("/{policyId}")
+    public LimitPolicyDto updatePolicy(@PathVariable Long policyId,
+                                       @Valid @RequestBody UpdateLimitPolicyRequestDto request,
+                                       HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return limitPolicyService.updatePolicy(operatorId, policyId, request);
+    }
+
+    /**
+     * Удаляет политику лимитов.
+     */
+    @DeleteMapping("/{policyId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deletePolicy(@PathVariable Long policyId, HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        limitPolicyService.deletePolicy(operatorId, policyId);
+    }
+}
@@ -1,14 +1,16 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResultDto;
 import com.example.bankcards.dto.CardTransferDto;
 import com.example.bankcards.dto.CardTransferRequestDto;
 import com.example.bankcards.dto.DailyLimitDto;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.controller.support.OperatorContextResolver;
 import com.example.bankcards.service.TransferLimitService;
 import com.example.bankcards.service.TransferService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,19 +31,56 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class TransferController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final TransferService transferService;
     private final TransferLimitService transferLimitService;
     private final OperatorContextResolver operatorContextResolver;
 
     /**
-     * Выполняет перевод между картами.
+     * Выполняет перевод между картами. При наличии заголовка {@code Idempotency-Key}
+     * повтор запроса возвращает уже созданный перевод.
      */
     @PostMapping("/transfers")
     @ResponseStatus(HttpStatus.CREATED)
     public CardTransferDto transfer(@Valid @RequestBody CardTransferRequestDto request,
+                                    @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                     HttpServletRequest httpRequest) {
         Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
-        return transferService.transfer(operatorId, request);
+        if (idempotencyKey == null) {
+            return transferService.transfer(operatorId, request);
+        }
+        return transferService.transfer(operatorId, request, idempotencyKey);
+    }
+
+    /**
+     * Принимает перевод к асинхронному проведению.
+     */
+    @PostMapping("/transfers/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CardTransferDto submitTransfer(@Valid @RequestBody CardTransferRequestDto request,
+                                          HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return transferService.submitTransfer(operatorId, request);
+    }
+
+    /**
+     * Возвращает перевод и его текущий статус.
+     */
+    @GetMapping("/transfers/{transferId}")
+    public CardTransferDto getTransfer(@PathVariable Long transferId, HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return transferService.getTransfer(operatorId, transferId);
+    }
+
+    /**
+     * Выполняет пакет переводов и возвращает результат по каждому из них.
+     */
+    @PostMapping("/transfers/batch")
+    public BatchTransferResultDto transferBatch(@Valid @RequestBody BatchTransferRequestDto request,
+                                                HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return transferService.transferBatch(operatorId, request.transfers());
     }
 
     /**
@@ -58,7 +98,7 @@ public class TransferController {
     @GetMapping("/cards/{cardId}/limits/daily")
     public DailyLimitDto getDailyLimit(@PathVariable Long cardId, HttpServletRequest httpRequest) {
         operatorContextResolver.resolveOperatorId(httpRequest);
-        BigDecimal remaining = transferLimitService.getRemainingDailyLimit(cardId);
-        return new DailyLimitDto(remaining);
+        Money remaining = transferLimitService.getRemainingDailyLimit(cardId);
+        return new DailyLimitDto(remaining.toBigDecimal());
     }
 }
\ No newline at end of file
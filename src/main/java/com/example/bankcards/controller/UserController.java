@@ -1,10 +1,13 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.controller.support.OperatorContextResolver;
 import com.example.bankcards.dto.CreateUserRequestDto;
 import com.example.bankcards.dto.UpdateUserRolesRequestDto;
 import com.example.bankcards.dto.UpdateUserStatusRequestDto;
+import com.example.bankcards.dto.UpdateUsersStatusRequestDto;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +31,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final OperatorContextResolver operatorContextResolver;
 
     /**
      * Регистрирует нового пользователя.
@@ -63,6 +67,16 @@ public class UserController {
         return userService.updateStatus(id, request.status());
     }
 
+    /**
+     * Обновляет статус нескольких пользователей, например блокирует или разблокирует их.
+     */
+    @PatchMapping("/status")
+    public List<UserDto> updateStatuses(@Valid @RequestBody UpdateUsersStatusRequestDto request,
+                                        HttpServletRequest httpRequest) {
+        Long operatorId = operatorContextResolver.resolveOperatorId(httpRequest);
+        return userService.updateStatuses(operatorId, request.userIds(), request.status());
+    }
+
     /**
      * Обновляет набор ролей пользователя.
      */
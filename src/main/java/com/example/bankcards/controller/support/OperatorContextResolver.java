@@ -1,12 +1,15 @@
 package com.example.bankcards.controller.support;
 
 import com.example.bankcards.exception.InvalidOperatorContextException;
+import com.example.bankcards.security.model.OperatorContext;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 /**
  * Компонент извлечения ID оператора из HTTP-заголовков.
+ * <p>
+ * Если заголовок не передан, оператором считается аутентифицированный пользователь запроса.
  */
 @Component
 public class OperatorContextResolver {
@@ -16,6 +19,9 @@ public class OperatorContextResolver {
     public Long resolveOperatorId(HttpServletRequest request) {
         String headerValue = request.getHeader(OPERATOR_HEADER);
         if (!StringUtils.hasText(headerValue)) {
+            if (request.getAttribute(OperatorContext.REQUEST_ATTRIBUTE) instanceof OperatorContext operator) {
+                return operator.id();
+            }
             throw new InvalidOperatorContextException("X-Operator-Id header is required");
         }
         try {
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+
+/**
+ * Результат выполнения одного перевода из пакета.
+ *
+ * @param index         позиция перевода в исходном запросе
+ * @param transferId    ID сохранённого перевода, если он был создан
+ * @param failureReason причина ошибки для статуса FAILED
+ */
+public record BatchTransferItemDto(
+        int index,
+        TransferStatus status,
+        Long transferId,
+        String failureReason
+) {
+
+    public static BatchTransferItemDto completed(int index, Long transferId) {
+        return new BatchTransferItemDto(index, TransferStatus.COMPLETED, transferId, null);
+    }
+
+    public static BatchTransferItemDto failed(int index, Long transferId, String failureReason) {
+        return new BatchTransferItemDto(index, TransferStatus.FAILED, transferId, failureReason);
+    }
+}
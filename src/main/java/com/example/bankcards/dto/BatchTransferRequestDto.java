@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * Запрос на пакетное выполнение переводов.
+ */
+public record BatchTransferRequestDto(
+        @NotEmpty(message = "At least one transfer must be specified")
+        List<@Valid CardTransferRequestDto> transfers
+) {
+}
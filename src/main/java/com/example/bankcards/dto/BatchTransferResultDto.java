@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.TransferStatus;
+import java.util.List;
+
+/**
+ * Итог пакетного выполнения переводов.
+ */
+public record BatchTransferResultDto(
+        int total,
+        int completed,
+        int failed,
+        List<BatchTransferItemDto> items
+) {
+
+    public static BatchTransferResultDto of(List<BatchTransferItemDto> items) {
+        int completed = (int) items.stream()
+                .filter(item -> item.status() == TransferStatus.COMPLETED)
+                .count();
+        return new BatchTransferResultDto(items.size(), completed, items.size() - completed, List.copyOf(items));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardImportFormat;
+import java.time.LocalDateTime;
+
+/**
+ * Итоги загрузки файла массового выпуска карт.
+ *
+ * @param completedAt время окончания обработки; {@code null}, если загрузка прервалась
+ */
+public record CardImportDto(
+        Long id,
+        CardImportFormat format,
+        long total,
+        long issued,
+        long failed,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt
+) {
+}
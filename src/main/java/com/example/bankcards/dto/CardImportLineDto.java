@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Строка файла массового выпуска карт.
+ */
+public record CardImportLineDto(
+        Long userId,
+        String cardNumber,
+        LocalDate expirationDate,
+        BigDecimal initialBalance
+) {
+
+    public CreateCardRequestDto toRequest() {
+        return new CreateCardRequestDto(cardNumber, expirationDate, initialBalance);
+    }
+}
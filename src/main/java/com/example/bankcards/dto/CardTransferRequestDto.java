@@ -22,7 +22,7 @@ public record CardTransferRequestDto(
 
         @NotNull(message = "Amount is required")
         @Positive(message = "Amount must be greater than zero")
-        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        @Digits(integer = 16, fraction = 2, message = "Amount must have up to 2 fractional digits")
         BigDecimal amount,
 
         @Size(max = 255, message = "Description must be 255 characters or fewer")
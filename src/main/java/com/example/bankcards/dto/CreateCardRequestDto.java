@@ -23,7 +23,7 @@ public record CreateCardRequestDto(
 
         @NotNull(message = "Initial balance is required")
         @DecimalMin(value = "0.00", message = "Initial balance must not be negative")
-        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        @Digits(integer = 16, fraction = 2, message = "Amount must have up to 2 fractional digits")
         BigDecimal initialBalance
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.entity.enums.RoleType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Запрос на создание политики лимитов. Заполняется только цель, соответствующая области действия.
+ */
+public record CreateLimitPolicyRequestDto(
+        @NotNull(message = "Policy scope is required")
+        LimitPolicyScope scope,
+
+        Long cardId,
+
+        Long userId,
+
+        RoleType role,
+
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal dailyLimit,
+
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal weeklyLimit,
+
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal monthlyLimit
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.entity.enums.RoleType;
+import java.math.BigDecimal;
+
+/**
+ * DTO политики лимитов переводов.
+ */
+public record LimitPolicyDto(
+        Long id,
+        LimitPolicyScope scope,
+        Long cardId,
+        Long userId,
+        RoleType role,
+        BigDecimal dailyLimit,
+        BigDecimal weeklyLimit,
+        BigDecimal monthlyLimit
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import java.math.BigDecimal;
+
+/**
+ * Запрос на изменение лимитов политики. Незаданный лимит наследуется с более общего уровня.
+ */
+public record UpdateLimitPolicyRequestDto(
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal dailyLimit,
+
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal weeklyLimit,
+
+        @DecimalMin(value = "0.01", message = "Limit must be greater than zero")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have up to 2 fractional digits")
+        BigDecimal monthlyLimit
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.UserStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.Set;
+
+/**
+ * Запрос на обновление статуса нескольких пользователей.
+ */
+public record UpdateUsersStatusRequestDto(
+        @NotEmpty(message = "At least one user must be specified")
+        @Size(max = 1000, message = "No more than 1000 users can be updated at once")
+        Set<@NotNull(message = "User ID is required") Long> userIds,
+
+        @NotNull(message = "Status is required")
+        UserStatus status
+) {
+}
@@ -14,7 +14,6 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -26,7 +25,7 @@ import lombok.Setter;
  */
 @Entity
 @Table(name = "cards", uniqueConstraints = {
-        @UniqueConstraint(name = "uk_cards_card_number", columnNames = "card_number")
+        @UniqueConstraint(name = "uk_cards_card_number_hash", columnNames = "card_number_hash")
 })
 @Getter
 @Setter
@@ -41,6 +40,12 @@ public class Card extends AuditableEntity {
     @Column(name = "card_number", nullable = false, length = 512)
     private String encryptedNumber;
 
+    /**
+     * HMAC-SHA256 номера карты, по которому выполняется поиск карты по номеру.
+     */
+    @Column(name = "card_number_hash", length = 32)
+    private byte[] numberHash;
+
     @Column(name = "last_digits", nullable = false, length = 4)
     private String lastDigits;
 
@@ -56,5 +61,5 @@ public class Card extends AuditableEntity {
     private CardStatus status = CardStatus.ACTIVE;
 
     @Column(name = "balance", nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Сумма исходящих переводов карты за день.
+ */
+@Entity
+@Table(name = "card_daily_spend")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class CardDailySpend {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "spent", nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent = BigDecimal.ZERO;
+
+    /**
+     * Ключ записи: карта и день.
+     */
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "card_id", nullable = false)
+        private Long cardId;
+
+        @Column(name = "day", nullable = false)
+        private LocalDate day;
+    }
+}
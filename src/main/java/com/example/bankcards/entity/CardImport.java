@@ -0,0 +1,54 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.CardImportFormat;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Загрузка файла массового выпуска карт и её итоги.
+ */
+@Entity
+@Table(name = "card_imports")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id", callSuper = false)
+public class CardImport extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "operator_id", nullable = false)
+    private Long operatorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 10)
+    private CardImportFormat format;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "issued_count", nullable = false)
+    private long issuedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    /**
+     * Время окончания обработки файла; не заполняется, если загрузка прервалась.
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
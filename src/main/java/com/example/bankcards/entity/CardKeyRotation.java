@@ -0,0 +1,53 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Прогресс перешифрования номеров карт ключом с указанным ID.
+ */
+@Entity
+@Table(name = "card_key_rotations")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "keyId", callSuper = false)
+public class CardKeyRotation extends AuditableEntity {
+
+    @Id
+    @Column(name = "key_id", nullable = false, length = 16)
+    private String keyId;
+
+    /**
+     * ID последней обработанной карты; следующая порция начинается после неё.
+     */
+    @Column(name = "last_card_id", nullable = false)
+    private long lastCardId;
+
+    @Column(name = "rotated_count", nullable = false)
+    private long rotatedCount;
+
+    /**
+     * Количество карт, номера которых не удалось расшифровать настроенными ключами.
+     */
+    @Column(name = "skipped_count", nullable = false)
+    private long skippedCount;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public CardKeyRotation(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
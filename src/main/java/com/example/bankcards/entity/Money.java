@@ -0,0 +1,82 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная сумма в копейках.
+ * <p>
+ * Используется в сервисном слое и счётчиках лимитов вместо {@link BigDecimal}: операции
+ * выполняются над {@code long} без создания промежуточных объектов, переполнение приводит
+ * к {@link ArithmeticException}. В {@link BigDecimal} сумма преобразуется только на границе
+ * с DTO и БД.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Преобразует сумму, округляя её до копеек по правилу {@link RoundingMode#HALF_UP}.
+     *
+     * @throws ArithmeticException если сумма не помещается в {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinorUnits(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public Money plus(Money other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinorUnits(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public Money min(Money other) {
+        return minorUnits <= other.minorUnits ? this : other;
+    }
+
+    public Money max(Money other) {
+        return minorUnits >= other.minorUnits ? this : other;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Выданный refresh-токен и его использование.
+ * <p>
+ * Токены одной цепочки ротации, начатой при входе, имеют общий {@code familyId}; повторное
+ * использование любого токена цепочки отзывает её целиком.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "jti")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "jti", nullable = false)
+    private UUID jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
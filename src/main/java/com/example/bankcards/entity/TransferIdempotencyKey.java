@@ -0,0 +1,48 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ключ идемпотентности запроса на перевод и созданный по нему перевод.
+ */
+@Entity
+@Table(name = "transfer_idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transfer_idempotency_keys_operator_key", columnNames = {"operator_id", "idempotency_key"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id", callSuper = false)
+public class TransferIdempotencyKey extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "operator_id", nullable = false)
+    private Long operatorId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "transfer_id", nullable = false, foreignKey = @ForeignKey(name = "fk_transfer_idempotency_keys_transfer"))
+    private CardTransfer transfer;
+}
@@ -0,0 +1,68 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.entity.enums.RoleType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Лимиты переводов для карты, пользователя или роли. Незаданный лимит
+ * наследуется с более общего уровня.
+ */
+@Entity
+@Table(name = "transfer_limit_policies", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transfer_limit_policies_card", columnNames = "card_id"),
+        @UniqueConstraint(name = "uk_transfer_limit_policies_user", columnNames = "user_id"),
+        @UniqueConstraint(name = "uk_transfer_limit_policies_role", columnNames = "role_name")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id", callSuper = false)
+public class TransferLimitPolicy extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private LimitPolicyScope scope;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "card_id", foreignKey = @ForeignKey(name = "fk_transfer_limit_policies_card"))
+    private Card card;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(name = "fk_transfer_limit_policies_user"))
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role_name", length = 30)
+    private RoleType role;
+
+    @Column(name = "daily_limit", precision = 19, scale = 2)
+    private BigDecimal dailyLimit;
+
+    @Column(name = "weekly_limit", precision = 19, scale = 2)
+    private BigDecimal weeklyLimit;
+
+    @Column(name = "monthly_limit", precision = 19, scale = 2)
+    private BigDecimal monthlyLimit;
+}
@@ -61,6 +61,13 @@ public class User extends AuditableEntity {
     @Column(name = "status", nullable = false, length = 20)
     private UserStatus status = UserStatus.ACTIVE;
 
+    /**
+     * Версия токенов пользователя. Изменяется только запросами UPDATE в {@code UserRepository},
+     * чтобы сохранение сущности не перезаписало версию, увеличенную параллельно.
+     */
+    @Column(name = "token_version", nullable = false, updatable = false)
+    private int tokenVersion;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_user_roles_user")),
@@ -0,0 +1,16 @@
+package com.example.bankcards.entity.enums;
+
+/**
+ * Форматы файлов массового выпуска карт.
+ */
+public enum CardImportFormat {
+    /**
+     * Строки {@code userId,cardNumber,expirationDate,initialBalance}, заголовок необязателен.
+     */
+    CSV,
+    /**
+     * JSON-объект на строку с полями {@code userId}, {@code cardNumber}, {@code expirationDate}
+     * и {@code initialBalance}.
+     */
+    NDJSON
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.entity.enums;
+
+/**
+ * Область действия политики лимитов переводов.
+ */
+public enum LimitPolicyScope {
+    CARD,
+    USER,
+    ROLE
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Исключение, выбрасываемое если карту не удалось заблокировать за отведённое время.
+ */
+@StandardException
+public class CardLockTimeoutException extends BankcardsException {
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -31,8 +32,8 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request, ex);
     }
 
-    @ExceptionHandler(DuplicateResourceException.class)
-    public ResponseEntity<ErrorResponse> handleDuplicate(DuplicateResourceException ex, HttpServletRequest request) {
+    @ExceptionHandler({DuplicateResourceException.class, CardLockTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleConflict(BankcardsException ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), request, ex);
     }
 
@@ -41,13 +42,28 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage(), request, ex);
     }
 
+    @ExceptionHandler(TransferQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TransferQueueFullException ex, HttpServletRequest request) {
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request, ex);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex, HttpServletRequest request) {
+        ResponseEntity<ErrorResponse> response = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request, ex);
+        long retryAfterSeconds = Math.max(1, ex.getRetryAfter().toSeconds());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler({
             UserInactiveException.class,
             CardInactiveException.class,
             TransferLimitExceededException.class,
             InsufficientFundsException.class,
             InvalidTransferRequestException.class,
-            InvalidCardOperationException.class
+            InvalidCardOperationException.class,
+            InvalidLimitPolicyException.class
     })
     public ResponseEntity<ErrorResponse> handleUnprocessableEntity(BankcardsException ex, HttpServletRequest request) {
         Map<String, Object> details = null;
@@ -129,7 +145,8 @@ public class GlobalExceptionHandler {
                                      List<ErrorResponse.ValidationError> validationErrors,
                                      Map<String, Object> details) {
         String uri = request.getRequestURI();
-        if (status.is5xxServerError()) {
+        // Отказ из-за перегрузки ожидаем, трассировка стека для него не нужна
+        if (status.is5xxServerError() && status != HttpStatus.SERVICE_UNAVAILABLE) {
             log.error("Responding with {} {} for request {}", status.value(), status.getReasonPhrase(), uri, ex);
         } else if (ex != null) {
             log.warn("Responding with {} {} for request {} due to {}: {}",
@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Исключение при некорректном описании политики лимитов.
+ */
+@StandardException
+public class InvalidLimitPolicyException extends BankcardsException {
+}
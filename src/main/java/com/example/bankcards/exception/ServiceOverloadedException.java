@@ -0,0 +1,18 @@
+package com.example.bankcards.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Исключение, выбрасываемое когда запрос отклонён из-за перегрузки и может быть повторён позже.
+ */
+@Getter
+public class ServiceOverloadedException extends BankcardsException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
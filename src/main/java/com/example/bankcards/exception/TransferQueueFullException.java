@@ -0,0 +1,10 @@
+package com.example.bankcards.exception;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Исключение, выбрасываемое когда очередь асинхронных переводов переполнена.
+ */
+@StandardException
+public class TransferQueueFullException extends BankcardsException {
+}
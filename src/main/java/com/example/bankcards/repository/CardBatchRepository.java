@@ -0,0 +1,18 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import java.util.List;
+
+/**
+ * Пакетная вставка карт через JDBC: сущности с ID IDENTITY Hibernate вставляет по одной.
+ */
+public interface CardBatchRepository {
+
+    /**
+     * Вставляет карты одним запросом. Карта, номер которой уже выпущен, не вставляется.
+     * Номера в списке должны быть различными. ID вставленным картам не присваиваются.
+     *
+     * @return признаки вставки карт в порядке исходного списка
+     */
+    boolean[] insertAllSkippingDuplicates(List<Card> cards);
+}
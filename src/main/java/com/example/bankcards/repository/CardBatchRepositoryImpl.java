@@ -0,0 +1,81 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@RequiredArgsConstructor
+class CardBatchRepositoryImpl implements CardBatchRepository {
+
+    private static final String INSERT_SQL = """
+            insert into cards (card_number, card_number_hash, last_digits, owner_id, expiration_date, status,
+                               balance, created_at, updated_at)
+            select v.card_number, v.card_number_hash, v.last_digits, v.owner_id, v.expiration_date, v.status,
+                   v.balance, ?, ?
+            from unnest(cast(? as varchar[]), cast(? as bytea[]), cast(? as varchar[]), cast(? as bigint[]),
+                        cast(? as date[]), cast(? as varchar[]), cast(? as numeric[]))
+                 as v(card_number, card_number_hash, last_digits, owner_id, expiration_date, status, balance)
+            on conflict (card_number_hash) do nothing
+            returning card_number_hash
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean[] insertAllSkippingDuplicates(List<Card> cards) {
+        boolean[] inserted = new boolean[cards.size()];
+        if (cards.isEmpty()) {
+            return inserted;
+        }
+        Set<ByteBuffer> insertedHashes = new HashSet<>();
+        jdbcTemplate.query(connection -> prepareInsert(connection, cards),
+                (RowCallbackHandler) resultSet -> insertedHashes.add(ByteBuffer.wrap(resultSet.getBytes(1))));
+        for (int i = 0; i < inserted.length; i++) {
+            inserted[i] = insertedHashes.contains(ByteBuffer.wrap(cards.get(i).getNumberHash()));
+        }
+        return inserted;
+    }
+
+    private static PreparedStatement prepareInsert(Connection connection, List<Card> cards) throws SQLException {
+        int size = cards.size();
+        String[] numbers = new String[size];
+        byte[][] hashes = new byte[size][];
+        String[] lastDigits = new String[size];
+        Long[] ownerIds = new Long[size];
+        String[] expirationDates = new String[size];
+        String[] statuses = new String[size];
+        String[] balances = new String[size];
+        for (int i = 0; i < size; i++) {
+            Card card = cards.get(i);
+            numbers[i] = card.getEncryptedNumber();
+            hashes[i] = card.getNumberHash();
+            lastDigits[i] = card.getLastDigits();
+            ownerIds[i] = card.getOwner().getId();
+            expirationDates[i] = card.getExpirationDate().toString();
+            statuses[i] = card.getStatus().name();
+            balances[i] = card.getBalance().toBigDecimal().toPlainString();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+        statement.setTimestamp(1, now);
+        statement.setTimestamp(2, now);
+        statement.setArray(3, connection.createArrayOf("varchar", numbers));
+        statement.setArray(4, connection.createArrayOf("bytea", hashes));
+        statement.setArray(5, connection.createArrayOf("varchar", lastDigits));
+        statement.setArray(6, connection.createArrayOf("bigint", ownerIds));
+        statement.setArray(7, connection.createArrayOf("varchar", expirationDates));
+        statement.setArray(8, connection.createArrayOf("varchar", statuses));
+        statement.setArray(9, connection.createArrayOf("varchar", balances));
+        return statement;
+    }
+}
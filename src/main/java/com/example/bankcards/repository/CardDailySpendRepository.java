@@ -0,0 +1,52 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardDailySpend;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CardDailySpendRepository extends JpaRepository<CardDailySpend, CardDailySpend.Key> {
+
+    @Query("select s.spent from CardDailySpend s where s.id.cardId = :cardId and s.id.day = :day")
+    Optional<BigDecimal> findSpent(@Param("cardId") Long cardId, @Param("day") LocalDate day);
+
+    /**
+     * Увеличивает сумму карты за день, только если результат не превышает лимит.
+     *
+     * @return 1, если сумма учтена, и 0, если лимит был бы превышен
+     */
+    @Modifying
+    @Query(value = "insert into card_daily_spend (card_id, day, spent) "
+            + "select :cardId, :day, :amount where :amount <= :limit "
+            + "on conflict (card_id, day) do update set spent = card_daily_spend.spent + excluded.spent "
+            + "where card_daily_spend.spent + excluded.spent <= :limit", nativeQuery = true)
+    int addIfWithinLimit(@Param("cardId") Long cardId,
+                         @Param("day") LocalDate day,
+                         @Param("amount") BigDecimal amount,
+                         @Param("limit") BigDecimal limit);
+
+    @Modifying
+    @Query(value = "update card_daily_spend set spent = spent - :amount where card_id = :cardId and day = :day",
+            nativeQuery = true)
+    int subtract(@Param("cardId") Long cardId, @Param("day") LocalDate day, @Param("amount") BigDecimal amount);
+
+    /**
+     * Дополняет суммы за период по переводам в статусах PENDING и COMPLETED. Существующие
+     * суммы не уменьшаются, чтобы не потерять увеличения из незафиксированных транзакций.
+     *
+     * @return количество добавленных или изменённых записей
+     */
+    @Modifying
+    @Query(value = "insert into card_daily_spend (card_id, day, spent) "
+            + "select t.from_card_id, cast(t.created_at as date), sum(t.amount) from card_transfers t "
+            + "where t.status in ('PENDING', 'COMPLETED') and t.created_at >= :from and t.created_at < :to "
+            + "group by t.from_card_id, cast(t.created_at as date) "
+            + "on conflict (card_id, day) do update set spent = excluded.spent "
+            + "where card_daily_spend.spent < excluded.spent", nativeQuery = true)
+    int reconcile(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.repository.projection.CardImportError;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Запись и чтение ошибок массового выпуска карт через JDBC.
+ */
+public interface CardImportErrorRepository {
+
+    /**
+     * Сохраняет ошибки одним пакетом.
+     */
+    void insertErrors(Long importId, List<CardImportError> errors);
+
+    /**
+     * Передаёт ошибки загрузки по возрастанию номера строки, не загружая их в память целиком.
+     * Должен вызываться в транзакции.
+     */
+    void forEachError(Long importId, Consumer<CardImportError> consumer);
+}
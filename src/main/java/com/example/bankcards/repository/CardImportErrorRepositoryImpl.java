@@ -0,0 +1,47 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.repository.projection.CardImportError;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@RequiredArgsConstructor
+class CardImportErrorRepositoryImpl implements CardImportErrorRepository {
+
+    private static final int MAX_MESSAGE_LENGTH = 512;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertErrors(Long importId, List<CardImportError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("insert into card_import_errors (import_id, line_number, message) values (?, ?, ?)",
+                errors, errors.size(), (statement, error) -> {
+                    statement.setLong(1, importId);
+                    statement.setLong(2, error.lineNumber());
+                    String message = error.message();
+                    statement.setString(3, message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+                });
+    }
+
+    @Override
+    public void forEachError(Long importId, Consumer<CardImportError> consumer) {
+        PreparedStatementCreator query = connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "select line_number, message from card_import_errors where import_id = ? order by line_number");
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, importId);
+            return statement;
+        };
+        RowCallbackHandler handler = resultSet ->
+                consumer.accept(new CardImportError(resultSet.getLong(1), resultSet.getString(2)));
+        jdbcTemplate.query(query, handler);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CardImportRepository extends JpaRepository<CardImport, Long>, CardImportErrorRepository {
+
+    @Modifying
+    @Query("""
+            update CardImport i
+            set i.totalCount = i.totalCount + :total,
+                i.issuedCount = i.issuedCount + :issued,
+                i.failedCount = i.failedCount + :failed
+            where i.id = :id
+            """)
+    int addProgress(@Param("id") Long id,
+                    @Param("total") long total,
+                    @Param("issued") long issued,
+                    @Param("failed") long failed);
+}
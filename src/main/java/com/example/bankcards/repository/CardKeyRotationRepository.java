@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardKeyRotation;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CardKeyRotationRepository extends JpaRepository<CardKeyRotation, String> {
+
+    @Modifying
+    @Query(value = "insert into card_key_rotations (key_id) values (:keyId) on conflict (key_id) do nothing",
+            nativeQuery = true)
+    int createIfAbsent(@Param("keyId") String keyId);
+
+    /**
+     * Блокирует запись прогресса ротации. Если запись заблокирована другим экземпляром
+     * приложения, возвращает пустой результат.
+     */
+    @Query(value = "select * from card_key_rotations where key_id = :keyId for update skip locked", nativeQuery = true)
+    Optional<CardKeyRotation> findForUpdateSkipLocked(@Param("keyId") String keyId);
+}
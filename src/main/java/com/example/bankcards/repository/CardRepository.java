@@ -2,16 +2,197 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.projection.CardIdRow;
+import com.example.bankcards.repository.projection.CardNumberRow;
+import com.example.bankcards.repository.projection.CardSummary;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, CardBatchRepository {
 
-    Optional<Card> findByEncryptedNumber(String encryptedNumber);
+    boolean existsByNumberHash(byte[] numberHash);
 
-    Page<Card> findAllByOwnerId(Long ownerId, Pageable pageable);
+    @Query("select new com.example.bankcards.repository.projection.CardIdRow(c.numberHash, c.id) "
+            + "from Card c where c.numberHash in :numberHashes")
+    List<CardIdRow> findIdsByNumberHashIn(@Param("numberHashes") Collection<byte[]> numberHashes);
 
-    Page<Card> findAllByOwnerIdAndStatus(Long ownerId, CardStatus status, Pageable pageable);
-}
\ No newline at end of file
+    @Query("select c.numberHash from Card c where c.numberHash in :numberHashes")
+    List<byte[]> findExistingNumberHashes(@Param("numberHashes") Collection<byte[]> numberHashes);
+
+    @Query("select c.id from Card c where c.numberHash = :numberHash")
+    Optional<Long> findIdByNumberHash(@Param("numberHash") byte[] numberHash);
+
+    @Query("select c.status from Card c where c.id = :id")
+    Optional<CardStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * Возвращает следующую порцию карт без {@code card_number_hash}, блокируя их строки.
+     * Строки, заблокированные другими транзакциями, пропускаются.
+     */
+    @Query(value = """
+            select id, card_number as encryptedNumber
+            from cards
+            where card_number_hash is null and id > :afterId
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<CardNumberRow> findUnhashedForUpdate(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "update cards set card_number = :encryptedNumber, card_number_hash = :numberHash where id = :id",
+            nativeQuery = true)
+    int updateNumber(@Param("id") Long id,
+                     @Param("encryptedNumber") String encryptedNumber,
+                     @Param("numberHash") byte[] numberHash);
+
+    /**
+     * Возвращает следующую порцию карт с HMAC номера, зашифрованных не ключом с указанным префиксом.
+     */
+    @Query(value = """
+            select id, card_number as encryptedNumber
+            from cards
+            where id > :afterId
+              and card_number_hash is not null
+              and not starts_with(card_number, :keyPrefix)
+            order by id
+            limit :limit
+            """, nativeQuery = true)
+    List<CardNumberRow> findEncryptedWithOtherKey(@Param("afterId") long afterId,
+                                                  @Param("keyPrefix") String keyPrefix,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Заменяет шифртексты номеров одним запросом. Номер заменяется, только если его шифртекст
+     * не изменился с момента чтения.
+     *
+     * @return количество изменённых карт
+     */
+    @Modifying
+    @Query(value = """
+            update cards c
+            set card_number = v.encrypted_number
+            from unnest(cast(:ids as bigint[]), cast(:currentNumbers as varchar[]), cast(:encryptedNumbers as varchar[]))
+                 as v(id, current_number, encrypted_number)
+            where c.id = v.id
+              and c.card_number = v.current_number
+            """, nativeQuery = true)
+    int replaceEncryptedNumbers(@Param("ids") Long[] ids,
+                                @Param("currentNumbers") String[] currentNumbers,
+                                @Param("encryptedNumbers") String[] encryptedNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids order by c.id")
+    List<Card> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Баланс хранится через конвертер Money, а JPQL не допускает арифметики над такими атрибутами
+    @Modifying
+    @Query(value = """
+            update cards
+            set balance = balance - :amount, updated_at = :now
+            where id = :id
+              and balance >= :amount
+              and status = 'ACTIVE'
+            """, nativeQuery = true)
+    int debitIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            update cards
+            set balance = balance + :amount, updated_at = :now
+            where id = :id
+              and status = 'ACTIVE'
+            """, nativeQuery = true)
+    int creditIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "update cards set balance = balance + :amount, updated_at = :now where id = :id", nativeQuery = true)
+    int addToBalance(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    Page<CardSummary> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Карты владельца со статусом с учётом срока действия: карта с истёкшим сроком, ещё не
+     * отмеченная как EXPIRED, выбирается по статусу EXPIRED.
+     */
+    @Query(value = """
+            select new com.example.bankcards.repository.projection.CardSummary(
+                c.id, c.lastDigits, c.expirationDate, c.status, c.balance)
+            from Card c
+            where c.owner.id = :ownerId
+              and (c.status = :status
+                       and (c.status not in (com.example.bankcards.entity.enums.CardStatus.ACTIVE,
+                                             com.example.bankcards.entity.enums.CardStatus.BLOCKED)
+                            or c.expirationDate > :today)
+                   or :status = com.example.bankcards.entity.enums.CardStatus.EXPIRED
+                       and c.status in (com.example.bankcards.entity.enums.CardStatus.ACTIVE,
+                                        com.example.bankcards.entity.enums.CardStatus.BLOCKED)
+                       and c.expirationDate <= :today)
+            """, countQuery = """
+            select count(c)
+            from Card c
+            where c.owner.id = :ownerId
+              and (c.status = :status
+                       and (c.status not in (com.example.bankcards.entity.enums.CardStatus.ACTIVE,
+                                             com.example.bankcards.entity.enums.CardStatus.BLOCKED)
+                            or c.expirationDate > :today)
+                   or :status = com.example.bankcards.entity.enums.CardStatus.EXPIRED
+                       and c.status in (com.example.bankcards.entity.enums.CardStatus.ACTIVE,
+                                        com.example.bankcards.entity.enums.CardStatus.BLOCKED)
+                       and c.expirationDate <= :today)
+            """)
+    Page<CardSummary> findAllByOwnerIdAndEffectiveStatus(@Param("ownerId") Long ownerId,
+                                                         @Param("status") CardStatus status,
+                                                         @Param("today") LocalDate today,
+                                                         Pageable pageable);
+
+    /**
+     * Переводит карты владельцев из текущих статусов в новый одним запросом.
+     *
+     * @return количество изменённых карт
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Card c
+            set c.status = :newStatus, c.updatedAt = :now
+            where c.owner.id in :ownerIds
+              and c.status in :currentStatuses
+            """)
+    int updateStatusByOwnerIds(@Param("ownerIds") Collection<Long> ownerIds,
+                               @Param("currentStatuses") Collection<CardStatus> currentStatuses,
+                               @Param("newStatus") CardStatus newStatus,
+                               @Param("now") LocalDateTime now);
+
+    /**
+     * Переводит в EXPIRED не более {@code limit} карт с истёкшим сроком действия. Карты,
+     * заблокированные другими транзакциями, пропускаются до следующего запуска. Сортировка
+     * по сроку действия нужна, чтобы карты выбирались по частичному индексу, а не перебором таблицы.
+     *
+     * @return количество изменённых карт
+     */
+    @Modifying
+    @Query(value = """
+            update cards
+            set status = 'EXPIRED', updated_at = :now
+            where id = any(array(select id
+                                 from cards
+                                 where expiration_date <= :today
+                                   and status in ('ACTIVE', 'BLOCKED')
+                                 order by expiration_date
+                                 limit :limit
+                                 for update skip locked))
+            """, nativeQuery = true)
+    int expireCards(@Param("today") LocalDate today, @Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,9 +1,19 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.repository.projection.TransferSpendEntry;
+import com.example.bankcards.repository.projection.TransferSpendTotals;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CardTransferRepository extends JpaRepository<CardTransfer, Long> {
 
@@ -11,7 +21,51 @@ public interface CardTransferRepository extends JpaRepository<CardTransfer, Long
 
     List<CardTransfer> findAllByToCardId(Long toCardId);
 
-    List<CardTransfer> findAllByFromCardIdAndCreatedAtBetween(Long fromCardId, LocalDateTime from, LocalDateTime to);
+    /**
+     * Сумма исходящих переводов карты с указанными статусами за период [from, to).
+     */
+    @Query("select coalesce(sum(t.amount), 0) from CardTransfer t "
+            + "where t.fromCard.id = :cardId and t.createdAt >= :from and t.createdAt < :to and t.status in :statuses")
+    BigDecimal sumOutgoingAmount(@Param("cardId") Long cardId,
+                                 @Param("statuses") Collection<TransferStatus> statuses,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Время и суммы исходящих переводов карты с указанными статусами за период [from, to).
+     */
+    @Query("select new com.example.bankcards.repository.projection.TransferSpendEntry(t.createdAt, t.amount) "
+            + "from CardTransfer t "
+            + "where t.fromCard.id = :cardId and t.createdAt >= :from and t.createdAt < :to and t.status in :statuses")
+    List<TransferSpendEntry> findOutgoingSpend(@Param("cardId") Long cardId,
+                                               @Param("statuses") Collection<TransferStatus> statuses,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    /**
+     * Суммы исходящих переводов карты с указанными статусами за текущие день, неделю
+     * и месяц, рассчитанные одним проходом по переводам за период [from, to).
+     * Период должен начинаться не позже самого раннего из используемых начал.
+     */
+    @Query("select new com.example.bankcards.repository.projection.TransferSpendTotals("
+            + "coalesce(sum(case when t.createdAt >= :dayStart then t.amount else 0 end), 0), "
+            + "coalesce(sum(case when t.createdAt >= :weekStart then t.amount else 0 end), 0), "
+            + "coalesce(sum(case when t.createdAt >= :monthStart then t.amount else 0 end), 0)) "
+            + "from CardTransfer t "
+            + "where t.fromCard.id = :cardId and t.createdAt >= :from and t.createdAt < :to and t.status in :statuses")
+    TransferSpendTotals sumOutgoingAmountByWindow(@Param("cardId") Long cardId,
+                                                  @Param("statuses") Collection<TransferStatus> statuses,
+                                                  @Param("dayStart") LocalDateTime dayStart,
+                                                  @Param("weekStart") LocalDateTime weekStart,
+                                                  @Param("monthStart") LocalDateTime monthStart,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    List<CardTransfer> findAllByStatusOrderByIdAsc(TransferStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from CardTransfer t where t.id = :id")
+    Optional<CardTransfer> findByIdForUpdate(@Param("id") Long id);
 
     boolean existsByFromCardIdOrToCardId(Long fromCardId, Long toCardId);
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.repository.projection.RefreshTokenRow;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Сохраняет выданный токен одним INSERT, без проверки существования записи, которую
+     * выполнил бы {@code save} для сущности с заданным ID.
+     */
+    @Modifying
+    @Query(value = """
+            insert into refresh_tokens (jti, user_id, family_id, expires_at, created_at)
+            values (:jti, :userId, :familyId, :expiresAt, :now)
+            """, nativeQuery = true)
+    int insertToken(@Param("jti") UUID jti,
+                    @Param("userId") Long userId,
+                    @Param("familyId") UUID familyId,
+                    @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Отмечает токен использованным, если он ещё не использован и не отозван.
+     *
+     * @return 1, если токен отмечен этим вызовом; 0, если токен уже использован, отозван или не выдавался
+     */
+    @Modifying
+    @Query("""
+            update RefreshToken t
+            set t.usedAt = :now
+            where t.jti = :jti and t.usedAt is null and t.revokedAt is null
+            """)
+    int markUsed(@Param("jti") UUID jti, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    @Query("select t.jti as jti, t.expiresAt as expiresAt from RefreshToken t where t.familyId = :familyId")
+    List<RefreshTokenRow> findByFamilyId(@Param("familyId") UUID familyId);
+
+    /**
+     * Удаляет не более {@code limit} токенов, срок действия которых истёк.
+     *
+     * @return количество удалённых токенов
+     */
+    @Modifying
+    @Query(value = """
+            delete from refresh_tokens
+            where jti = any(array(select jti
+                                  from refresh_tokens
+                                  where expires_at <= :now
+                                  order by expires_at
+                                  limit :limit))
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
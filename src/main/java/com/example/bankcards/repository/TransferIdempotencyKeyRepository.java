@@ -0,0 +1,33 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TransferIdempotencyKeyRepository extends JpaRepository<TransferIdempotencyKey, Long> {
+
+    @Query("select k from TransferIdempotencyKey k join fetch k.transfer "
+            + "where k.operatorId = :operatorId and k.idempotencyKey = :idempotencyKey")
+    Optional<TransferIdempotencyKey> findWithTransfer(@Param("operatorId") Long operatorId,
+                                                      @Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Удаляет не более {@code limit} ключей, сохранённых раньше {@code before}.
+     *
+     * @return количество удалённых ключей
+     */
+    @Modifying
+    @Query(value = """
+            delete from transfer_idempotency_keys
+            where id = any(array(select id
+                                 from transfer_idempotency_keys
+                                 where created_at < :before
+                                 order by created_at
+                                 limit :limit))
+            """, nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
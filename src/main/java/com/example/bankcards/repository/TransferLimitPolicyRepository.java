@@ -0,0 +1,27 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferLimitPolicy;
+import com.example.bankcards.entity.enums.RoleType;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TransferLimitPolicyRepository extends JpaRepository<TransferLimitPolicy, Long> {
+
+    /**
+     * Возвращает политики карты, её владельца и ролей владельца.
+     */
+    @Query("select p from TransferLimitPolicy p where p.card.id = :cardId "
+            + "or p.user.id = (select c.owner.id from Card c where c.id = :cardId) "
+            + "or p.role in (select r.name from Card c join c.owner.roles r where c.id = :cardId)")
+    List<TransferLimitPolicy> findApplicableToCard(@Param("cardId") Long cardId);
+
+    List<TransferLimitPolicy> findAllByOrderByIdAsc();
+
+    boolean existsByCardId(Long cardId);
+
+    boolean existsByUserId(Long userId);
+
+    boolean existsByRole(RoleType role);
+}
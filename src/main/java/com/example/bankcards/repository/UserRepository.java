@@ -2,10 +2,16 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.repository.projection.TokenVersionRow;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -23,6 +29,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "roles")
     List<User> findAll();
 
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAllByIdIn(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.status = :status, u.tokenVersion = u.tokenVersion + 1, u.updatedAt = :now "
+            + "where u.id in :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") UserStatus status,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1, u.updatedAt = :now where u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from User u where u.id in :ids")
+    List<TokenVersionRow> findTokenVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from User u where u.tokenVersion > 0")
+    List<TokenVersionRow> findChangedTokenVersions();
+
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from User u where u.updatedAt >= :since")
+    List<TokenVersionRow> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("select u.id from User u where u.id in :ids and u.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") UserStatus status);
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
@@ -0,0 +1,7 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * ID карты и HMAC её номера.
+ */
+public record CardIdRow(byte[] numberHash, Long id) {
+}
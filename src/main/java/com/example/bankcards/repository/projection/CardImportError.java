@@ -0,0 +1,7 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * Строка файла массового выпуска карт, по которой карта не выпущена, и причина ошибки.
+ */
+public record CardImportError(long lineNumber, String message) {
+}
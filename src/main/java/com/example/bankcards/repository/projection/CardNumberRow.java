@@ -0,0 +1,11 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * ID карты и зашифрованный номер.
+ */
+public interface CardNumberRow {
+
+    Long getId();
+
+    String getEncryptedNumber();
+}
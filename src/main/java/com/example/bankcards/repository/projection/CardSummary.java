@@ -0,0 +1,11 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.enums.CardStatus;
+import java.time.LocalDate;
+
+/**
+ * Данные карты для списков: без зашифрованного номера и владельца.
+ */
+public record CardSummary(Long id, String lastDigits, LocalDate expirationDate, CardStatus status, Money balance) {
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ID refresh-токена и время окончания его действия.
+ */
+public interface RefreshTokenRow {
+
+    UUID getJti();
+
+    LocalDateTime getExpiresAt();
+}
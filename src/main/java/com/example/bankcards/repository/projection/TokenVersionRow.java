@@ -0,0 +1,11 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * ID пользователя и текущая версия его токенов.
+ */
+public interface TokenVersionRow {
+
+    Long getId();
+
+    int getTokenVersion();
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.Money;
+import java.time.LocalDateTime;
+
+/**
+ * Время создания и сумма исходящего перевода карты.
+ */
+public record TransferSpendEntry(LocalDateTime createdAt, Money amount) {
+}
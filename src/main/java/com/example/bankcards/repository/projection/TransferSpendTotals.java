@@ -0,0 +1,9 @@
+package com.example.bankcards.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Суммы исходящих переводов карты за текущие день, неделю и месяц.
+ */
+public record TransferSpendTotals(BigDecimal daily, BigDecimal weekly, BigDecimal monthly) {
+}
@@ -0,0 +1,101 @@
+package com.example.bankcards.security.crypto;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+
+/**
+ * Хеширует и проверяет пароли в отдельном пуле потоков ограниченного размера.
+ * <p>
+ * Хеширование BCrypt намеренно дорогое, поэтому без ограничения всплеск входов и регистраций
+ * занимает весь процессор и все потоки обработки запросов. Вызывающий поток ждёт результата, а
+ * задачи сверх {@link SecurityProperties.PasswordHashing#getThreads()} ждут в очереди
+ * ограниченной ёмкости. Если очередь заполнена, вызов сразу отклоняется
+ * {@link ServiceOverloadedException}, и клиент получает 503 с заголовком {@code Retry-After}.
+ * Глубина очереди и количество занятых потоков публикуются в метриках {@code executor.*} с тегом
+ * {@code name=password.hashing}, отклонённые вызовы — в {@code bank.password.hashing.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Counter rejectedTasks;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  SecurityProperties securityProperties,
+                                  MeterRegistry meterRegistry) {
+        SecurityProperties.PasswordHashing properties = securityProperties.getPasswordHashing();
+        Assert.isTrue(properties.getThreads() > 0, "Number of password hashing threads must be positive");
+        Assert.isTrue(properties.getQueueCapacity() > 0, "Password hashing queue capacity must be positive");
+        this.delegate = delegate;
+        this.retryAfter = properties.getRetryAfter();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        this.rejectedTasks = Counter.builder("bank.password.hashing.rejected")
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejectedTasks.increment();
+            throw new ServiceOverloadedException("Too many password checks in progress, retry later", retryAfter);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
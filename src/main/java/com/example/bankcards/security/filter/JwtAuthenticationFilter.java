@@ -2,6 +2,8 @@ package com.example.bankcards.security.filter;
 
 import com.example.bankcards.security.exception.JwtAuthenticationException;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.security.model.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +20,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * Фильтр, выполняющий аутентификацию запросов по JWT токену.
+ * <p>
+ * Для аутентифицированного запроса сохраняет {@link OperatorContext} в атрибуте запроса.
  */
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -35,6 +39,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (StringUtils.hasText(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
                 Authentication authentication = jwtTokenProvider.getAuthentication(token);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+                    request.setAttribute(OperatorContext.REQUEST_ATTRIBUTE, OperatorContext.of(principal));
+                }
             }
         } catch (JwtAuthenticationException ex) {
             SecurityContextHolder.clearContext();
@@ -1,9 +1,14 @@
 package com.example.bankcards.security.jwt;
 
 import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
 import com.example.bankcards.security.exception.JwtAuthenticationException;
 import com.example.bankcards.security.model.UserPrincipal;
 import com.example.bankcards.security.service.BankUserDetailsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtBuilder;
@@ -12,19 +17,26 @@ import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -39,14 +51,20 @@ public class JwtTokenProvider {
     private static final String TOKEN_TYPE_CLAIM = "type";
     private static final String USERNAME_CLAIM = "username";
     private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+    private static final String TOKEN_FAMILY_CLAIM = "fam";
+    private static final String ROLE_PREFIX = "ROLE_";
     private static final String AUDIENCE_CLAIM = "aud";
 
     private final SecurityProperties securityProperties;
     private final BankUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final MeterRegistry meterRegistry;
     private SecurityProperties.Jwt properties;
     private SignatureAlgorithm signatureAlgorithm;
     private Key signingKey;
     private JwtParser jwtParser;
+    private Cache<String, VerifiedAccessToken> verifiedTokens;
 
     @PostConstruct
     void init() {
@@ -61,6 +79,12 @@ public class JwtTokenProvider {
                 .requireIssuer(properties.getIssuer())
                 .setSigningKey(signingKey)
                 .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCache().getSize())
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "security.jwt");
     }
 
     public Duration getAccessTokenTtl() {
@@ -72,33 +96,77 @@ public class JwtTokenProvider {
     }
 
     public String createAccessToken(UserPrincipal principal) {
-        return buildToken(principal, TokenType.ACCESS, properties.getAccessToken());
+        return tokenBuilder(principal, TokenType.ACCESS, properties.getAccessToken())
+                .signWith(signingKey, signatureAlgorithm)
+                .compact();
     }
 
-    public String createRefreshToken(UserPrincipal principal) {
-        return buildToken(principal, TokenType.REFRESH, properties.getRefreshToken());
+    /**
+     * @param jti      ID токена, по которому учитывается его использование
+     * @param familyId ID цепочки ротации, к которой относится токен
+     */
+    public String createRefreshToken(UserPrincipal principal, UUID jti, UUID familyId) {
+        return tokenBuilder(principal, TokenType.REFRESH, properties.getRefreshToken())
+                .setId(jti.toString())
+                .claim(TOKEN_FAMILY_CLAIM, familyId.toString())
+                .signWith(signingKey, signatureAlgorithm)
+                .compact();
     }
 
+    /**
+     * Аутентифицирует запрос по утверждениям access-токена без загрузки пользователя. Смена статуса
+     * или ролей увеличивает версию токенов пользователя, поэтому токен с текущей версией выдан
+     * активному пользователю с теми же ролями.
+     * <p>
+     * Проверенные токены кэшируются до истечения срока действия, поэтому повторный запрос с тем же
+     * токеном не проверяет подпись и не разбирает утверждения. Ключом служит сама строка токена:
+     * её хэш-код — дешёвый дайджест, а сравнение строк целиком не позволяет подобрать другой токен
+     * с тем же хэш-кодом. Версия токена проверяется при каждом запросе.
+     */
     public Authentication getAuthentication(String token) {
-        Claims claims = parseClaims(token);
-        TokenType tokenType = extractTokenType(claims);
-        if (tokenType != TokenType.ACCESS) {
-            throw new JwtAuthenticationException("Invalid token type");
+        VerifiedAccessToken verified = verifiedTokens.get(token, this::verifyAccessToken);
+        if (!verified.expiresAt().isAfter(Instant.now())) {
+            verifiedTokens.invalidate(token);
+            throw new JwtAuthenticationException("Token expired");
+        }
+        UserPrincipal principal = verified.principal();
+        if (!tokenVersionRegistry.isCurrent(principal.getId(), principal.getTokenVersion())) {
+            throw new JwtAuthenticationException("Token has been revoked");
         }
-        Long userId = extractUserId(claims);
-        UserPrincipal principal = userDetailsService.loadUserById(userId);
-        validatePrincipal(principal);
         return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
     }
 
-    public UserPrincipal getUserFromRefreshToken(String refreshToken) {
+    /**
+     * Проверяет подпись, срок действия и тип refresh-токена. Использован ли токен, здесь не
+     * проверяется.
+     */
+    public RefreshTokenClaims parseRefreshToken(String refreshToken) {
         Claims claims = parseClaims(refreshToken);
         TokenType tokenType = extractTokenType(claims);
         if (tokenType != TokenType.REFRESH) {
             throw new JwtAuthenticationException("Invalid token type");
         }
         Long userId = extractUserId(claims);
-        UserPrincipal principal = userDetailsService.loadUserById(userId);
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        if (tokenVersion == null) {
+            throw new JwtAuthenticationException("Token version is missing");
+        }
+        return new RefreshTokenClaims(extractUuid(claims.getId(), "Token id"),
+                extractUuid(claims.get(TOKEN_FAMILY_CLAIM, String.class), "Token family"),
+                claims.getExpiration().toInstant(), toPrincipal(userId, tokenVersion, claims));
+    }
+
+    /**
+     * Возвращает пользователя, для которого выдаются токены по refresh-токену. Если версия
+     * токенов пользователя не менялась, его статус и роли совпадают с утверждениями токена и
+     * пользователь не загружается; иначе он загружается и проверяется заново.
+     */
+    public UserPrincipal currentPrincipal(RefreshTokenClaims claims) {
+        UserPrincipal claimed = claims.principal();
+        if (tokenVersionRegistry.isCurrent(claimed.getId(), claimed.getTokenVersion())) {
+            return claimed;
+        }
+        UserPrincipal principal = userDetailsService.loadUserById(claimed.getId());
         validatePrincipal(principal);
         return principal;
     }
@@ -115,8 +183,8 @@ public class JwtTokenProvider {
         }
     }
 
-    private String buildToken(UserPrincipal principal, TokenType tokenType,
-                              SecurityProperties.Jwt.Token tokenProperties) {
+    private JwtBuilder tokenBuilder(UserPrincipal principal, TokenType tokenType,
+                                    SecurityProperties.Jwt.Token tokenProperties) {
         Instant now = Instant.now();
         Instant expiresAt = now.plus(tokenProperties.getTtl());
 
@@ -127,13 +195,14 @@ public class JwtTokenProvider {
                 .setExpiration(Date.from(expiresAt))
                 .claim(TOKEN_TYPE_CLAIM, tokenType.name())
                 .claim(USERNAME_CLAIM, principal.getUsername())
-                .claim(ROLES_CLAIM, extractAuthorities(principal.getAuthorities()));
+                .claim(ROLES_CLAIM, extractAuthorities(principal.getAuthorities()))
+                .claim(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
 
         if (!tokenProperties.getAudience().isEmpty()) {
             builder.claim(AUDIENCE_CLAIM, tokenProperties.getAudience());
         }
 
-        return builder.signWith(signingKey, signatureAlgorithm).compact();
+        return builder;
     }
 
     private Claims parseClaims(String token) {
@@ -172,12 +241,98 @@ public class JwtTokenProvider {
         }
     }
 
+    private UUID extractUuid(String value, String name) {
+        if (!StringUtils.hasText(value)) {
+            throw new JwtAuthenticationException(name + " is missing");
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new JwtAuthenticationException(name + " is invalid", ex);
+        }
+    }
+
+    private VerifiedAccessToken verifyAccessToken(String token) {
+        Claims claims = parseClaims(token);
+        TokenType tokenType = extractTokenType(claims);
+        if (tokenType != TokenType.ACCESS) {
+            throw new JwtAuthenticationException("Invalid token type");
+        }
+        Long userId = extractUserId(claims);
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        if (tokenVersion == null) {
+            throw new JwtAuthenticationException("Token version is missing");
+        }
+        return new VerifiedAccessToken(toPrincipal(userId, tokenVersion, claims), claims.getExpiration().toInstant());
+    }
+
+    private UserPrincipal toPrincipal(Long userId, int tokenVersion, Claims claims) {
+        List<?> authorities = claims.get(ROLES_CLAIM, List.class);
+        if (authorities == null) {
+            throw new JwtAuthenticationException("Token roles are missing");
+        }
+        Set<RoleType> roles = EnumSet.noneOf(RoleType.class);
+        for (Object authority : authorities) {
+            roles.add(toRole(authority));
+        }
+        List<SimpleGrantedAuthority> grantedAuthorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role.name()))
+                .toList();
+        return new UserPrincipal(userId, claims.get(USERNAME_CLAIM, String.class), null, grantedAuthorities,
+                true, true, true, true, UserStatus.ACTIVE, Collections.unmodifiableSet(roles), tokenVersion);
+    }
+
+    private RoleType toRole(Object authority) {
+        if (authority instanceof String name && name.startsWith(ROLE_PREFIX)) {
+            try {
+                return RoleType.valueOf(name.substring(ROLE_PREFIX.length()));
+            } catch (IllegalArgumentException ex) {
+                throw new JwtAuthenticationException("Unknown token role", ex);
+            }
+        }
+        throw new JwtAuthenticationException("Unknown token role");
+    }
+
     private List<String> extractAuthorities(Collection<? extends GrantedAuthority> authorities) {
         return authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Утверждения проверенного refresh-токена.
+     *
+     * @param principal пользователь по утверждениям токена; актуален, только если версия токена текущая
+     */
+    public record RefreshTokenClaims(UUID jti, UUID familyId, Instant expiresAt, UserPrincipal principal) {
+    }
+
+    private record VerifiedAccessToken(UserPrincipal principal, Instant expiresAt) {
+    }
+
+    /**
+     * Хранит проверенный токен до истечения его срока действия.
+     */
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedAccessToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedAccessToken verified, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedAccessToken verified, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedAccessToken verified, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     private enum TokenType {
         ACCESS,
         REFRESH
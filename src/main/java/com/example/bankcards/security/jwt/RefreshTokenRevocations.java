@@ -0,0 +1,105 @@
+package com.example.bankcards.security.jwt;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Использованные и отозванные refresh-токены, известные этому экземпляру приложения.
+ * <p>
+ * Позволяет отклонить без запросов к БД только повторное предъявление токена, который этот
+ * экземпляр уже видел использованным или отозванным. Обычное обновление действующего токена
+ * всё равно выполняет условный UPDATE в {@code refresh_tokens}. Набор неполон: токены,
+ * использованные на других экземплярах, до перезапуска или вытесненные из памяти, сюда не
+ * попадают, и их повторное использование обнаруживает тот же UPDATE. Поэтому записи хранятся
+ * в кэше размером не более {@link SecurityProperties.RefreshTokenStore#getRevocationCacheSize()}
+ * и удаляются по окончании действия токена. Количество записей публикуется в
+ * {@code bank.refresh.token.revocations}, вытеснения — в метриках {@code cache.evictions} с тегом
+ * {@code cache=refresh.token.revocations}.
+ */
+@Component
+public class RefreshTokenRevocations {
+
+    private final Cache<UUID, Revocation> revocations;
+
+    public RefreshTokenRevocations(SecurityProperties securityProperties, MeterRegistry meterRegistry) {
+        this.revocations = Caffeine.newBuilder()
+                .maximumSize(securityProperties.getRefreshTokenStore().getRevocationCacheSize())
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revocations, "refresh.token.revocations");
+        Gauge.builder("bank.refresh.token.revocations", revocations, Cache::estimatedSize)
+                .description("Used and revoked refresh tokens kept in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return сведения об использовании токена или {@code null}, если этому экземпляру токен
+     * не известен как использованный или отозванный
+     */
+    public Revocation find(UUID jti) {
+        return revocations.getIfPresent(jti);
+    }
+
+    public void used(UUID jti, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revocations.asMap().putIfAbsent(jti, new Revocation(expiresAt, false));
+        }
+    }
+
+    /**
+     * Истёкший токен не запоминается: он отклоняется при разборе ещё до обращения к набору.
+     */
+    public void revoked(UUID jti, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revocations.put(jti, new Revocation(expiresAt, true));
+        } else {
+            revocations.invalidate(jti);
+        }
+    }
+
+    /**
+     * Удаляет токены с истёкшим сроком действия и записи сверх размера кэша.
+     *
+     * @return количество удалённых записей
+     */
+    public int compact() {
+        long before = revocations.estimatedSize();
+        revocations.cleanUp();
+        return (int) Math.max(0, before - revocations.estimatedSize());
+    }
+
+    /**
+     * @param expiresAt     время окончания действия токена, после которого запись не нужна
+     * @param familyRevoked {@code true}, если отозвана вся цепочка ротации токена
+     */
+    public record Revocation(Instant expiresAt, boolean familyRevoked) {
+    }
+
+    private static final class UntilTokenExpires implements Expiry<UUID, Revocation> {
+
+        @Override
+        public long expireAfterCreate(UUID jti, Revocation revocation, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), revocation.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID jti, Revocation revocation, long currentTime, long currentDuration) {
+            return expireAfterCreate(jti, revocation, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID jti, Revocation revocation, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
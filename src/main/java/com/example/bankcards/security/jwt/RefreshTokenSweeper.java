@@ -0,0 +1,96 @@
+package com.example.bankcards.security.jwt;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Периодически удаляет refresh-токены с истёкшим сроком действия.
+ * <p>
+ * Записи {@code refresh_tokens} удаляются порциями по
+ * {@link SecurityProperties.RefreshTokenStore#getCompactionChunkSize()}, каждая порция фиксируется
+ * в отдельной транзакции. Затем из {@link RefreshTokenRevocations} удаляются истёкшие токены.
+ */
+@Slf4j
+@Component
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenRevocations revocations;
+    private final TransactionTemplate transactionTemplate;
+    private final SecurityProperties.RefreshTokenStore properties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter deletedTokens;
+
+    public RefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository,
+                               RefreshTokenRevocations revocations,
+                               TransactionTemplate transactionTemplate,
+                               SecurityProperties securityProperties,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocations = revocations;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = securityProperties.getRefreshTokenStore();
+        Assert.isTrue(properties.getCompactionChunkSize() > 0, "Refresh token compaction chunk size must be positive");
+        Assert.isTrue(properties.getCompactionInterval().toMillis() > 0, "Refresh token compaction interval must be positive");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("refresh-token-sweeper-"));
+        this.deletedTokens = Counter.builder("bank.refresh.token.deleted")
+                .description("Expired refresh tokens deleted by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getCompactionInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Удаляет порции истёкших токенов, пока они не закончатся. Ошибки записываются в журнал,
+     * оставшиеся токены удаляются при следующем запуске.
+     *
+     * @return количество удалённых записей {@code refresh_tokens}
+     */
+    public long sweep() {
+        LocalDateTime expiredBefore = LocalDateTime.now();
+        long deleted = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer count = transactionTemplate.execute(
+                        status -> refreshTokenRepository.deleteExpired(expiredBefore, properties.getCompactionChunkSize()));
+                int chunk = count != null ? count : 0;
+                deletedTokens.increment(chunk);
+                deleted += chunk;
+                if (chunk < properties.getCompactionChunkSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Исключение из задачи отменило бы все следующие запуски планировщика
+            log.warn("Refresh token sweep failed and will be retried", ex);
+        }
+        int forgotten = revocations.compact();
+        if (deleted > 0 || forgotten > 0) {
+            log.info("Deleted {} expired refresh tokens, forgot {} revocations", deleted, forgotten);
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
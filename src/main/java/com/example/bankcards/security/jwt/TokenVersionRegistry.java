@@ -0,0 +1,165 @@
+package com.example.bankcards.security.jwt;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.TokenVersionRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Текущие версии токенов пользователей, по которым access-токены проверяются без обращения к БД.
+ * <p>
+ * В памяти хранятся только версии, отличные от начальной версии 0: версия пользователя,
+ * отсутствующего в карте, равна 0, поэтому при запуске загружаются только изменявшиеся версии,
+ * а размер карты зависит от числа таких пользователей, а не от значения их ID. При локальном
+ * изменении версия сразу помечается отозванной и перечитывается из БД после завершения
+ * транзакции. Версии, изменённые на других экземплярах приложения, загружаются по
+ * {@code users.updated_at} раз в {@link SecurityProperties.TokenVersion#getRefreshInterval()}.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    static final int REVOKED = -1;
+
+    /**
+     * Запас на транзакции, зафиксированные позже выставленного ими {@code updated_at}.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecurityProperties.TokenVersion properties;
+    private final ScheduledExecutorService scheduler;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                PlatformTransactionManager transactionManager,
+                                SecurityProperties securityProperties) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = securityProperties.getTokenVersion();
+        Assert.isTrue(properties.getRefreshInterval().toMillis() > 0, "Token version refresh interval must be positive");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("token-version-"));
+    }
+
+    @PostConstruct
+    void load() {
+        lastRefresh = LocalDateTime.now();
+        List<TokenVersionRow> rows = transactionTemplate.execute(status -> userRepository.findChangedTokenVersions());
+        apply(rows);
+        log.info("Loaded {} changed token versions", rows != null ? rows.size() : 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return {@code true}, если версия токена совпадает с текущей версией пользователя
+     */
+    public boolean isCurrent(Long userId, int version) {
+        return version != REVOKED && version == currentVersion(userId);
+    }
+
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Отзывает токены пользователей, версия которых увеличена в текущей транзакции. Новая версия
+     * читается из БД после фиксации транзакции, а при откате восстанавливается прежняя.
+     */
+    public void versionChanged(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        pending.addAll(ids);
+        ids.forEach(id -> set(id, REVOKED));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reload(ids);
+                }
+            });
+        } else {
+            reload(ids);
+        }
+    }
+
+    /**
+     * Загружает версии, изменённые с предыдущей загрузки, и повторяет неудавшиеся перечитывания.
+     */
+    public void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minus(REFRESH_OVERLAP);
+        try {
+            apply(transactionTemplate.execute(status -> userRepository.findTokenVersionsUpdatedSince(since)));
+            lastRefresh = startedAt;
+        } catch (RuntimeException ex) {
+            // Исключение из задачи отменило бы все следующие запуски планировщика
+            log.warn("Token version refresh failed and will be retried", ex);
+        }
+        if (!pending.isEmpty()) {
+            reload(List.copyOf(pending));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Перечитывает версии пользователей; при ошибке их токены остаются отозванными до следующей
+     * периодической загрузки.
+     */
+    private void reload(List<Long> userIds) {
+        try {
+            apply(transactionTemplate.execute(status -> userRepository.findTokenVersionsByIdIn(userIds)));
+            pending.removeAll(userIds);
+        } catch (RuntimeException ex) {
+            log.warn("Token versions of users {} cannot be reloaded and stay revoked", userIds, ex);
+        }
+    }
+
+    private void apply(List<TokenVersionRow> rows) {
+        if (rows != null) {
+            rows.forEach(row -> set(row.getId(), row.getTokenVersion()));
+        }
+    }
+
+    private void set(Long userId, int version) {
+        if (version == 0) {
+            versions.remove(userId);
+        } else {
+            versions.put(userId, version);
+        }
+    }
+}
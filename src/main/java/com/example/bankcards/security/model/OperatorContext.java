@@ -0,0 +1,35 @@
+package com.example.bankcards.security.model;
+
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Оператор текущего запроса: ID, статус и роли пользователя.
+ * <p>
+ * Создаётся один раз в {@link com.example.bankcards.security.filter.JwtAuthenticationFilter} из
+ * уже загруженного {@link UserPrincipal} и хранится в атрибуте запроса {@link #REQUEST_ATTRIBUTE},
+ * поэтому проверки доступа в сервисах не загружают пользователя из БД повторно.
+ */
+public record OperatorContext(Long id, UserStatus status, Set<RoleType> roles) {
+
+    public static final String REQUEST_ATTRIBUTE = OperatorContext.class.getName();
+
+    public OperatorContext {
+        roles = Collections.unmodifiableSet(roles.isEmpty() ? EnumSet.noneOf(RoleType.class) : EnumSet.copyOf(roles));
+    }
+
+    public static OperatorContext of(UserPrincipal principal) {
+        return new OperatorContext(principal.getId(), principal.getStatus(), principal.getRoles());
+    }
+
+    public boolean isActive() {
+        return status == UserStatus.ACTIVE;
+    }
+
+    public boolean hasRole(RoleType role) {
+        return roles.contains(role);
+    }
+}
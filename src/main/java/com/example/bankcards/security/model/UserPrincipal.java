@@ -1,6 +1,9 @@
 package com.example.bankcards.security.model;
 
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
 import java.util.Collection;
+import java.util.Set;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -21,4 +24,7 @@ public class UserPrincipal implements UserDetails {
     private final boolean accountNonLocked;
     private final boolean credentialsNonExpired;
     private final boolean enabled;
+    private final UserStatus status;
+    private final Set<RoleType> roles;
+    private final int tokenVersion;
 }
\ No newline at end of file
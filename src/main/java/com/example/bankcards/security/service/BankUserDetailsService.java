@@ -8,5 +8,14 @@ import org.springframework.security.core.userdetails.UserDetailsService;
  */
 public interface BankUserDetailsService extends UserDetailsService {
 
+    /**
+     * Возвращает пользователя из кэша или загружает его из БД.
+     */
     UserPrincipal loadUserById(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Сбрасывает пользователя в кэше сейчас и повторно после фиксации текущей транзакции.
+     * Вызывается при изменении статуса и ролей пользователя.
+     */
+    void evictUser(Long userId);
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.security.service;
+
+import com.example.bankcards.security.model.UserPrincipal;
+
+/**
+ * Сервис выдачи и ротации refresh-токенов.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Выдаёт refresh-токен, начинающий новую цепочку ротации.
+     */
+    String issue(UserPrincipal principal);
+
+    /**
+     * Отмечает refresh-токен использованным и выдаёт следующий токен его цепочки ротации.
+     * Повторное использование токена отзывает всю цепочку.
+     */
+    Rotation rotate(String refreshToken);
+
+    /**
+     * Пользователь, для которого обновляются токены, и следующий refresh-токен.
+     */
+    record Rotation(UserPrincipal principal, String refreshToken) {
+    }
+}
@@ -6,6 +6,7 @@ import com.example.bankcards.dto.auth.RefreshTokenRequestDto;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
 import com.example.bankcards.security.model.UserPrincipal;
 import com.example.bankcards.security.service.AuthenticationService;
+import com.example.bankcards.security.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +21,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public JwtResponseDto authenticate(LoginRequestDto request) {
@@ -29,16 +31,15 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         String accessToken = jwtTokenProvider.createAccessToken(principal);
-        String refreshToken = jwtTokenProvider.createRefreshToken(principal);
+        String refreshToken = refreshTokenService.issue(principal);
         return buildResponse(accessToken, refreshToken);
     }
 
     @Override
     public JwtResponseDto refreshToken(RefreshTokenRequestDto request) {
-        UserPrincipal principal = jwtTokenProvider.getUserFromRefreshToken(request.refreshToken());
-        String accessToken = jwtTokenProvider.createAccessToken(principal);
-        String refreshToken = jwtTokenProvider.createRefreshToken(principal);
-        return buildResponse(accessToken, refreshToken);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+        String accessToken = jwtTokenProvider.createAccessToken(rotation.principal());
+        return buildResponse(accessToken, rotation.refreshToken());
     }
 
     private JwtResponseDto buildResponse(String accessToken, String refreshToken) {
@@ -1,5 +1,6 @@
 package com.example.bankcards.security.service.impl;
 
+import com.example.bankcards.config.properties.SecurityProperties;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.RoleType;
@@ -7,20 +8,47 @@ import com.example.bankcards.entity.enums.UserStatus;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.model.UserPrincipal;
 import com.example.bankcards.security.service.BankUserDetailsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Реализация {@link BankUserDetailsService}.
+ * <p>
+ * Пользователи, загруженные по ID при проверке refresh-токена, кэшируются, поэтому обновление
+ * токенов закэшированного пользователя не обращается к БД. Количество попаданий и промахов
+ * публикуется в метриках {@code cache.gets} с тегом {@code cache=security.principal}.
+ */
 @Service
-@RequiredArgsConstructor
 public class BankUserDetailsServiceImpl implements BankUserDetailsService {
 
     private final UserRepository userRepository;
+    private final Cache<Long, UserPrincipal> principals;
+
+    public BankUserDetailsServiceImpl(UserRepository userRepository,
+                                      SecurityProperties securityProperties,
+                                      MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        SecurityProperties.PrincipalCache properties = securityProperties.getPrincipalCache();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(properties.getSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principal");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) {
@@ -35,14 +63,29 @@ public class BankUserDetailsServiceImpl implements BankUserDetailsService {
 
     @Override
     public UserPrincipal loadUserById(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        return toPrincipal(user);
+        return principals.get(userId, id -> userRepository.findById(id)
+                .map(this::toPrincipal)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + id)));
+    }
+
+    @Override
+    public void evictUser(Long userId) {
+        principals.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userId);
+                }
+            });
+        }
     }
 
     private UserPrincipal toPrincipal(User user) {
-        Set<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+        Set<RoleType> roles = user.getRoles().stream()
                 .map(Role::getName)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(RoleType.class)));
+        Set<SimpleGrantedAuthority> authorities = roles.stream()
                 .map(this::toAuthority)
                 .collect(Collectors.toUnmodifiableSet());
 
@@ -59,11 +102,14 @@ public class BankUserDetailsServiceImpl implements BankUserDetailsService {
                 accountNonExpired,
                 accountNonLocked,
                 true,
-                enabled
+                enabled,
+                status,
+                Collections.unmodifiableSet(roles),
+                user.getTokenVersion()
         );
     }
 
     private SimpleGrantedAuthority toAuthority(RoleType role) {
         return new SimpleGrantedAuthority("ROLE_" + role.name());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.security.service.impl;
+
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.projection.RefreshTokenRow;
+import com.example.bankcards.security.exception.JwtAuthenticationException;
+import com.example.bankcards.security.jwt.JwtTokenProvider;
+import com.example.bankcards.security.jwt.RefreshTokenRevocations;
+import com.example.bankcards.security.model.UserPrincipal;
+import com.example.bankcards.security.service.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Реализация {@link RefreshTokenService}.
+ * <p>
+ * Каждый refresh-токен имеет ID ({@code jti}) и запись в {@code refresh_tokens}. При обновлении
+ * токен отмечается использованным условным UPDATE, который одновременно проверяет, что токен не
+ * использован и не отозван, поэтому отдельный SELECT не нужен: обычное обновление стоит одного
+ * UPDATE и одного INSERT следующего токена. Использованные и отозванные токены после фиксации
+ * транзакции попадают в {@link RefreshTokenRevocations}, что избавляет от запросов только при
+ * повторном предъявлении уже известного этому экземпляру токена, например токена отозванной
+ * цепочки. Повторное использование токена считается признаком утечки и отзывает все токены
+ * его цепочки ротации. Токены, выданные до появления {@code refresh_tokens}, не содержат
+ * {@code jti} и отклоняются, поэтому их владельцам нужно войти заново.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenRevocations revocations;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Counter reusedTokens;
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   RefreshTokenRevocations revocations,
+                                   JwtTokenProvider jwtTokenProvider,
+                                   MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocations = revocations;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.reusedTokens = Counter.builder("bank.refresh.token.reused")
+                .description("Refresh tokens presented again after use; each revokes its rotation family")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public String issue(UserPrincipal principal) {
+        UUID jti = UUID.randomUUID();
+        return issue(principal, jti, jti);
+    }
+
+    @Override
+    @Transactional(dontRollbackOn = JwtAuthenticationException.class)
+    public Rotation rotate(String refreshToken) {
+        JwtTokenProvider.RefreshTokenClaims claims = jwtTokenProvider.parseRefreshToken(refreshToken);
+        RefreshTokenRevocations.Revocation revocation = revocations.find(claims.jti());
+        if (revocation != null && revocation.familyRevoked()) {
+            throw new JwtAuthenticationException("Refresh token has been revoked");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (revocation != null) {
+            throw reused(claims, now);
+        }
+        UserPrincipal principal = jwtTokenProvider.currentPrincipal(claims);
+        if (refreshTokenRepository.markUsed(claims.jti(), now) == 0) {
+            throw reused(claims, now);
+        }
+        afterCommit(() -> revocations.used(claims.jti(), claims.expiresAt()));
+        return new Rotation(principal, issue(principal, UUID.randomUUID(), claims.familyId()));
+    }
+
+    private String issue(UserPrincipal principal, UUID jti, UUID familyId) {
+        String token = jwtTokenProvider.createRefreshToken(principal, jti, familyId);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.insertToken(jti, principal.getId(), familyId,
+                now.plus(jwtTokenProvider.getRefreshTokenTtl()), now);
+        return token;
+    }
+
+    /**
+     * Отзывает цепочку ротации повторно использованного токена. Отзыв фиксируется вместе с
+     * отказом в обновлении.
+     */
+    private JwtAuthenticationException reused(JwtTokenProvider.RefreshTokenClaims claims, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(claims.familyId(), now);
+        List<RefreshTokenRow> family = refreshTokenRepository.findByFamilyId(claims.familyId());
+        afterCommit(() -> {
+            revocations.revoked(claims.jti(), claims.expiresAt());
+            family.forEach(token -> revocations.revoked(token.getJti(), toInstant(token.getExpiresAt())));
+        });
+        reusedTokens.increment();
+        log.warn("Refresh token {} of user {} was used again, revoked {} tokens of family {}",
+                claims.jti(), claims.principal().getId(), revoked, claims.familyId());
+        return new JwtAuthenticationException("Refresh token has already been used");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Сервис массового выпуска карт из файла.
+ */
+public interface CardImportService {
+
+    /**
+     * Выпускает карты по строкам файла, читая его потоком и фиксируя порциями. Ошибка строки
+     * не прерывает загрузку и сохраняется в отчёт об ошибках.
+     */
+    CardImportDto importCards(Long operatorId, CardImportFormat format, InputStream content) throws IOException;
+
+    CardImportDto getImport(Long operatorId, Long importId);
+
+    /**
+     * Записывает отчёт об ошибках загрузки в CSV с колонками {@code line,error}.
+     */
+    void writeErrorReport(Long importId, OutputStream output) throws IOException;
+}
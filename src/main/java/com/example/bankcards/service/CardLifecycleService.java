@@ -1,10 +1,32 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import java.time.LocalDate;
 
 /**
  * Сервис управления статусами карт в зависимости от срока действия.
+ * <p>
+ * Статус EXPIRED сохраняется в БД фоновой отметкой; до неё карта с истёкшим сроком
+ * считается просроченной по дате, поэтому чтение карт ничего не записывает.
  */
 public interface CardLifecycleService {
+
+    /**
+     * @return статус карты с учётом срока действия на текущую дату
+     */
+    CardStatus effectiveStatus(CardStatus status, LocalDate expirationDate);
+
+    /**
+     * Переводит карту с истёкшим сроком в EXPIRED без сохранения: изменение фиксируется
+     * вместе с остальными изменениями карты.
+     */
     Card refreshExpiration(Card card);
-}
\ No newline at end of file
+
+    /**
+     * Переводит в EXPIRED не более {@code limit} карт с истёкшим сроком одним запросом.
+     *
+     * @return количество изменённых карт
+     */
+    int expireCards(int limit);
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateLimitPolicyRequestDto;
+import com.example.bankcards.dto.LimitPolicyDto;
+import com.example.bankcards.dto.UpdateLimitPolicyRequestDto;
+import java.util.List;
+
+/**
+ * Сервис управления политиками лимитов переводов. Доступен только администраторам.
+ */
+public interface LimitPolicyService {
+
+    List<LimitPolicyDto> getPolicies(Long operatorId);
+
+    LimitPolicyDto createPolicy(Long operatorId, CreateLimitPolicyRequestDto request);
+
+    LimitPolicyDto updatePolicy(Long operatorId, Long policyId, UpdateLimitPolicyRequestDto request);
+
+    void deletePolicy(Long operatorId, Long policyId);
+}
@@ -1,13 +1,27 @@
 package com.example.bankcards.service;
 
-import java.math.BigDecimal;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.service.support.DailyLimitBudget;
+import java.time.LocalDateTime;
 
 /**
  * Сервис проверки лимитов переводов.
  */
 public interface TransferLimitService {
 
-    void validateDailyLimit(Long cardId, BigDecimal amount);
+    void validateDailyLimit(Long cardId, Money amount);
 
-    BigDecimal getRemainingDailyLimit(Long cardId);
-}
\ No newline at end of file
+    /**
+     * Возвращает остаток лимитов карты (суточного, недельного и месячного) для проверки
+     * серии переводов без повторных запросов к БД.
+     */
+    DailyLimitBudget openDailyBudget(Long cardId);
+
+    /**
+     * Возвращает в лимит сумму перевода, завершившегося ошибкой после транзакции,
+     * в которой сумма была зарезервирована.
+     */
+    void releaseDailySpend(Long cardId, LocalDateTime spentAt, Money amount);
+
+    Money getRemainingDailyLimit(Long cardId);
+}
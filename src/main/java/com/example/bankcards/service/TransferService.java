@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferResultDto;
 import com.example.bankcards.dto.CardTransferDto;
 import com.example.bankcards.dto.CardTransferRequestDto;
 import java.util.List;
@@ -11,5 +12,23 @@ public interface TransferService {
 
     CardTransferDto transfer(Long operatorId, CardTransferRequestDto request);
 
+    /**
+     * Выполняет перевод не более одного раза для ключа идемпотентности. Повтор запроса
+     * с тем же ключом возвращает ранее созданный перевод.
+     */
+    CardTransferDto transfer(Long operatorId, CardTransferRequestDto request, String idempotencyKey);
+
+    /**
+     * Принимает перевод к асинхронному проведению и возвращает его в статусе PENDING.
+     */
+    CardTransferDto submitTransfer(Long operatorId, CardTransferRequestDto request);
+
+    CardTransferDto getTransfer(Long operatorId, Long transferId);
+
+    /**
+     * Выполняет набор переводов, фиксируя их частями. Ошибка одного перевода не прерывает пакет.
+     */
+    BatchTransferResultDto transferBatch(Long operatorId, List<CardTransferRequestDto> requests);
+
     List<CardTransferDto> getTransfersForCard(Long operatorId, Long cardId);
 }
\ No newline at end of file
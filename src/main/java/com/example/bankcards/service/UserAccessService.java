@@ -1,15 +1,20 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.entity.User;
+import com.example.bankcards.security.model.OperatorContext;
 
 /**
  * Сервис для проверки прав доступа и статуса пользователя.
  */
 public interface UserAccessService {
 
-    User requireActiveUser(Long userId);
+    /**
+     * Возвращает активного оператора. Если оператор совпадает с аутентифицированным
+     * пользователем текущего запроса, используется {@link OperatorContext} запроса без обращения
+     * к БД; иначе, например в фоновых потоках, пользователь загружается из БД.
+     */
+    OperatorContext requireActiveOperator(Long operatorId);
 
-    boolean isAdmin(User user);
+    boolean isAdmin(OperatorContext operator);
 
-    void ensureUserRole(User user);
-}
\ No newline at end of file
+    void ensureUserRole(OperatorContext operator);
+}
@@ -20,5 +20,12 @@ public interface UserService {
 
     UserDto updateStatus(Long userId, UserStatus status);
 
+    /**
+     * Обновляет статус нескольких пользователей и их карт; доступно администратору.
+     *
+     * @return пользователи в порядке возрастания ID
+     */
+    List<UserDto> updateStatuses(Long operatorId, Set<Long> userIds, UserStatus status);
+
     UserDto assignRoles(Long userId, Set<RoleType> roles);
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.properties.CardImportProperties;
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.dto.CardImportLineDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardImport;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.AccessDeniedException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardImportRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardImportError;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.service.CardImportService;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.support.CardImportReader;
+import com.example.bankcards.util.CardNumberEncoder;
+import com.example.bankcards.util.mapper.CardImportMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Реализация {@link CardImportService}.
+ * <p>
+ * Файл читается порциями по {@link CardImportProperties#getChunkSize()} строк, и каждая порция
+ * фиксируется в отдельной транзакции. Владельцы карт и уже выпущенные номера проверяются одним
+ * запросом на порцию, номера шифруются в нескольких потоках, а карты вставляются одним
+ * SQL-запросом. Ошибки строк сохраняются в {@code card_import_errors} вместе с порцией.
+ */
+@Service
+public class CardImportServiceImpl implements CardImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CardImportServiceImpl.class);
+    private static final String DUPLICATE_CARD_MESSAGE = "Card already exists for provided number";
+
+    private final CardImportRepository cardImportRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final UserAccessService userAccessService;
+    private final CardNumberEncoder cardNumberEncoder;
+    private final CardImportMapper cardImportMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    public CardImportServiceImpl(CardImportRepository cardImportRepository,
+                                 CardRepository cardRepository,
+                                 UserRepository userRepository,
+                                 UserAccessService userAccessService,
+                                 CardNumberEncoder cardNumberEncoder,
+                                 CardImportMapper cardImportMapper,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 CardImportProperties properties) {
+        Assert.isTrue(properties.getChunkSize() > 0, "Card import chunk size must be positive");
+        Assert.isTrue(properties.getParallelism() > 0, "Card import parallelism must be positive");
+        this.cardImportRepository = cardImportRepository;
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.userAccessService = userAccessService;
+        this.cardNumberEncoder = cardNumberEncoder;
+        this.cardImportMapper = cardImportMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = properties.getChunkSize();
+        this.parallelism = properties.getParallelism();
+        this.workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("card-import-"));
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CardImportDto importCards(Long operatorId, CardImportFormat format, InputStream content) throws IOException {
+        requireAdmin(operatorId);
+        CardImport cardImport = new CardImport();
+        cardImport.setOperatorId(operatorId);
+        cardImport.setFormat(format);
+        Long importId = cardImportRepository.save(cardImport).getId();
+
+        try (CardImportReader reader = new CardImportReader(format, content, objectMapper)) {
+            List<CardImportReader.Line> lines;
+            while (!(lines = reader.read(chunkSize)).isEmpty()) {
+                List<CardImportReader.Line> chunk = lines;
+                transactionTemplate.executeWithoutResult(status -> importChunk(importId, chunk));
+            }
+        }
+
+        CardImport completed = cardImportRepository.findById(importId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card import not found: " + importId));
+        completed.setCompletedAt(LocalDateTime.now());
+        completed = cardImportRepository.save(completed);
+        log.info("Card import {} completed: {} issued, {} failed",
+                importId, completed.getIssuedCount(), completed.getFailedCount());
+        return cardImportMapper.toDto(completed);
+    }
+
+    @Override
+    @Transactional
+    public CardImportDto getImport(Long operatorId, Long importId) {
+        requireAdmin(operatorId);
+        return cardImportRepository.findById(importId)
+                .map(cardImportMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Card import not found: " + importId));
+    }
+
+    @Override
+    @Transactional
+    public void writeErrorReport(Long importId, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("line,error\n");
+        try {
+            cardImportRepository.forEachError(importId, error -> {
+                try {
+                    writer.write(error.lineNumber() + "," + quoteCsv(error.message()) + "\n");
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void requireAdmin(Long operatorId) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        if (!userAccessService.isAdmin(operator)) {
+            throw new AccessDeniedException("User " + operatorId + " cannot import cards");
+        }
+    }
+
+    private void importChunk(Long importId, List<CardImportReader.Line> lines) {
+        List<CardImportError> errors = new ArrayList<>();
+        List<CardImportReader.Line> valid = new ArrayList<>(lines.size());
+        for (CardImportReader.Line line : lines) {
+            String error = line.error() != null ? line.error() : validate(line.value());
+            if (error != null) {
+                errors.add(new CardImportError(line.number(), error));
+            } else {
+                valid.add(line);
+            }
+        }
+
+        Set<Long> userIds = valid.stream().map(line -> line.value().userId()).collect(Collectors.toSet());
+        Set<Long> activeUserIds = userIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findIdsByIdInAndStatus(userIds, UserStatus.ACTIVE));
+        List<CardImportReader.Line> owned = new ArrayList<>(valid.size());
+        for (CardImportReader.Line line : valid) {
+            if (activeUserIds.contains(line.value().userId())) {
+                owned.add(line);
+            } else {
+                errors.add(new CardImportError(line.number(), "User " + line.value().userId() + " not found or not active"));
+            }
+        }
+
+        List<Card> cards = toCards(owned);
+        Set<ByteBuffer> issuedNumbers = cards.isEmpty()
+                ? Set.of()
+                : cardRepository.findExistingNumberHashes(cards.stream().map(Card::getNumberHash).toList()).stream()
+                .map(ByteBuffer::wrap)
+                .collect(Collectors.toSet());
+        Set<ByteBuffer> chunkNumbers = new HashSet<>();
+        List<Card> newCards = new ArrayList<>(cards.size());
+        List<CardImportReader.Line> newLines = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            ByteBuffer numberHash = ByteBuffer.wrap(cards.get(i).getNumberHash());
+            if (issuedNumbers.contains(numberHash) || !chunkNumbers.add(numberHash)) {
+                errors.add(new CardImportError(owned.get(i).number(), DUPLICATE_CARD_MESSAGE));
+            } else {
+                newCards.add(cards.get(i));
+                newLines.add(owned.get(i));
+            }
+        }
+
+        // Номер мог быть выпущен параллельно после проверки; такие карты не вставляются
+        boolean[] inserted = cardRepository.insertAllSkippingDuplicates(newCards);
+        int issued = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                issued++;
+            } else {
+                errors.add(new CardImportError(newLines.get(i).number(), DUPLICATE_CARD_MESSAGE));
+            }
+        }
+
+        errors.sort(Comparator.comparingLong(CardImportError::lineNumber));
+        cardImportRepository.insertErrors(importId, errors);
+        cardImportRepository.addProgress(importId, lines.size(), issued, errors.size());
+    }
+
+    private String validate(CardImportLineDto line) {
+        if (line.userId() == null) {
+            return "userId: User ID is required";
+        }
+        Set<ConstraintViolation<CreateCardRequestDto>> violations = validator.validate(line.toRequest());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Создаёт карты по строкам, вычисляя HMAC и шифруя номера в нескольких потоках.
+     */
+    private List<Card> toCards(List<CardImportReader.Line> lines) {
+        List<String> numbers = lines.stream().map(line -> line.value().cardNumber()).toList();
+        int sliceSize = Math.max(1, (numbers.size() + parallelism - 1) / parallelism);
+        List<CompletableFuture<EncryptedNumbers>> slices = new ArrayList<>();
+        for (int start = 0; start < numbers.size(); start += sliceSize) {
+            List<String> slice = numbers.subList(start, Math.min(start + sliceSize, numbers.size()));
+            slices.add(CompletableFuture.supplyAsync(
+                    () -> new EncryptedNumbers(cardNumberEncoder.hashAll(slice), cardNumberEncoder.encryptAll(slice)),
+                    workers));
+        }
+
+        List<Card> cards = new ArrayList<>(lines.size());
+        int index = 0;
+        for (CompletableFuture<EncryptedNumbers> slice : slices) {
+            EncryptedNumbers encrypted = slice.join();
+            for (int i = 0; i < encrypted.hashes().size(); i++, index++) {
+                CardImportLineDto line = lines.get(index).value();
+                Card card = new Card();
+                card.setOwner(userRepository.getReferenceById(line.userId()));
+                card.setEncryptedNumber(encrypted.numbers().get(i));
+                card.setNumberHash(encrypted.hashes().get(i));
+                card.setLastDigits(cardNumberEncoder.extractLastDigits(line.cardNumber()));
+                card.setExpirationDate(line.expirationDate());
+                card.setBalance(Money.of(line.initialBalance()));
+                card.setStatus(CardStatus.ACTIVE);
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    private static String quoteCsv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private record EncryptedNumbers(List<byte[]> hashes, List<String> numbers) {
+    }
+}
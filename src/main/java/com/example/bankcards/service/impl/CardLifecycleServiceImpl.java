@@ -5,6 +5,7 @@ import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.CardLifecycleService;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,23 +15,28 @@ public class CardLifecycleServiceImpl implements CardLifecycleService {
 
     private final CardRepository cardRepository;
 
+    @Override
+    public CardStatus effectiveStatus(CardStatus status, LocalDate expirationDate) {
+        if (status != CardStatus.ACTIVE && status != CardStatus.BLOCKED) {
+            return status;
+        }
+        if (expirationDate == null || expirationDate.isAfter(LocalDate.now())) {
+            return status;
+        }
+        return CardStatus.EXPIRED;
+    }
+
     @Override
     public Card refreshExpiration(Card card) {
         if (card == null) {
             return null;
         }
-        if (card.getStatus() == CardStatus.CLOSED || card.getStatus() == CardStatus.EXPIRED) {
-            return card;
-        }
-        LocalDate expirationDate = card.getExpirationDate();
-        if (expirationDate == null) {
-            return card;
-        }
-        LocalDate today = LocalDate.now();
-        if (!expirationDate.isAfter(today)) {
-            card.setStatus(CardStatus.EXPIRED);
-            return cardRepository.save(card);
-        }
+        card.setStatus(effectiveStatus(card.getStatus(), card.getExpirationDate()));
         return card;
     }
+
+    @Override
+    public int expireCards(int limit) {
+        return cardRepository.expireCards(LocalDate.now(), LocalDateTime.now(), limit);
+    }
 }
@@ -4,6 +4,7 @@ import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
 import com.example.bankcards.dto.UpdateCardRequestDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.UserStatus;
@@ -16,17 +17,20 @@ import com.example.bankcards.exception.UserInactiveException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.CardTransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.security.model.OperatorContext;
 import com.example.bankcards.service.CardLifecycleService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.support.CardIdResolver;
 import com.example.bankcards.util.mapper.CardMapper;
 import com.example.bankcards.util.CardNumberEncoder;
-import jakarta.transaction.Transactional;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 /**
@@ -42,73 +46,66 @@ public class CardServiceImpl implements CardService {
     private final CardTransferRepository cardTransferRepository;
     private final CardMapper cardMapper;
     private final CardNumberEncoder cardNumberEncoder;
+    private final CardIdResolver cardIdResolver;
     private final CardLifecycleService cardLifecycleService;
     private final UserAccessService userAccessService;
 
     @Override
     public CardDto issueCard(Long operatorId, Long userId, CreateCardRequestDto request) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         ensureCanManageUser(operator, userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            throw new UserInactiveException("User " + userId + " is not active");
-        }
+        User user = requireActiveOwner(operator, userId);
 
         String normalizedNumber = normalizeCardNumber(request.cardNumber());
-        String encrypted = cardNumberEncoder.encrypt(normalizedNumber);
-        cardRepository.findByEncryptedNumber(encrypted)
-                .ifPresent(card -> {
-                    throw new DuplicateResourceException("Card already exists for provided number");
-                });
+        byte[] numberHash = cardNumberEncoder.hash(normalizedNumber);
+        if (cardRepository.existsByNumberHash(numberHash)) {
+            throw new DuplicateResourceException("Card already exists for provided number");
+        }
 
         Card card = new Card();
         card.setOwner(user);
-        card.setEncryptedNumber(encrypted);
+        card.setEncryptedNumber(cardNumberEncoder.encrypt(normalizedNumber));
+        card.setNumberHash(numberHash);
         card.setLastDigits(cardNumberEncoder.extractLastDigits(normalizedNumber));
         card.setExpirationDate(request.expirationDate());
-        card.setBalance(request.initialBalance().setScale(2, RoundingMode.HALF_UP));
+        card.setBalance(Money.of(request.initialBalance()));
         card.setStatus(CardStatus.ACTIVE);
 
         Card saved = cardRepository.save(card);
+        cardIdResolver.invalidate(numberHash);
         return cardMapper.toDto(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CardDto getCard(Long operatorId, Long cardId) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
         ensureCanViewCard(operator, card);
-        Card updated = cardLifecycleService.refreshExpiration(card);
-        return cardMapper.toDto(updated);
+        return cardMapper.toDto(card);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CardDto> getUserCards(Long operatorId,
                                       Long userId,
                                       CardStatus status,
                                       Pageable pageable) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         ensureCanManageUser(operator, userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            throw new UserInactiveException("User " + userId + " is not active");
-        }
-        Page<Card> cardsPage = status == null
+        User user = requireActiveOwner(operator, userId);
+        Page<CardSummary> cardsPage = status == null
                 ? cardRepository.findAllByOwnerId(user.getId(), pageable)
-                : cardRepository.findAllByOwnerIdAndStatus(user.getId(), status, pageable);
-        return cardsPage
-                .map(cardLifecycleService::refreshExpiration)
-                .map(cardMapper::toDto);
+                : cardRepository.findAllByOwnerIdAndEffectiveStatus(user.getId(), status, LocalDate.now(), pageable);
+        return cardsPage.map(cardMapper::toDto);
     }
 
     @Override
     public CardDto changeStatus(Long operatorId, Long cardId, CardStatus newStatus) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
         card = cardLifecycleService.refreshExpiration(card);
@@ -119,7 +116,7 @@ public class CardServiceImpl implements CardService {
 
     @Override
     public CardDto updateCard(Long operatorId, Long cardId, UpdateCardRequestDto request) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
         card = cardLifecycleService.refreshExpiration(card);
@@ -135,7 +132,7 @@ public class CardServiceImpl implements CardService {
 
     @Override
     public void deleteCard(Long operatorId, Long cardId) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
         ensureCanModifyCard(operator, card);
@@ -143,6 +140,7 @@ public class CardServiceImpl implements CardService {
             throw new InvalidCardOperationException("Card " + cardId + " cannot be deleted because transfers exist");
         }
         cardRepository.delete(card);
+        cardIdResolver.invalidate(card.getNumberHash());
     }
 
     private String normalizeCardNumber(String cardNumber) {
@@ -152,33 +150,49 @@ public class CardServiceImpl implements CardService {
         return cardNumber.replaceAll("\\s", "");
     }
 
-    private void ensureCanManageUser(User operator, Long targetUserId) {
+    /**
+     * Возвращает активного владельца карт. Статус оператора уже проверен, поэтому для
+     * собственных карт оператора пользователь не загружается из БД.
+     */
+    private User requireActiveOwner(OperatorContext operator, Long userId) {
+        if (operator.id().equals(userId)) {
+            return userRepository.getReferenceById(userId);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        if (user.getStatus() != UserStatus.ACTIVE) {
+            throw new UserInactiveException("User " + userId + " is not active");
+        }
+        return user;
+    }
+
+    private void ensureCanManageUser(OperatorContext operator, Long targetUserId) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        if (!operator.getId().equals(targetUserId)) {
-            throw new AccessDeniedException("User " + operator.getId() + " cannot manage cards of user " + targetUserId);
+        if (!operator.id().equals(targetUserId)) {
+            throw new AccessDeniedException("User " + operator.id() + " cannot manage cards of user " + targetUserId);
         }
     }
 
-    private void ensureCanViewCard(User operator, Card card) {
+    private void ensureCanViewCard(OperatorContext operator, Card card) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.getId())) {
-            throw new AccessDeniedException("User " + operator.getId() + " cannot view card " + card.getId());
+        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.id())) {
+            throw new AccessDeniedException("User " + operator.id() + " cannot view card " + card.getId());
         }
     }
 
-    private void ensureCanChangeStatus(User operator, Card card, CardStatus newStatus) {
+    private void ensureCanChangeStatus(OperatorContext operator, Card card, CardStatus newStatus) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.getId())) {
-            throw new AccessDeniedException("User " + operator.getId() + " cannot change status of card " + card.getId());
+        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.id())) {
+            throw new AccessDeniedException("User " + operator.id() + " cannot change status of card " + card.getId());
         }
         if (newStatus == CardStatus.CLOSED) {
             throw new AccessDeniedException("Card owner cannot close the card directly");
@@ -188,17 +202,17 @@ public class CardServiceImpl implements CardService {
         }
     }
 
-    private void ensureCanModifyCard(User operator, Card card) {
+    private void ensureCanModifyCard(OperatorContext operator, Card card) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.getId())) {
-            throw new AccessDeniedException("User " + operator.getId() + " cannot modify card " + card.getId());
+        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.id())) {
+            throw new AccessDeniedException("User " + operator.id() + " cannot modify card " + card.getId());
         }
     }
 
-    private void applyStatusChange(User operator, Card card, CardStatus newStatus) {
+    private void applyStatusChange(OperatorContext operator, Card card, CardStatus newStatus) {
         ensureCanChangeStatus(operator, card, newStatus);
         if (card.getStatus() == newStatus) {
             return;
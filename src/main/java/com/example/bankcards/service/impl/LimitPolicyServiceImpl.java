@@ -0,0 +1,121 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CreateLimitPolicyRequestDto;
+import com.example.bankcards.dto.LimitPolicyDto;
+import com.example.bankcards.dto.UpdateLimitPolicyRequestDto;
+import com.example.bankcards.entity.TransferLimitPolicy;
+import com.example.bankcards.exception.AccessDeniedException;
+import com.example.bankcards.exception.DuplicateResourceException;
+import com.example.bankcards.exception.InvalidLimitPolicyException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferLimitPolicyRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.service.LimitPolicyService;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.support.LimitPolicyResolver;
+import com.example.bankcards.util.mapper.LimitPolicyMapper;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Реализация {@link LimitPolicyService}.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class LimitPolicyServiceImpl implements LimitPolicyService {
+
+    private final TransferLimitPolicyRepository transferLimitPolicyRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final UserAccessService userAccessService;
+    private final LimitPolicyResolver limitPolicyResolver;
+    private final LimitPolicyMapper limitPolicyMapper;
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<LimitPolicyDto> getPolicies(Long operatorId) {
+        ensureAdmin(operatorId);
+        return transferLimitPolicyRepository.findAllByOrderByIdAsc().stream()
+                .map(limitPolicyMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public LimitPolicyDto createPolicy(Long operatorId, CreateLimitPolicyRequestDto request) {
+        ensureAdmin(operatorId);
+        TransferLimitPolicy policy = new TransferLimitPolicy();
+        policy.setScope(request.scope());
+        switch (request.scope()) {
+            case CARD -> {
+                ensureSingleTarget(request.cardId() != null && request.userId() == null && request.role() == null, "cardId");
+                if (transferLimitPolicyRepository.existsByCardId(request.cardId())) {
+                    throw new DuplicateResourceException("Limit policy for card " + request.cardId() + " already exists");
+                }
+                policy.setCard(cardRepository.findById(request.cardId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + request.cardId())));
+            }
+            case USER -> {
+                ensureSingleTarget(request.userId() != null && request.cardId() == null && request.role() == null, "userId");
+                if (transferLimitPolicyRepository.existsByUserId(request.userId())) {
+                    throw new DuplicateResourceException("Limit policy for user " + request.userId() + " already exists");
+                }
+                policy.setUser(userRepository.findById(request.userId())
+                        .orElseThrow(() -> new ResourceNotFoundException("User not found: " + request.userId())));
+            }
+            case ROLE -> {
+                ensureSingleTarget(request.role() != null && request.cardId() == null && request.userId() == null, "role");
+                if (transferLimitPolicyRepository.existsByRole(request.role())) {
+                    throw new DuplicateResourceException("Limit policy for role " + request.role() + " already exists");
+                }
+                policy.setRole(request.role());
+            }
+        }
+        policy.setDailyLimit(request.dailyLimit());
+        policy.setWeeklyLimit(request.weeklyLimit());
+        policy.setMonthlyLimit(request.monthlyLimit());
+        TransferLimitPolicy saved = transferLimitPolicyRepository.save(policy);
+        limitPolicyResolver.invalidateAll();
+        return limitPolicyMapper.toDto(saved);
+    }
+
+    @Override
+    public LimitPolicyDto updatePolicy(Long operatorId, Long policyId, UpdateLimitPolicyRequestDto request) {
+        ensureAdmin(operatorId);
+        TransferLimitPolicy policy = findPolicy(policyId);
+        policy.setDailyLimit(request.dailyLimit());
+        policy.setWeeklyLimit(request.weeklyLimit());
+        policy.setMonthlyLimit(request.monthlyLimit());
+        limitPolicyResolver.invalidateAll();
+        return limitPolicyMapper.toDto(policy);
+    }
+
+    @Override
+    public void deletePolicy(Long operatorId, Long policyId) {
+        ensureAdmin(operatorId);
+        transferLimitPolicyRepository.delete(findPolicy(policyId));
+        limitPolicyResolver.invalidateAll();
+    }
+
+    private TransferLimitPolicy findPolicy(Long policyId) {
+        return transferLimitPolicyRepository.findById(policyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Limit policy not found: " + policyId));
+    }
+
+    private void ensureAdmin(Long operatorId) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        if (!userAccessService.isAdmin(operator)) {
+            throw new AccessDeniedException("User " + operatorId + " cannot manage limit policies");
+        }
+    }
+
+    private void ensureSingleTarget(boolean valid, String field) {
+        if (!valid) {
+            throw new InvalidLimitPolicyException("Policy of this scope must specify only " + field);
+        }
+    }
+}
@@ -1,67 +1,240 @@
 package com.example.bankcards.service.impl;
 
 import com.example.bankcards.config.properties.TransferProperties;
-import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.enums.TransferStatus;
-import com.example.bankcards.exception.TransferLimitExceededException;
 import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.repository.projection.TransferSpendTotals;
 import com.example.bankcards.service.TransferLimitService;
+import com.example.bankcards.service.support.DailyLimitBudget;
+import com.example.bankcards.service.support.DailySpendLedger;
+import com.example.bankcards.service.support.DailySpendTable;
+import com.example.bankcards.service.support.LimitPolicy;
+import com.example.bankcards.service.support.LimitPolicyResolver;
+import com.example.bankcards.service.support.LimitWindow;
+import com.example.bankcards.service.support.RollingSpendLedger;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 @Service
 @Transactional(Transactional.TxType.SUPPORTS)
 @RequiredArgsConstructor
 public class TransferLimitServiceImpl implements TransferLimitService {
 
+    private static final Logger log = LoggerFactory.getLogger(TransferLimitServiceImpl.class);
+
     private static final Set<TransferStatus> STATUSES_FOR_LIMIT = EnumSet.of(
             TransferStatus.PENDING,
             TransferStatus.COMPLETED
     );
 
+    private static final Set<LimitWindow> LONGER_WINDOWS = EnumSet.of(LimitWindow.WEEKLY, LimitWindow.MONTHLY);
+
     private final CardTransferRepository cardTransferRepository;
     private final TransferProperties transferProperties;
+    private final DailySpendLedger dailySpendLedger;
+    private final DailySpendTable dailySpendTable;
+    private final LimitPolicyResolver limitPolicyResolver;
+    private final RollingSpendLedger rollingSpendLedger;
+
+    @PostConstruct
+    void validateConfiguration() {
+        Assert.state(!rollingWindow() || spendTracking() != TransferProperties.SpendTracking.TABLE,
+                "Rolling daily limit window is not supported with TABLE spend tracking");
+    }
 
     @Override
-    public void validateDailyLimit(Long cardId, BigDecimal amount) {
-        BigDecimal limit = transferProperties.getLimit().getDaily();
-        if (limit == null) {
+    public void validateDailyLimit(Long cardId, Money amount) {
+        LimitPolicy policy = limitPolicyResolver.resolve(cardId);
+        if (policy.isUnlimited()) {
             return;
         }
-        BigDecimal spent = calculateDailySpent(cardId);
-        if (spent.add(amount).compareTo(limit) > 0) {
-            String message = String.format("Daily transfer limit of %s exceeded", limit);
-            throw new TransferLimitExceededException(message, limit);
+        snapshotBudget(policy, calculateSpent(cardId, policy)).reserve(amount);
+    }
+
+    @Override
+    public DailyLimitBudget openDailyBudget(Long cardId) {
+        LimitPolicy policy = limitPolicyResolver.resolve(cardId);
+        if (policy.isUnlimited()) {
+            return DailyLimitBudget.unlimited();
+        }
+        if (spendTracking() == TransferProperties.SpendTracking.DATABASE) {
+            return snapshotBudget(policy, calculateSpent(cardId, policy));
+        }
+        // Суточная сумма ведётся журналом или таблицей, недельная и месячная считаются по переводам
+        List<DailyLimitBudget> budgets = new ArrayList<>();
+        Money dailyLimit = policy.daily();
+        if (dailyLimit != null) {
+            budgets.add(openTrackedDailyBudget(cardId, dailyLimit));
+        }
+        if (policy.hasLongerWindows()) {
+            Map<LimitWindow, Money> spent = sumWindowTransfers(cardId, policy);
+            for (LimitWindow window : LONGER_WINDOWS) {
+                Money limit = policy.limit(window);
+                if (limit != null) {
+                    budgets.add(DailyLimitBudget.snapshot(window, limit, spent.get(window)));
+                }
+            }
         }
+        return DailyLimitBudget.allOf(budgets);
     }
 
     @Override
-    public BigDecimal getRemainingDailyLimit(Long cardId) {
-        BigDecimal limit = transferProperties.getLimit().getDaily();
-        if (limit == null) {
-            return BigDecimal.ZERO;
+    public void releaseDailySpend(Long cardId, LocalDateTime spentAt, Money amount) {
+        switch (spendTracking()) {
+            case MEMORY -> {
+                if (rollingWindow()) {
+                    rollingSpendLedger.release(cardId, spentAt, amount);
+                } else {
+                    dailySpendLedger.release(cardId, spentAt.toLocalDate(), amount);
+                }
+            }
+            case TABLE -> dailySpendTable.release(cardId, spentAt.toLocalDate(), amount);
+            case DATABASE -> {
+                // FAILED-переводы не учитываются в сумме запроса
+            }
         }
-        BigDecimal spent = calculateDailySpent(cardId);
-        BigDecimal remaining = limit.subtract(spent);
-        return remaining.max(BigDecimal.ZERO);
     }
 
-    private BigDecimal calculateDailySpent(Long cardId) {
+    /**
+     * Дополняет таблицу сумм за текущий день переводами, выполненными в других режимах учёта.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileDailySpendTable() {
+        if (spendTracking() != TransferProperties.SpendTracking.TABLE) {
+            return;
+        }
+        int updated = dailySpendTable.reconcile(LocalDate.now());
+        log.info("Reconciled {} card daily spend rows with card transfers", updated);
+    }
+
+    /**
+     * Возвращает наименьший из остатков по заданным лимитам карты.
+     */
+    @Override
+    public Money getRemainingDailyLimit(Long cardId) {
+        LimitPolicy policy = limitPolicyResolver.resolve(cardId);
+        if (policy.isUnlimited()) {
+            return Money.ZERO;
+        }
+        Map<LimitWindow, Money> spent = calculateSpent(cardId, policy);
+        Money remaining = null;
+        for (LimitWindow window : LimitWindow.values()) {
+            Money limit = policy.limit(window);
+            if (limit != null) {
+                Money windowRemaining = limit.minus(spent.get(window)).max(Money.ZERO);
+                remaining = remaining == null ? windowRemaining : remaining.min(windowRemaining);
+            }
+        }
+        return remaining;
+    }
+
+    private TransferProperties.SpendTracking spendTracking() {
+        return transferProperties.getLimit().getSpendTracking();
+    }
+
+    private boolean rollingWindow() {
+        return transferProperties.getLimit().getDailyWindow() == TransferProperties.DailyWindow.ROLLING;
+    }
+
+    private DailyLimitBudget openTrackedDailyBudget(Long cardId, Money limit) {
+        if (spendTracking() == TransferProperties.SpendTracking.TABLE) {
+            return dailySpendTable.openBudget(cardId, limit);
+        }
+        return rollingWindow()
+                ? rollingSpendLedger.openBudget(cardId, limit)
+                : dailySpendLedger.openBudget(cardId, limit);
+    }
+
+    private DailyLimitBudget snapshotBudget(LimitPolicy policy, Map<LimitWindow, Money> spent) {
+        List<DailyLimitBudget> budgets = new ArrayList<>();
+        for (LimitWindow window : LimitWindow.values()) {
+            Money limit = policy.limit(window);
+            if (limit != null) {
+                budgets.add(DailyLimitBudget.snapshot(window, limit, spent.get(window)));
+            }
+        }
+        return DailyLimitBudget.allOf(budgets);
+    }
+
+    /**
+     * Суммы переводов по периодам, для которых задан лимит.
+     */
+    private Map<LimitWindow, Money> calculateSpent(Long cardId, LimitPolicy policy) {
+        if (!policy.hasLongerWindows()) {
+            Map<LimitWindow, Money> spent = new EnumMap<>(LimitWindow.class);
+            spent.put(LimitWindow.DAILY, calculateDailySpent(cardId));
+            return spent;
+        }
+        Map<LimitWindow, Money> spent = sumWindowTransfers(cardId, policy);
+        if (policy.daily() != null && (spendTracking() != TransferProperties.SpendTracking.DATABASE || rollingWindow())) {
+            spent.put(LimitWindow.DAILY, calculateDailySpent(cardId));
+        }
+        return spent;
+    }
+
+    private Money calculateDailySpent(Long cardId) {
+        return switch (spendTracking()) {
+            case MEMORY -> rollingWindow() ? rollingSpendLedger.spent(cardId) : dailySpendLedger.spent(cardId);
+            case TABLE -> dailySpendTable.spent(cardId);
+            case DATABASE -> sumDailyTransfers(cardId);
+        };
+    }
+
+    private Money sumDailyTransfers(Long cardId) {
+        LocalDateTime from;
+        LocalDateTime to;
+        if (rollingWindow()) {
+            to = LocalDateTime.now();
+            from = to.minusDays(1);
+        } else {
+            from = LocalDate.now().atStartOfDay();
+            to = from.plusDays(1);
+        }
+        return Money.of(cardTransferRepository.sumOutgoingAmount(cardId, STATUSES_FOR_LIMIT, from, to));
+    }
+
+    /**
+     * Считает суммы за день, неделю и месяц одним запросом. Просматриваются переводы
+     * только от начала самого длинного периода, для которого задан лимит.
+     */
+    private Map<LimitWindow, Money> sumWindowTransfers(Long cardId, LimitPolicy policy) {
         LocalDate today = LocalDate.now();
         LocalDateTime from = today.atStartOfDay();
-        LocalDateTime to = from.plusDays(1);
-        List<CardTransfer> transfers = cardTransferRepository
-                .findAllByFromCardIdAndCreatedAtBetween(cardId, from, to);
-        return transfers.stream()
-                .filter(transfer -> STATUSES_FOR_LIMIT.contains(transfer.getStatus()))
-                .map(CardTransfer::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (LimitWindow window : LONGER_WINDOWS) {
+            LocalDateTime start = window.start(today).atStartOfDay();
+            if (policy.limit(window) != null && start.isBefore(from)) {
+                from = start;
+            }
+        }
+        TransferSpendTotals totals = cardTransferRepository.sumOutgoingAmountByWindow(
+                cardId,
+                STATUSES_FOR_LIMIT,
+                LimitWindow.DAILY.start(today).atStartOfDay(),
+                LimitWindow.WEEKLY.start(today).atStartOfDay(),
+                LimitWindow.MONTHLY.start(today).atStartOfDay(),
+                from,
+                today.plusDays(1).atStartOfDay());
+        Map<LimitWindow, Money> spent = new EnumMap<>(LimitWindow.class);
+        spent.put(LimitWindow.DAILY, Money.of(totals.daily()));
+        spent.put(LimitWindow.WEEKLY, Money.of(totals.weekly()));
+        spent.put(LimitWindow.MONTHLY, Money.of(totals.monthly()));
+        return spent;
     }
-}
\ No newline at end of file
+}
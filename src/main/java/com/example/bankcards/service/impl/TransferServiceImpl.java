@@ -1,10 +1,13 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.dto.BatchTransferItemDto;
+import com.example.bankcards.dto.BatchTransferResultDto;
 import com.example.bankcards.dto.CardTransferDto;
 import com.example.bankcards.dto.CardTransferRequestDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardTransfer;
-import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.entity.enums.UserStatus;
@@ -17,24 +20,44 @@ import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UserInactiveException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.security.model.OperatorContext;
 import com.example.bankcards.service.CardLifecycleService;
 import com.example.bankcards.service.NotificationService;
 import com.example.bankcards.service.TransferLimitService;
 import com.example.bankcards.service.TransferService;
 import com.example.bankcards.service.UserAccessService;
-import com.example.bankcards.util.CardNumberEncoder;
+import com.example.bankcards.service.support.CardIdResolver;
+import com.example.bankcards.service.support.CardLockManager;
+import com.example.bankcards.service.support.DailyLimitBudget;
+import com.example.bankcards.service.support.TransferIdempotencyStore;
+import com.example.bankcards.service.support.TransferSettlementQueue;
 import com.example.bankcards.util.mapper.CardTransferMapper;
 import com.example.bankcards.util.ValidationUtils;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Реализация {@link TransferService}.
@@ -46,44 +69,205 @@ public class TransferServiceImpl implements TransferService {
 
     private static final Logger log = LoggerFactory.getLogger(TransferServiceImpl.class);
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final CardRepository cardRepository;
     private final CardTransferRepository cardTransferRepository;
     private final TransferLimitService transferLimitService;
     private final CardLifecycleService cardLifecycleService;
     private final NotificationService notificationService;
-    private final CardNumberEncoder cardNumberEncoder;
+    private final CardIdResolver cardIdResolver;
     private final CardTransferMapper cardTransferMapper;
     private final UserAccessService userAccessService;
+    private final CardLockManager cardLockManager;
+    private final TransferProperties transferProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferSettlementQueue transferSettlementQueue;
+    private final TransferIdempotencyStore transferIdempotencyStore;
 
     @Override
     @Transactional(dontRollbackOn = BankcardsException.class)
     public CardTransferDto transfer(Long operatorId, CardTransferRequestDto request) {
-        User operator = userAccessService.requireActiveUser(operatorId);
+        TransferOutcome outcome = performTransfer(operatorId, request);
+        if (outcome.failure() != null) {
+            throw outcome.failure();
+        }
+        return cardTransferMapper.toDto(outcome.transfer());
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CardTransferDto transfer(Long operatorId, CardTransferRequestDto request, String idempotencyKey) {
+        String key = normalizeIdempotencyKey(idempotencyKey);
+        String requestHash = hashRequest(request);
+        return transferIdempotencyStore.execute(operatorId, key, requestHash, () -> {
+            TransferOutcome outcome = transactionTemplate.execute(status -> {
+                TransferOutcome result = performTransfer(operatorId, request);
+                if (result.failure() == null) {
+                    transferIdempotencyStore.record(operatorId, key, requestHash, result.transfer());
+                }
+                return result;
+            });
+            if (outcome.failure() != null) {
+                throw outcome.failure();
+            }
+            return cardTransferMapper.toDto(outcome.transfer());
+        });
+    }
+
+    @Override
+    @Transactional(dontRollbackOn = BankcardsException.class)
+    public CardTransferDto submitTransfer(Long operatorId, CardTransferRequestDto request) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
         String fromCardNumber = normalizeCardNumber(request.fromCardNumber());
         String toCardNumber = normalizeCardNumber(request.toCardNumber());
-        if (fromCardNumber.equals(toCardNumber)) {
-            throw new InvalidTransferRequestException("Source and target cards must be different");
-        }
-        BigDecimal amount;
+        ensureDifferentCards(fromCardNumber, toCardNumber);
+        Money amount = normalizeAmount(request.amount());
+
+        Long fromCardId = findCardIdByNumber(fromCardNumber);
+        Long toCardId = findCardIdByNumber(toCardNumber);
+        TransferSettlementQueue.Reservation reservation = transferSettlementQueue.reserve(fromCardId);
         try {
-            amount = ValidationUtils.normalizeAmount(request.amount());
-        } catch (IllegalArgumentException ex) {
-            throw new InvalidTransferRequestException(ex.getMessage());
+            Map<Long, Card> cards = loadCards(List.of(fromCardId, toCardId));
+            Card fromCard = cards.get(fromCardId);
+            Card toCard = cards.get(toCardId);
+            ensureCanInitiateTransfer(operator, fromCard, toCard);
+
+            CardTransfer transfer = new CardTransfer();
+            transfer.setFromCard(fromCard);
+            transfer.setToCard(toCard);
+            transfer.setAmount(amount);
+            transfer.setDescription(request.description());
+            try {
+                validateOwnerIsActive(fromCard);
+                validateOwnerIsActive(toCard);
+                validateCardIsActive(fromCard);
+                validateCardIsActive(toCard);
+                transferLimitService.openDailyBudget(fromCard.getId()).reserve(amount);
+            } catch (BankcardsException ex) {
+                transfer.setStatus(TransferStatus.FAILED);
+                cardTransferRepository.save(transfer);
+                log.warn("Transfer {} -> {} for amount {} rejected: {}", fromCardId, toCardId, amount, ex.getMessage());
+                throw ex;
+            }
+
+            transfer.setStatus(TransferStatus.PENDING);
+            CardTransfer saved = cardTransferRepository.save(transfer);
+            Long transferId = saved.getId();
+            reservation.dispatchAfterCommit(() -> settleAsync(transferId));
+            log.info("Accepted transfer {} ({} -> {}) for asynchronous settlement", transferId, fromCardId, toCardId);
+            return cardTransferMapper.toDto(saved);
+        } catch (RuntimeException ex) {
+            reservation.cancel();
+            throw ex;
         }
+    }
 
-        Card fromCard = findCardByNumber(fromCardNumber);
-        Card toCard = findCardByNumber(toCardNumber);
+    @Override
+    public CardTransferDto getTransfer(Long operatorId, Long transferId) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        CardTransfer transfer = cardTransferRepository.findById(transferId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer not found: " + transferId));
+        ensureCanViewTransfer(operator, transfer);
+        return cardTransferMapper.toDto(transfer);
+    }
 
-        fromCard = cardLifecycleService.refreshExpiration(fromCard);
-        toCard = cardLifecycleService.refreshExpiration(toCard);
+    /**
+     * Возобновляет проведение переводов, оставшихся в статусе PENDING после остановки приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public void resumePendingTransfers() {
+        List<CardTransfer> pending = cardTransferRepository.findAllByStatusOrderByIdAsc(TransferStatus.PENDING);
+        for (CardTransfer transfer : pending) {
+            Long transferId = transfer.getId();
+            transferSettlementQueue.dispatch(transfer.getFromCard().getId(), () -> settleAsync(transferId));
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resumed settlement of {} pending transfers", pending.size());
+        }
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public BatchTransferResultDto transferBatch(Long operatorId, List<CardTransferRequestDto> requests) {
+        int maxSize = transferProperties.getBatch().getMaxSize();
+        if (requests.size() > maxSize) {
+            throw new InvalidTransferRequestException("Batch must contain at most " + maxSize + " transfers");
+        }
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        Map<String, Long> cardIds = resolveCardIds(requests);
+
+        BatchTransferItemDto[] results = new BatchTransferItemDto[requests.size()];
+        List<BatchItem> items = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++) {
+            try {
+                items.add(prepareBatchItem(index, requests.get(index), cardIds));
+            } catch (BankcardsException ex) {
+                results[index] = BatchTransferItemDto.failed(index, null, ex.getMessage());
+            }
+        }
+
+        int chunkSize = Math.max(1, transferProperties.getBatch().getChunkSize());
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<BatchItem> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+            executeChunk(operator, chunk, results);
+        }
+        BatchTransferResultDto result = BatchTransferResultDto.of(Arrays.asList(results));
+        log.info("Processed transfer batch of {} items: {} completed, {} failed",
+                result.total(), result.completed(), result.failed());
+        return result;
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<CardTransferDto> getTransfersForCard(Long operatorId, Long cardId) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
+        ensureCanViewCardTransfers(operator, card);
+        return Stream.concat(
+                        cardTransferRepository.findAllByFromCardId(card.getId()).stream(),
+                        cardTransferRepository.findAllByToCardId(card.getId()).stream()
+                )
+                .sorted(Comparator.comparing(CardTransfer::getCreatedAt).reversed())
+                .map(cardTransferMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private TransferOutcome performTransfer(Long operatorId, CardTransferRequestDto request) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        String fromCardNumber = normalizeCardNumber(request.fromCardNumber());
+        String toCardNumber = normalizeCardNumber(request.toCardNumber());
+        ensureDifferentCards(fromCardNumber, toCardNumber);
+        Money amount = normalizeAmount(request.amount());
+
+        Long fromCardId = findCardIdByNumber(fromCardNumber);
+        Long toCardId = findCardIdByNumber(toCardNumber);
+        Map<Long, Card> cards = loadCards(List.of(fromCardId, toCardId));
+        Card fromCard = cards.get(fromCardId);
+        Card toCard = cards.get(toCardId);
 
         ensureCanInitiateTransfer(operator, fromCard, toCard);
 
+        DailyLimitBudget budget = transferLimitService.openDailyBudget(fromCard.getId());
+        return execute(fromCard, toCard, amount, request.description(), budget);
+    }
+
+    /**
+     * Выполняет перевод между уже загруженными картами и сохраняет его результат.
+     * При бизнес-ошибке перевод сохраняется со статусом FAILED, а ошибка возвращается в результате.
+     */
+    private TransferOutcome execute(Card fromCard,
+                                    Card toCard,
+                                    Money amount,
+                                    String description,
+                                    DailyLimitBudget budget) {
         CardTransfer transfer = new CardTransfer();
         transfer.setFromCard(fromCard);
         transfer.setToCard(toCard);
         transfer.setAmount(amount);
-        transfer.setDescription(request.description());
+        transfer.setDescription(description);
 
         try {
             validateOwnerIsActive(fromCard);
@@ -91,53 +275,240 @@ public class TransferServiceImpl implements TransferService {
             validateCardIsActive(fromCard);
             validateCardIsActive(toCard);
 
-            transferLimitService.validateDailyLimit(fromCard.getId(), amount);
-
-            if (fromCard.getBalance().compareTo(amount) < 0) {
-                throw new InsufficientFundsException("Not enough funds to perform transfer");
+            budget.reserve(amount);
+            try {
+                moveFunds(fromCard, toCard, amount);
+            } catch (BankcardsException ex) {
+                budget.release(amount);
+                throw ex;
             }
 
-            fromCard.setBalance(fromCard.getBalance().subtract(amount));
-            toCard.setBalance(toCard.getBalance().add(amount));
-
             transfer.setStatus(TransferStatus.COMPLETED);
             CardTransfer saved = cardTransferRepository.save(transfer);
             log.info("Completed transfer {} -> {} for amount {}", fromCard.getId(), toCard.getId(), amount);
             notificationService.notifyTransfer(saved);
-            return cardTransferMapper.toDto(saved);
+            return new TransferOutcome(saved, null);
         } catch (BankcardsException ex) {
             transfer.setStatus(TransferStatus.FAILED);
-            cardTransferRepository.save(transfer);
+            CardTransfer saved = cardTransferRepository.save(transfer);
             log.warn("Transfer {} -> {} for amount {} failed: {}", fromCard.getId(), toCard.getId(), amount, ex.getMessage());
-            throw ex;
+            return new TransferOutcome(saved, ex);
         }
     }
 
-    @Override
-    @Transactional(Transactional.TxType.SUPPORTS)
-    public List<CardTransferDto> getTransfersForCard(Long operatorId, Long cardId) {
-        User operator = userAccessService.requireActiveUser(operatorId);
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardId));
-        ensureCanViewCardTransfers(operator, card);
-        cardLifecycleService.refreshExpiration(card);
-        return Stream.concat(
-                        cardTransferRepository.findAllByFromCardId(card.getId()).stream(),
-                        cardTransferRepository.findAllByToCardId(card.getId()).stream()
-                )
-                .sorted(Comparator.comparing(CardTransfer::getCreatedAt).reversed())
-                .map(cardTransferMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Проводит перевод из очереди в отдельной транзакции. Непредвиденная ошибка
+     * переводит его в статус FAILED, чтобы перевод не остался в PENDING навсегда.
+     */
+    private void settleAsync(Long transferId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> settlePendingTransfer(transferId));
+        } catch (RuntimeException ex) {
+            log.error("Settlement of transfer {} failed unexpectedly", transferId, ex);
+            transactionTemplate.executeWithoutResult(status -> cardTransferRepository.findByIdForUpdate(transferId)
+                    .filter(transfer -> transfer.getStatus() == TransferStatus.PENDING)
+                    .ifPresent(this::markPendingTransferFailed));
+        }
+    }
+
+    /**
+     * Проводит перевод в статусе PENDING. Суточный лимит повторно не проверяется:
+     * перевод уже учтён в нём с момента приёма.
+     */
+    private void settlePendingTransfer(Long transferId) {
+        CardTransfer transfer = cardTransferRepository.findByIdForUpdate(transferId).orElse(null);
+        if (transfer == null || transfer.getStatus() != TransferStatus.PENDING) {
+            return;
+        }
+        Long fromCardId = transfer.getFromCard().getId();
+        Long toCardId = transfer.getToCard().getId();
+        Map<Long, Card> cards = loadCards(List.of(fromCardId, toCardId));
+        Card fromCard = cards.get(fromCardId);
+        Card toCard = cards.get(toCardId);
+        try {
+            validateOwnerIsActive(fromCard);
+            validateOwnerIsActive(toCard);
+            validateCardIsActive(fromCard);
+            validateCardIsActive(toCard);
+            moveFunds(fromCard, toCard, transfer.getAmount());
+            transfer.setStatus(TransferStatus.COMPLETED);
+            log.info("Settled transfer {} ({} -> {}) for amount {}", transferId, fromCardId, toCardId, transfer.getAmount());
+            notificationService.notifyTransfer(transfer);
+        } catch (BankcardsException ex) {
+            markPendingTransferFailed(transfer);
+            log.warn("Settlement of transfer {} failed: {}", transferId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Отклоняет принятый перевод и возвращает его сумму в суточный лимит карты.
+     */
+    private void markPendingTransferFailed(CardTransfer transfer) {
+        transfer.setStatus(TransferStatus.FAILED);
+        transferLimitService.releaseDailySpend(
+                transfer.getFromCard().getId(), transfer.getCreatedAt(), transfer.getAmount());
+    }
+
+    /**
+     * Выполняет часть пакета в отдельной транзакции. Если транзакция откатилась,
+     * все переводы части считаются неуспешными.
+     */
+    private void executeChunk(OperatorContext operator, List<BatchItem> chunk, BatchTransferItemDto[] results) {
+        try {
+            List<BatchTransferItemDto> chunkResults = transactionTemplate.execute(status -> settleChunk(operator, chunk));
+            if (chunkResults != null) {
+                chunkResults.forEach(item -> results[item.index()] = item);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Transfer batch chunk of {} items was rolled back: {}", chunk.size(), ex.getMessage());
+            String reason = "Batch chunk was rolled back: " + ex.getMessage();
+            chunk.forEach(item -> results[item.index()] = BatchTransferItemDto.failed(item.index(), null, reason));
+        }
+    }
+
+    private List<BatchTransferItemDto> settleChunk(OperatorContext operator, List<BatchItem> chunk) {
+        List<Long> cardIds = chunk.stream()
+                .flatMap(item -> Stream.of(item.fromCardId(), item.toCardId()))
+                .toList();
+        // Карты части блокируются сразу и в режиме ATOMIC: иначе условные UPDATE встречных частей
+        // захватывали бы строки в порядке переводов и могли бы взаимоблокироваться
+        Map<Long, Card> cards = loadCards(cardIds, true);
+        Map<Long, DailyLimitBudget> budgets = new HashMap<>();
+
+        List<BatchTransferItemDto> results = new ArrayList<>(chunk.size());
+        for (BatchItem item : chunk) {
+            Card fromCard = cards.get(item.fromCardId());
+            Card toCard = cards.get(item.toCardId());
+            try {
+                ensureCanInitiateTransfer(operator, fromCard, toCard);
+                DailyLimitBudget budget = budgets.computeIfAbsent(fromCard.getId(), transferLimitService::openDailyBudget);
+                TransferOutcome outcome = execute(fromCard, toCard, item.amount(), item.description(), budget);
+                Long transferId = outcome.transfer().getId();
+                results.add(outcome.failure() == null
+                        ? BatchTransferItemDto.completed(item.index(), transferId)
+                        : BatchTransferItemDto.failed(item.index(), transferId, outcome.failure().getMessage()));
+            } catch (BankcardsException ex) {
+                results.add(BatchTransferItemDto.failed(item.index(), null, ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private BatchItem prepareBatchItem(int index, CardTransferRequestDto request, Map<String, Long> cardIds) {
+        String fromCardNumber = normalizeCardNumber(request.fromCardNumber());
+        String toCardNumber = normalizeCardNumber(request.toCardNumber());
+        ensureDifferentCards(fromCardNumber, toCardNumber);
+        Money amount = normalizeAmount(request.amount());
+        Long fromCardId = cardIds.get(fromCardNumber);
+        Long toCardId = cardIds.get(toCardNumber);
+        if (fromCardId == null || toCardId == null) {
+            throw new ResourceNotFoundException("Card not found for number");
+        }
+        return new BatchItem(index, fromCardId, toCardId, amount, request.description());
+    }
+
+    /**
+     * Находит ID всех карт пакета, обращаясь к БД только за отсутствующими в кэше.
+     *
+     * @return ID карт по нормализованному номеру
+     */
+    private Map<String, Long> resolveCardIds(List<CardTransferRequestDto> requests) {
+        List<String> numbers = requests.stream()
+                .flatMap(request -> Stream.of(request.fromCardNumber(), request.toCardNumber()))
+                .map(this::normalizeCardNumber)
+                .distinct()
+                .toList();
+        return cardIdResolver.resolveAll(numbers);
     }
 
-    private Card findCardByNumber(String normalizedCardNumber) {
-        String encrypted = cardNumberEncoder.encrypt(normalizedCardNumber);
-        return cardRepository.findByEncryptedNumber(encrypted)
+    private Long findCardIdByNumber(String normalizedCardNumber) {
+        return cardIdResolver.resolve(normalizedCardNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Card not found for number"));
     }
 
+    /**
+     * Загружает карты. В режиме ENTITY карты блокируются до конца транзакции: сначала
+     * полосы внутри процесса, затем строки в БД. Строки всегда блокируются по возрастанию ID карты.
+     */
+    private Map<Long, Card> loadCards(List<Long> cardIds) {
+        return loadCards(cardIds, !isAtomicBalanceUpdate());
+    }
+
+    private Map<Long, Card> loadCards(List<Long> cardIds, boolean lock) {
+        TreeSet<Long> orderedIds = new TreeSet<>(cardIds);
+        List<Card> cards;
+        if (lock) {
+            cardLockManager.lockForTransaction(orderedIds);
+            cards = cardRepository.findAllByIdInForUpdate(orderedIds);
+        } else {
+            cards = cardRepository.findAllById(orderedIds);
+        }
+        Map<Long, Card> result = new LinkedHashMap<>();
+        for (Card card : cards) {
+            result.put(card.getId(), card);
+        }
+        for (Long cardId : orderedIds) {
+            if (!result.containsKey(cardId)) {
+                throw new ResourceNotFoundException("Card not found: " + cardId);
+            }
+        }
+        return result;
+    }
+
+    private boolean isAtomicBalanceUpdate() {
+        return transferProperties.getBalanceUpdate() == TransferProperties.BalanceUpdateMode.ATOMIC;
+    }
+
+    private void moveFunds(Card fromCard, Card toCard, Money amount) {
+        if (isAtomicBalanceUpdate()) {
+            moveFundsAtomically(fromCard, toCard, amount);
+            return;
+        }
+        if (fromCard.getBalance().isLessThan(amount)) {
+            throw new InsufficientFundsException("Not enough funds to perform transfer");
+        }
+        fromCard.setBalance(fromCard.getBalance().minus(amount));
+        toCard.setBalance(toCard.getBalance().plus(amount));
+    }
+
+    /**
+     * Списание и зачисление условными UPDATE-запросами. Строки обновляются по возрастанию
+     * ID карты, чтобы встречные переводы не взаимоблокировались. Транзакция фиксируется и при
+     * бизнес-ошибке (чтобы сохранить FAILED-перевод), поэтому уже применённое изменение
+     * второй карты компенсируется. Списание отклоняется и при нехватке средств, и если карту
+     * успели заблокировать после загрузки, поэтому причина отказа уточняется по статусу карты.
+     */
+    private void moveFundsAtomically(Card fromCard, Card toCard, Money money) {
+        BigDecimal amount = money.toBigDecimal();
+        LocalDateTime now = LocalDateTime.now();
+        if (fromCard.getId() < toCard.getId()) {
+            if (cardRepository.debitIfActive(fromCard.getId(), amount, now) == 0) {
+                throw debitRejection(fromCard.getId());
+            }
+            if (cardRepository.creditIfActive(toCard.getId(), amount, now) == 0) {
+                cardRepository.addToBalance(fromCard.getId(), amount, now);
+                throw new CardInactiveException("Card " + toCard.getId() + " is not active");
+            }
+        } else {
+            if (cardRepository.creditIfActive(toCard.getId(), amount, now) == 0) {
+                throw new CardInactiveException("Card " + toCard.getId() + " is not active");
+            }
+            if (cardRepository.debitIfActive(fromCard.getId(), amount, now) == 0) {
+                cardRepository.addToBalance(toCard.getId(), amount.negate(), now);
+                throw debitRejection(fromCard.getId());
+            }
+        }
+    }
+
+    private BankcardsException debitRejection(Long cardId) {
+        if (cardRepository.findStatusById(cardId).orElse(null) != CardStatus.ACTIVE) {
+            return new CardInactiveException("Card " + cardId + " is not active");
+        }
+        return new InsufficientFundsException("Not enough funds to perform transfer");
+    }
+
     private void validateCardIsActive(Card card) {
-        if (card.getStatus() != CardStatus.ACTIVE) {
+        if (cardLifecycleService.effectiveStatus(card.getStatus(), card.getExpirationDate()) != CardStatus.ACTIVE) {
             throw new CardInactiveException("Card " + card.getId() + " is not active");
         }
     }
@@ -152,12 +523,52 @@ public class TransferServiceImpl implements TransferService {
         return cardNumber.replaceAll("\\s", "");
     }
 
-    private void ensureCanInitiateTransfer(User operator, Card fromCard, Card toCard) {
+    private String normalizeIdempotencyKey(String idempotencyKey) {
+        String key = idempotencyKey == null ? "" : idempotencyKey.strip();
+        if (key.isEmpty() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidTransferRequestException(
+                    "Idempotency key must contain from 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    /**
+     * Отпечаток запроса, по которому повтор с тем же ключом отличается от другого перевода.
+     */
+    private String hashRequest(CardTransferRequestDto request) {
+        String canonical = String.join("|",
+                normalizeCardNumber(request.fromCardNumber()),
+                normalizeCardNumber(request.toCardNumber()),
+                normalizeAmount(request.amount()).toString(),
+                Objects.toString(request.description(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private void ensureDifferentCards(String fromCardNumber, String toCardNumber) {
+        if (fromCardNumber.equals(toCardNumber)) {
+            throw new InvalidTransferRequestException("Source and target cards must be different");
+        }
+    }
+
+    private Money normalizeAmount(BigDecimal amount) {
+        try {
+            return ValidationUtils.normalizeAmount(amount);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidTransferRequestException(ex.getMessage());
+        }
+    }
+
+    private void ensureCanInitiateTransfer(OperatorContext operator, Card fromCard, Card toCard) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        Long operatorId = operator.getId();
+        Long operatorId = operator.id();
         if (fromCard.getOwner() == null || !fromCard.getOwner().getId().equals(operatorId)) {
             throw new AccessDeniedException("User " + operatorId + " cannot initiate transfer from card " + fromCard.getId());
         }
@@ -166,13 +577,34 @@ public class TransferServiceImpl implements TransferService {
         }
     }
 
-    private void ensureCanViewCardTransfers(User operator, Card card) {
+    private void ensureCanViewCardTransfers(OperatorContext operator, Card card) {
+        if (userAccessService.isAdmin(operator)) {
+            return;
+        }
+        userAccessService.ensureUserRole(operator);
+        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.id())) {
+            throw new AccessDeniedException("User " + operator.id() + " cannot view transfers for card " + card.getId());
+        }
+    }
+
+    private void ensureCanViewTransfer(OperatorContext operator, CardTransfer transfer) {
         if (userAccessService.isAdmin(operator)) {
             return;
         }
         userAccessService.ensureUserRole(operator);
-        if (card.getOwner() == null || !card.getOwner().getId().equals(operator.getId())) {
-            throw new AccessDeniedException("User " + operator.getId() + " cannot view transfers for card " + card.getId());
+        Long operatorId = operator.id();
+        if (!isOwnedBy(transfer.getFromCard(), operatorId) && !isOwnedBy(transfer.getToCard(), operatorId)) {
+            throw new AccessDeniedException("User " + operatorId + " cannot view transfer " + transfer.getId());
         }
     }
-}
\ No newline at end of file
+
+    private boolean isOwnedBy(Card card, Long userId) {
+        return card.getOwner() != null && card.getOwner().getId().equals(userId);
+    }
+
+    private record TransferOutcome(CardTransfer transfer, BankcardsException failure) {
+    }
+
+    private record BatchItem(int index, Long fromCardId, Long toCardId, Money amount, String description) {
+    }
+}
@@ -3,15 +3,19 @@ package com.example.bankcards.service.impl;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.RoleType;
-import com.example.bankcards.entity.enums.UserStatus;
 import com.example.bankcards.exception.AccessDeniedException;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UserInactiveException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.model.OperatorContext;
 import com.example.bankcards.service.UserAccessService;
+import java.util.EnumSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 @RequiredArgsConstructor
@@ -20,28 +24,44 @@ public class UserAccessServiceImpl implements UserAccessService {
     private final UserRepository userRepository;
 
     @Override
-    public User requireActiveUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        if (user.getStatus() != UserStatus.ACTIVE) {
-            throw new UserInactiveException("User " + userId + " is not active");
+    public OperatorContext requireActiveOperator(Long operatorId) {
+        OperatorContext operator = currentOperator(operatorId);
+        if (operator == null) {
+            operator = loadOperator(operatorId);
         }
-        return user;
+        if (!operator.isActive()) {
+            throw new UserInactiveException("User " + operatorId + " is not active");
+        }
+        return operator;
     }
 
     @Override
-    public boolean isAdmin(User user) {
-        return hasRole(user.getRoles(), RoleType.ADMIN);
+    public boolean isAdmin(OperatorContext operator) {
+        return operator.hasRole(RoleType.ADMIN);
     }
 
     @Override
-    public void ensureUserRole(User user) {
-        if (!hasRole(user.getRoles(), RoleType.USER)) {
-            throw new AccessDeniedException("User " + user.getId() + " must have USER role for this operation");
+    public void ensureUserRole(OperatorContext operator) {
+        if (!operator.hasRole(RoleType.USER)) {
+            throw new AccessDeniedException("User " + operator.id() + " must have USER role for this operation");
+        }
+    }
+
+    private OperatorContext currentOperator(Long operatorId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
         }
+        Object operator = attributes.getAttribute(OperatorContext.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return operator instanceof OperatorContext context && context.id().equals(operatorId) ? context : null;
     }
 
-    private boolean hasRole(Set<Role> roles, RoleType roleType) {
-        return roles.stream().anyMatch(role -> role.getName() == roleType);
+    private OperatorContext loadOperator(Long operatorId) {
+        User user = userRepository.findById(operatorId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + operatorId));
+        Set<RoleType> roles = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(RoleType.class)));
+        return new OperatorContext(user.getId(), user.getStatus(), roles);
     }
-}
\ No newline at end of file
+}
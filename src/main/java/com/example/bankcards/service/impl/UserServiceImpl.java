@@ -2,22 +2,32 @@ package com.example.bankcards.service.impl;
 
 import com.example.bankcards.dto.CreateUserRequestDto;
 import com.example.bankcards.dto.UserDto;
-import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.RoleType;
 import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.AccessDeniedException;
 import com.example.bankcards.exception.DuplicateResourceException;
 import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.jwt.TokenVersionRegistry;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.security.service.BankUserDetailsService;
+import com.example.bankcards.service.UserAccessService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.service.support.LimitPolicyResolver;
 import com.example.bankcards.util.mapper.UserMapper;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,8 +40,13 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final CardRepository cardRepository;
+    private final UserAccessService userAccessService;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final LimitPolicyResolver limitPolicyResolver;
+    private final BankUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     public UserDto registerUser(CreateUserRequestDto request) {
@@ -77,11 +92,29 @@ public class UserServiceImpl implements UserService {
     public UserDto updateStatus(Long userId, UserStatus status) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
-        user.setStatus(status);
-        applyStatusToCards(user, status);
+        applyStatus(List.of(user), status);
         return userMapper.toDto(user);
     }
 
+    @Override
+    public List<UserDto> updateStatuses(Long operatorId, Set<Long> userIds, UserStatus status) {
+        OperatorContext operator = userAccessService.requireActiveOperator(operatorId);
+        if (!userAccessService.isAdmin(operator)) {
+            throw new AccessDeniedException("User " + operatorId + " cannot update status of users");
+        }
+        List<User> users = userRepository.findAllByIdIn(userIds);
+        if (users.size() != userIds.size()) {
+            Set<Long> missing = new TreeSet<>(userIds);
+            users.forEach(user -> missing.remove(user.getId()));
+            throw new ResourceNotFoundException("Users not found: " + missing);
+        }
+        applyStatus(users, status);
+        return users.stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(userMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public UserDto assignRoles(Long userId, Set<RoleType> roles) {
         User user = userRepository.findById(userId)
@@ -91,6 +124,12 @@ public class UserServiceImpl implements UserService {
         // Очистка текущих ролей через вспомогательные методы, чтобы корректно обновить связь.
         new LinkedHashSet<>(user.getRoles()).forEach(user::removeRole);
         resolvedRoles.forEach(user::addRole);
+        // Роли передаются в access-токене, поэтому выданные токены отзываются
+        userRepository.incrementTokenVersion(userId, LocalDateTime.now());
+        // Лимиты карт пользователя могут зависеть от его ролей
+        limitPolicyResolver.invalidateAll();
+        userDetailsService.evictUser(userId);
+        tokenVersionRegistry.versionChanged(List.of(userId));
         return userMapper.toDto(user);
     }
 
@@ -108,15 +147,26 @@ public class UserServiceImpl implements UserService {
                 .orElseGet(() -> roleRepository.save(new Role(roleType)));
     }
 
-    private void applyStatusToCards(User user, UserStatus status) {
-        for (Card card : user.getCards()) {
-            if (status == UserStatus.BLOCKED && card.getStatus() == CardStatus.ACTIVE) {
-                card.setStatus(CardStatus.BLOCKED);
-            } else if (status == UserStatus.ARCHIVED) {
-                card.setStatus(CardStatus.CLOSED);
-            } else if (status == UserStatus.ACTIVE && card.getStatus() == CardStatus.BLOCKED) {
-                card.setStatus(CardStatus.ACTIVE);
-            }
+    /**
+     * Обновляет статус пользователей и их карт запросами UPDATE, не загружая карты, и отзывает
+     * выданные пользователям токены.
+     * Запросы очищают контекст персистентности, поэтому статус переданных сущностей, к этому
+     * моменту отсоединённых, выставляется вручную; роли пользователей должны быть загружены.
+     */
+    private void applyStatus(List<User> users, UserStatus status) {
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.updateStatusByIdIn(userIds, status, now);
+        switch (status) {
+            case BLOCKED -> cardRepository.updateStatusByOwnerIds(
+                    userIds, EnumSet.of(CardStatus.ACTIVE), CardStatus.BLOCKED, now);
+            case ARCHIVED -> cardRepository.updateStatusByOwnerIds(
+                    userIds, EnumSet.complementOf(EnumSet.of(CardStatus.CLOSED)), CardStatus.CLOSED, now);
+            case ACTIVE -> cardRepository.updateStatusByOwnerIds(
+                    userIds, EnumSet.of(CardStatus.BLOCKED), CardStatus.ACTIVE, now);
         }
+        users.forEach(user -> user.setStatus(status));
+        userIds.forEach(userDetailsService::evictUser);
+        tokenVersionRegistry.versionChanged(userIds);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.CardExpirationProperties;
+import com.example.bankcards.service.CardLifecycleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Периодически переводит в EXPIRED карты с истёкшим сроком действия.
+ * <p>
+ * Карты отмечаются порциями по {@link CardExpirationProperties#getChunkSize()}, каждая порция
+ * фиксируется в отдельной транзакции. Строки, заблокированные переводами, пропускаются и
+ * отмечаются при следующем запуске, поэтому несколько экземпляров приложения не мешают друг другу.
+ */
+@Slf4j
+@Component
+public class CardExpirationSweeper {
+
+    private final CardLifecycleService cardLifecycleService;
+    private final TransactionTemplate transactionTemplate;
+    private final CardExpirationProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter expiredCards;
+
+    public CardExpirationSweeper(CardLifecycleService cardLifecycleService,
+                                 TransactionTemplate transactionTemplate,
+                                 CardExpirationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        Assert.isTrue(properties.getChunkSize() > 0, "Card expiration chunk size must be positive");
+        Assert.isTrue(properties.getInterval().toMillis() > 0, "Card expiration interval must be positive");
+        this.cardLifecycleService = cardLifecycleService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("card-expiration-"));
+        this.expiredCards = Counter.builder("bank.card.expired")
+                .description("Cards marked as expired by the expiration sweeper")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::sweep, 0, properties.getInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Отмечает порции карт, пока не останется карт с истёкшим сроком. Ошибки записываются
+     * в журнал, оставшиеся карты отмечаются при следующем запуске.
+     *
+     * @return количество отмеченных карт
+     */
+    public long sweep() {
+        long expired = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer count = transactionTemplate.execute(
+                        status -> cardLifecycleService.expireCards(properties.getChunkSize()));
+                int chunk = count != null ? count : 0;
+                expiredCards.increment(chunk);
+                expired += chunk;
+                if (chunk < properties.getChunkSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Исключение из задачи отменило бы все следующие запуски планировщика
+            log.warn("Card expiration sweep failed and will be retried", ex);
+        }
+        if (expired > 0) {
+            log.info("Marked {} cards as expired", expired);
+        }
+        return expired;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
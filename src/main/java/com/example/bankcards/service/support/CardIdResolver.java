@@ -0,0 +1,106 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardIdRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Определяет ID карты по её номеру.
+ * <p>
+ * Найденные ID кэшируются по HMAC номера, поэтому открытые номера в памяти не хранятся.
+ * Отсутствующие номера не кэшируются. Запись сбрасывается при выпуске и удалении карты
+ * с этим номером; время жизни записи ограничивает устаревание кэша на других экземплярах
+ * приложения. Количество попаданий и промахов публикуется в метриках {@code cache.gets}
+ * с тегом {@code cache=transfer.card.id}.
+ */
+@Component
+public class CardIdResolver {
+
+    private final CardRepository cardRepository;
+    private final CardNumberEncoder cardNumberEncoder;
+    private final Cache<ByteBuffer, Long> cache;
+
+    public CardIdResolver(CardRepository cardRepository,
+                          CardNumberEncoder cardNumberEncoder,
+                          TransferProperties transferProperties,
+                          MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.cardNumberEncoder = cardNumberEncoder;
+        TransferProperties.CardLookup properties = transferProperties.getCardLookup();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transfer.card.id");
+    }
+
+    /**
+     * @param normalizedCardNumber номер карты без пробелов
+     */
+    public Optional<Long> resolve(String normalizedCardNumber) {
+        ByteBuffer key = ByteBuffer.wrap(cardNumberEncoder.hash(normalizedCardNumber));
+        return Optional.ofNullable(cache.get(key, hash -> cardRepository.findIdByNumberHash(hash.array()).orElse(null)));
+    }
+
+    /**
+     * Находит ID карт, отсутствующих в кэше, одним запросом.
+     *
+     * @param normalizedCardNumbers различные номера карт без пробелов
+     * @return ID найденных карт по номеру
+     */
+    public Map<String, Long> resolveAll(List<String> normalizedCardNumbers) {
+        List<byte[]> hashes = cardNumberEncoder.hashAll(normalizedCardNumbers);
+        List<ByteBuffer> keys = hashes.stream().map(ByteBuffer::wrap).toList();
+        Map<ByteBuffer, Long> idByHash = cache.getAll(keys, this::load);
+        Map<String, Long> result = new HashMap<>();
+        for (int i = 0; i < normalizedCardNumbers.size(); i++) {
+            Long id = idByHash.get(keys.get(i));
+            if (id != null) {
+                result.put(normalizedCardNumbers.get(i), id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает запись номера сейчас и повторно после фиксации текущей транзакции, чтобы
+     * в кэш не попал ID, прочитанный до фиксации изменений.
+     */
+    public void invalidate(byte[] numberHash) {
+        if (numberHash == null) {
+            return;
+        }
+        ByteBuffer key = ByteBuffer.wrap(numberHash.clone());
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private Map<ByteBuffer, Long> load(Set<? extends ByteBuffer> keys) {
+        List<byte[]> hashes = keys.stream().map(ByteBuffer::array).toList();
+        return cardRepository.findIdsByNumberHashIn(hashes).stream()
+                .collect(Collectors.toMap(row -> ByteBuffer.wrap(row.numberHash()), CardIdRow::id));
+    }
+}
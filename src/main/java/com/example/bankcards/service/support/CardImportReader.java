@@ -0,0 +1,147 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.dto.CardImportLineDto;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Построчно читает файл массового выпуска карт.
+ * <p>
+ * В памяти находится только текущая порция строк; строка длиннее {@value #MAX_LINE_LENGTH}
+ * символов не накапливается, а возвращается как ошибочная. Пустые строки пропускаются,
+ * номера строк считаются с единицы по исходному файлу.
+ */
+public class CardImportReader implements Closeable {
+
+    public static final int MAX_LINE_LENGTH = 1024;
+
+    private static final String CSV_HEADER = "userId";
+    private static final int CSV_COLUMNS = 4;
+
+    private final CardImportFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder();
+    private long lineNumber;
+    private boolean endOfInput;
+    private boolean firstContentLine = true;
+
+    public CardImportReader(CardImportFormat format, InputStream input, ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return не более {@code limit} следующих строк; пустой список, если файл прочитан
+     */
+    public List<Line> read(int limit) throws IOException {
+        List<Line> lines = new ArrayList<>(limit);
+        while (lines.size() < limit && !endOfInput) {
+            boolean complete = readLine();
+            if (!complete) {
+                lines.add(Line.failed(lineNumber, "Line exceeds " + MAX_LINE_LENGTH + " characters"));
+                continue;
+            }
+            String text = buffer.toString().strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            boolean header = firstContentLine && format == CardImportFormat.CSV && text.startsWith(CSV_HEADER);
+            firstContentLine = false;
+            if (!header) {
+                lines.add(parse(text));
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Читает следующую строку в {@link #buffer}.
+     *
+     * @return {@code false}, если строка длиннее допустимой; её остаток пропускается
+     */
+    private boolean readLine() throws IOException {
+        buffer.setLength(0);
+        lineNumber++;
+        boolean complete = true;
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (ch == '\n') {
+                return complete;
+            }
+            if (buffer.length() < MAX_LINE_LENGTH) {
+                buffer.append((char) ch);
+            } else {
+                complete = false;
+            }
+        }
+        endOfInput = true;
+        return complete;
+    }
+
+    private Line parse(String text) {
+        return format == CardImportFormat.CSV ? parseCsv(text) : parseJson(text);
+    }
+
+    private Line parseCsv(String text) {
+        String[] columns = text.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            return Line.failed(lineNumber, "Expected columns: userId,cardNumber,expirationDate,initialBalance");
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(columns[0].strip());
+        } catch (NumberFormatException ex) {
+            return Line.failed(lineNumber, "Invalid userId");
+        }
+        LocalDate expirationDate;
+        try {
+            expirationDate = LocalDate.parse(columns[2].strip());
+        } catch (DateTimeParseException ex) {
+            return Line.failed(lineNumber, "Invalid expirationDate, expected yyyy-MM-dd");
+        }
+        BigDecimal initialBalance;
+        try {
+            initialBalance = new BigDecimal(columns[3].strip());
+        } catch (NumberFormatException ex) {
+            return Line.failed(lineNumber, "Invalid initialBalance");
+        }
+        return new Line(lineNumber, new CardImportLineDto(userId, columns[1].strip(), expirationDate, initialBalance), null);
+    }
+
+    private Line parseJson(String text) {
+        try {
+            return new Line(lineNumber, objectMapper.readValue(text, CardImportLineDto.class), null);
+        } catch (JsonProcessingException ex) {
+            return Line.failed(lineNumber, "Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Строка файла: разобранные значения или причина ошибки разбора.
+     */
+    public record Line(long number, CardImportLineDto value, String error) {
+
+        static Line failed(long number, String error) {
+            return new Line(number, null, error);
+        }
+    }
+}
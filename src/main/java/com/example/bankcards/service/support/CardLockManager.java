@@ -0,0 +1,125 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.exception.CardLockTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Таблица блокировок карт внутри процесса.
+ * <p>
+ * Идентификаторы карт распределяются по фиксированному набору полос, полосы всегда
+ * захватываются по возрастанию индекса, поэтому встречные переводы A→B и B→A
+ * не могут взаимно заблокироваться.
+ */
+@Component
+public class CardLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+    private final Timer waitTimer;
+
+    public CardLockManager(TransferProperties transferProperties, MeterRegistry meterRegistry) {
+        TransferProperties.Lock properties = transferProperties.getLock();
+        Assert.isTrue(properties.getStripes() > 0, "Number of card lock stripes must be positive");
+        Assert.notNull(properties.getTimeout(), "Card lock timeout must be configured");
+        this.stripes = new ReentrantLock[properties.getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeout = properties.getTimeout();
+        this.waitTimer = Timer.builder("bank.transfer.card.lock.wait")
+                .description("Time spent waiting for in-process card locks")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Захватывает блокировки карт и удерживает их до завершения текущей транзакции.
+     */
+    public void lockForTransaction(Collection<Long> cardIds) {
+        Assert.state(TransactionSynchronizationManager.isSynchronizationActive(),
+                "Card locks can only be bound to an active transaction");
+        Lease lease = acquire(cardIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lease.close();
+            }
+        });
+    }
+
+    /**
+     * Захватывает блокировки карт. Полученный объект должен быть закрыт в том же потоке.
+     */
+    public Lease acquire(Collection<Long> cardIds) {
+        int[] order = cardIds.stream()
+                .map(id -> Objects.requireNonNull(id, "Card id must not be null"))
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int acquired = 0;
+        try {
+            for (int index : order) {
+                long remaining = deadline - System.nanoTime();
+                if (!stripes[index].tryLock(remaining, TimeUnit.NANOSECONDS)) {
+                    throw new CardLockTimeoutException("Timed out waiting for card lock after " + timeout);
+                }
+                acquired++;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CardLockTimeoutException("Interrupted while waiting for card lock", ex);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (acquired < order.length) {
+                unlock(order, acquired);
+            }
+        }
+        return new Lease(order);
+    }
+
+    private int stripeIndex(Long cardId) {
+        long hash = cardId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) stripes.length);
+    }
+
+    private void unlock(int[] order, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[order[i]].unlock();
+        }
+    }
+
+    /**
+     * Набор захваченных полос блокировок.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final int[] order;
+        private boolean released;
+
+        private Lease(int[] order) {
+            this.order = order;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            unlock(order, order.length);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardNumberRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Переводит карты, выпущенные до появления {@code card_number_hash}, на AES-GCM и заполняет
+ * для них HMAC номера.
+ * <p>
+ * Выполняется после создания всех бинов, но до запуска веб-сервера, чтобы поиск по номеру
+ * не встречал карт без HMAC. Карты обрабатываются порциями в отдельных коротких транзакциях
+ * по возрастанию ID, поэтому таблица целиком не блокируется, а строки, занятые другими
+ * транзакциями или экземплярами приложения, пропускаются. Номера, которые не удаётся
+ * расшифровать прежним ключом, остаются без HMAC и записываются в журнал.
+ */
+@Slf4j
+@Component
+public class CardNumberHashBackfill implements SmartInitializingSingleton {
+
+    private final CardRepository cardRepository;
+    private final CardNumberEncoder cardNumberEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CardNumberHashBackfill(CardRepository cardRepository,
+                                  CardNumberEncoder cardNumberEncoder,
+                                  TransactionTemplate transactionTemplate,
+                                  EncryptionProperties encryptionProperties) {
+        this.cardRepository = cardRepository;
+        this.cardNumberEncoder = cardNumberEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = encryptionProperties.getHashBackfillChunkSize();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int updated = backfill();
+        if (updated > 0) {
+            log.info("Migrated {} card numbers to AES-GCM with card_number_hash", updated);
+        }
+    }
+
+    /**
+     * @return количество обновлённых карт
+     */
+    public int backfill() {
+        long afterId = 0;
+        int updated = 0;
+        while (true) {
+            long from = afterId;
+            ChunkResult chunk = transactionTemplate.execute(status -> migrateChunk(from));
+            if (chunk == null || chunk.lastId() == null) {
+                return updated;
+            }
+            updated += chunk.updated();
+            afterId = chunk.lastId();
+        }
+    }
+
+    private ChunkResult migrateChunk(long afterId) {
+        List<CardNumberRow> rows = cardRepository.findUnhashedForUpdate(afterId, chunkSize);
+        int updated = 0;
+        for (CardNumberRow row : rows) {
+            String number;
+            try {
+                number = cardNumberEncoder.decryptLegacy(row.getEncryptedNumber());
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                log.warn("Card {} number cannot be decrypted and is left without card_number_hash", row.getId());
+                continue;
+            }
+            cardRepository.updateNumber(row.getId(), cardNumberEncoder.encrypt(number), cardNumberEncoder.hash(number));
+            updated++;
+        }
+        Long lastId = rows.isEmpty() ? null : rows.get(rows.size() - 1).getId();
+        return new ChunkResult(lastId, updated);
+    }
+
+    private record ChunkResult(Long lastId, int updated) {
+    }
+}
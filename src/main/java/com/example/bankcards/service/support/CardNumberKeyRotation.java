@@ -0,0 +1,222 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.entity.CardKeyRotation;
+import com.example.bankcards.repository.CardKeyRotationRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardNumberRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Перешифровывает номера карт текущим ключом в фоне после смены ключа шифрования.
+ * <p>
+ * Карты обрабатываются порциями по возрастанию ID, каждая порция расшифровывается и шифруется
+ * заново в нескольких потоках и фиксируется в отдельной короткой транзакции, после чего
+ * выдерживается пауза, чтобы не вытеснять обработку запросов. ID последней обработанной карты
+ * сохраняется в {@code card_key_rotations} в той же транзакции, поэтому после перезапуска
+ * ротация продолжается с места остановки. Запись прогресса блокируется на время порции, так что
+ * порции одновременно обрабатывает только один экземпляр приложения. Карты без HMAC номера
+ * и карты, номер которых не удаётся расшифровать настроенными ключами, пропускаются.
+ */
+@Slf4j
+@Component
+public class CardNumberKeyRotation {
+
+    private final CardRepository cardRepository;
+    private final CardKeyRotationRepository cardKeyRotationRepository;
+    private final CardNumberEncoder cardNumberEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EncryptionProperties.Rotation properties;
+    private final ExecutorService runner;
+    private final ExecutorService workers;
+    private final Counter rotatedCards;
+    private final Counter skippedCards;
+    private final AtomicLong lastCardId = new AtomicLong();
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    public CardNumberKeyRotation(CardRepository cardRepository,
+                                 CardKeyRotationRepository cardKeyRotationRepository,
+                                 CardNumberEncoder cardNumberEncoder,
+                                 TransactionTemplate transactionTemplate,
+                                 EncryptionProperties encryptionProperties,
+                                 MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.cardKeyRotationRepository = cardKeyRotationRepository;
+        this.cardNumberEncoder = cardNumberEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = encryptionProperties.getRotation();
+        Assert.isTrue(properties.getChunkSize() > 0, "Key rotation chunk size must be positive");
+        Assert.isTrue(properties.getParallelism() > 0, "Key rotation parallelism must be positive");
+        this.runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("card-key-rotation-"));
+        this.workers = Executors.newFixedThreadPool(properties.getParallelism(),
+                new CustomizableThreadFactory("card-key-rotation-worker-"));
+        this.rotatedCards = Counter.builder("bank.card.key.rotation.cards")
+                .description("Card numbers re-encrypted with the current key")
+                .tag("result", "rotated")
+                .register(meterRegistry);
+        this.skippedCards = Counter.builder("bank.card.key.rotation.cards")
+                .description("Card numbers re-encrypted with the current key")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        Gauge.builder("bank.card.key.rotation.last.card.id", lastCardId, AtomicLong::get)
+                .description("Last card processed by key rotation")
+                .register(meterRegistry);
+        Gauge.builder("bank.card.key.rotation.completed", completed, value -> value.get() ? 1 : 0)
+                .description("Whether all card numbers are encrypted with the current key")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled()) {
+            runner.execute(this::rotate);
+        }
+    }
+
+    /**
+     * Перешифровывает порции карт, пока все номера не будут зашифрованы текущим ключом или
+     * поток не будет прерван. Ошибки записываются в журнал, порция повторяется после паузы.
+     *
+     * @return количество перешифрованных карт
+     */
+    public long rotate() {
+        String keyId = cardNumberEncoder.currentKeyId();
+        long rotated = 0;
+        boolean created = false;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ChunkResult chunk;
+                try {
+                    if (!created) {
+                        transactionTemplate.executeWithoutResult(
+                                status -> cardKeyRotationRepository.createIfAbsent(keyId));
+                        created = true;
+                    }
+                    chunk = transactionTemplate.execute(status -> rotateChunk(keyId));
+                } catch (RuntimeException ex) {
+                    // Исключение, вышедшее из цикла, остановило бы ротацию до перезапуска приложения
+                    log.warn("Card number key rotation chunk failed and will be retried", ex);
+                    chunk = ChunkResult.BUSY;
+                }
+                if (chunk == null || chunk.completed()) {
+                    completed.set(true);
+                    log.info("Card numbers are encrypted with key {}", keyId);
+                    return rotated;
+                }
+                rotatedCards.increment(chunk.rotated());
+                skippedCards.increment(chunk.skipped());
+                rotated += chunk.rotated();
+                Thread.sleep(properties.getPause().toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Card number key rotation stopped after {} cards and will resume on restart", rotated);
+        return rotated;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private ChunkResult rotateChunk(String keyId) {
+        Optional<CardKeyRotation> locked = cardKeyRotationRepository.findForUpdateSkipLocked(keyId);
+        if (locked.isEmpty()) {
+            return ChunkResult.BUSY;
+        }
+        CardKeyRotation progress = locked.get();
+        if (progress.isCompleted()) {
+            return ChunkResult.COMPLETED;
+        }
+        List<CardNumberRow> rows = cardRepository.findEncryptedWithOtherKey(
+                progress.getLastCardId(), cardNumberEncoder.currentKeyPrefix(), properties.getChunkSize());
+        if (rows.isEmpty()) {
+            progress.setCompletedAt(LocalDateTime.now());
+            return ChunkResult.COMPLETED;
+        }
+
+        List<String> reencrypted = reencrypt(rows);
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<String> currentNumbers = new ArrayList<>(rows.size());
+        List<String> encryptedNumbers = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            CardNumberRow row = rows.get(i);
+            if (reencrypted.get(i) == null) {
+                log.warn("Card {} number cannot be decrypted with configured keys and is left as is", row.getId());
+            } else {
+                ids.add(row.getId());
+                currentNumbers.add(row.getEncryptedNumber());
+                encryptedNumbers.add(reencrypted.get(i));
+            }
+        }
+        int skipped = rows.size() - ids.size();
+        int rotated = ids.isEmpty() ? 0 : cardRepository.replaceEncryptedNumbers(ids.toArray(Long[]::new),
+                currentNumbers.toArray(String[]::new), encryptedNumbers.toArray(String[]::new));
+        long lastId = rows.get(rows.size() - 1).getId();
+        progress.setLastCardId(lastId);
+        progress.setRotatedCount(progress.getRotatedCount() + rotated);
+        progress.setSkippedCount(progress.getSkippedCount() + skipped);
+        lastCardId.set(lastId);
+        return new ChunkResult(false, rotated, skipped);
+    }
+
+    /**
+     * Перешифровывает номера, разделив порцию между потоками.
+     *
+     * @return новые шифртексты в порядке исходного списка; {@code null} для номеров,
+     * которые не удалось расшифровать
+     */
+    private List<String> reencrypt(List<CardNumberRow> rows) {
+        int sliceSize = Math.max(1, (rows.size() + properties.getParallelism() - 1) / properties.getParallelism());
+        List<CompletableFuture<List<String>>> slices = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += sliceSize) {
+            List<CardNumberRow> slice = rows.subList(start, Math.min(start + sliceSize, rows.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> reencryptSlice(slice), workers));
+        }
+        List<String> result = new ArrayList<>(rows.size());
+        for (CompletableFuture<List<String>> slice : slices) {
+            result.addAll(slice.join());
+        }
+        return result;
+    }
+
+    private List<String> reencryptSlice(List<CardNumberRow> rows) {
+        List<String> result = new ArrayList<>(rows.size());
+        for (CardNumberRow row : rows) {
+            try {
+                result.add(cardNumberEncoder.encrypt(cardNumberEncoder.decrypt(row.getEncryptedNumber())));
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                result.add(null);
+            }
+        }
+        return result;
+    }
+
+    private record ChunkResult(boolean completed, int rotated, int skipped) {
+
+        private static final ChunkResult COMPLETED = new ChunkResult(true, 0, 0);
+        private static final ChunkResult BUSY = new ChunkResult(false, 0, 0);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.entity.Money;
+import java.util.List;
+
+/**
+ * Остаток нескольких лимитов одной карты. Если сумма не укладывается в один из лимитов,
+ * резервы в уже проверенных остатках снимаются.
+ */
+final class CompositeDailyLimitBudget implements DailyLimitBudget {
+
+    private final List<DailyLimitBudget> budgets;
+
+    CompositeDailyLimitBudget(List<DailyLimitBudget> budgets) {
+        this.budgets = List.copyOf(budgets);
+    }
+
+    @Override
+    public void reserve(Money amount) {
+        int reserved = 0;
+        try {
+            for (DailyLimitBudget budget : budgets) {
+                budget.reserve(amount);
+                reserved++;
+            }
+        } catch (RuntimeException ex) {
+            for (int i = reserved - 1; i >= 0; i--) {
+                budgets.get(i).release(amount);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void release(Money amount) {
+        for (DailyLimitBudget budget : budgets) {
+            budget.release(amount);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.entity.Money;
+import java.util.List;
+
+/**
+ * Остаток лимита одной карты, из которого резервируются суммы переводов.
+ */
+public interface DailyLimitBudget {
+
+    static DailyLimitBudget unlimited() {
+        return SnapshotDailyLimitBudget.UNLIMITED;
+    }
+
+    /**
+     * Остаток, рассчитанный по сумме переводов на момент открытия. Учитывает переводы,
+     * выполненные через него, без повторных запросов к БД.
+     */
+    static DailyLimitBudget snapshot(Money limit, Money spent) {
+        return new SnapshotDailyLimitBudget(LimitWindow.DAILY, limit, spent);
+    }
+
+    /**
+     * Остаток лимита указанного периода, рассчитанный по сумме переводов на момент открытия.
+     */
+    static DailyLimitBudget snapshot(LimitWindow window, Money limit, Money spent) {
+        return new SnapshotDailyLimitBudget(window, limit, spent);
+    }
+
+    /**
+     * Объединяет остатки нескольких лимитов. Сумма резервируется во всех остатках
+     * или ни в одном из них.
+     */
+    static DailyLimitBudget allOf(List<DailyLimitBudget> budgets) {
+        return switch (budgets.size()) {
+            case 0 -> unlimited();
+            case 1 -> budgets.get(0);
+            default -> new CompositeDailyLimitBudget(budgets);
+        };
+    }
+
+    /**
+     * Проверяет, что перевод укладывается в лимит, и учитывает его сумму.
+     *
+     * @throws com.example.bankcards.exception.TransferLimitExceededException если лимит превышен
+     */
+    void reserve(Money amount);
+
+    /**
+     * Возвращает в лимит сумму перевода, который не был выполнен.
+     */
+    void release(Money amount);
+}
@@ -0,0 +1,208 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardTransferRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Суточные суммы исходящих переводов карт, которые хранятся в памяти процесса.
+ * <p>
+ * Суммы хранятся в копейках и изменяются через CAS. Счётчик карты восстанавливается
+ * из {@code card_transfers} при первом обращении и при смене дня. Счётчики хранятся в кэше
+ * ограниченного размера и удаляются, если к карте не обращались дольше {@code spend-cache-ttl},
+ * поэтому счётчики прошлых дней и неактивных карт не накапливаются. Удалённый счётчик
+ * восстанавливается из БД при следующем обращении. Сумма в БД не включает переводы ещё не
+ * завершённых транзакций, поэтому счётчик с их резервами закрепляется до завершения этих
+ * транзакций и после удаления из кэша возвращается в него вместо загрузки из БД. Учитываются
+ * только переводы, выполненные этим экземпляром приложения, поэтому журнал пригоден лишь для
+ * развёртывания в одном экземпляре.
+ * Количество попаданий и промахов публикуется в метриках {@code cache.gets} с тегом
+ * {@code cache=transfer.limit.daily.spend}.
+ */
+@Component
+public class DailySpendLedger {
+
+    private static final Set<TransferStatus> STATUSES_FOR_LIMIT = EnumSet.of(
+            TransferStatus.PENDING,
+            TransferStatus.COMPLETED
+    );
+
+    private final CardTransferRepository cardTransferRepository;
+    private final Cache<Long, DayCounter> counters;
+    private final ConcurrentMap<Long, DayCounter> pinned = new ConcurrentHashMap<>();
+
+    public DailySpendLedger(CardTransferRepository cardTransferRepository,
+                            TransferProperties transferProperties,
+                            MeterRegistry meterRegistry) {
+        this.cardTransferRepository = cardTransferRepository;
+        TransferProperties.Limit properties = transferProperties.getLimit();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(properties.getSpendCacheSize())
+                .expireAfterAccess(properties.getSpendCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "transfer.limit.daily.spend");
+    }
+
+    /**
+     * Возвращает израсходованную за текущий день сумму.
+     */
+    public Money spent(Long cardId) {
+        return Money.ofMinorUnits(counter(cardId).spent.get());
+    }
+
+    /**
+     * Открывает остаток лимита, резервирующий суммы непосредственно в журнале.
+     * Резервы, сделанные в транзакции, снимаются при её откате.
+     */
+    public DailyLimitBudget openBudget(Long cardId, Money limit) {
+        return new LedgerBudget(cardId, counter(cardId), limit);
+    }
+
+    /**
+     * Возвращает в лимит сумму перевода указанного дня. Если счётчик карты уже
+     * относится к другому дню, ничего не делает.
+     */
+    public void release(Long cardId, LocalDate day, Money amount) {
+        DayCounter counter = counters.getIfPresent(cardId);
+        if (counter == null) {
+            counter = pinned.get(cardId);
+        }
+        if (counter != null && counter.day.equals(day)) {
+            counter.spent.addAndGet(-amount.minorUnits());
+        }
+    }
+
+    private DayCounter counter(Long cardId) {
+        LocalDate today = LocalDate.now();
+        DayCounter counter = counters.getIfPresent(cardId);
+        if (counter != null && counter.day.equals(today)) {
+            return counter;
+        }
+        DayCounter held = pinned.get(cardId);
+        DayCounter loaded = held != null && held.day.equals(today) ? held : load(cardId, today);
+        return counters.asMap().compute(cardId, (id, existing) ->
+                existing != null && existing.day.equals(today) ? existing : loaded);
+    }
+
+    /**
+     * Закрепляет счётчик до завершения транзакции, резервирующей сумму в нём.
+     */
+    private void pin(Long cardId, DayCounter counter) {
+        pinned.compute(cardId, (id, current) -> {
+            counter.holders++;
+            return counter;
+        });
+    }
+
+    private void unpin(Long cardId, DayCounter counter) {
+        pinned.compute(cardId, (id, current) -> {
+            counter.holders--;
+            return current == counter && counter.holders == 0 ? null : current;
+        });
+    }
+
+    private DayCounter load(Long cardId, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        BigDecimal spent = cardTransferRepository.sumOutgoingAmount(cardId, STATUSES_FOR_LIMIT, from, from.plusDays(1));
+        return new DayCounter(day, Money.of(spent).minorUnits());
+    }
+
+    private static final class DayCounter {
+
+        private final LocalDate day;
+        private final AtomicLong spent;
+        // Изменяется только внутри compute по ID карты в pinned
+        private int holders;
+
+        private DayCounter(LocalDate day, long spent) {
+            this.day = day;
+            this.spent = new AtomicLong(spent);
+        }
+
+        private boolean tryReserve(long amount, long limit) {
+            while (true) {
+                long current = spent.get();
+                if (current + amount > limit) {
+                    return false;
+                }
+                if (spent.compareAndSet(current, current + amount)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Остаток лимита, который используется в одном потоке в рамках одной транзакции.
+     */
+    private final class LedgerBudget implements DailyLimitBudget {
+
+        private final Long cardId;
+        private final DayCounter counter;
+        private final Money limit;
+        private final long limitMinorUnits;
+        private long reserved;
+        private boolean completionRegistered;
+
+        private LedgerBudget(Long cardId, DayCounter counter, Money limit) {
+            this.cardId = cardId;
+            this.counter = counter;
+            this.limit = limit;
+            this.limitMinorUnits = limit.minorUnits();
+        }
+
+        @Override
+        public void reserve(Money amount) {
+            long minorUnits = amount.minorUnits();
+            registerCompletion();
+            if (!counter.tryReserve(minorUnits, limitMinorUnits)) {
+                String message = String.format("Daily transfer limit of %s exceeded", limit);
+                throw new TransferLimitExceededException(message, limit.toBigDecimal());
+            }
+            reserved += minorUnits;
+        }
+
+        @Override
+        public void release(Money amount) {
+            long minorUnits = Math.min(amount.minorUnits(), reserved);
+            reserved -= minorUnits;
+            counter.spent.addAndGet(-minorUnits);
+        }
+
+        private void registerCompletion() {
+            if (completionRegistered || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            completionRegistered = true;
+            pin(cardId, counter);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counter.spent.addAndGet(-reserved);
+                        reserved = 0;
+                    }
+                    unpin(cardId, counter);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardDailySpendRepository;
+import com.example.bankcards.entity.Money;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.stereotype.Component;
+
+/**
+ * Суммы исходящих переводов карт по дням в таблице {@code card_daily_spend}.
+ * <p>
+ * Проверка лимита и увеличение суммы выполняются одним UPSERT в транзакции перевода,
+ * поэтому учёт корректен при нескольких экземплярах приложения. Откат транзакции
+ * отменяет и изменение суммы.
+ */
+@Component
+public class DailySpendTable {
+
+    private final CardDailySpendRepository cardDailySpendRepository;
+
+    public DailySpendTable(CardDailySpendRepository cardDailySpendRepository) {
+        this.cardDailySpendRepository = cardDailySpendRepository;
+    }
+
+    /**
+     * Возвращает израсходованную за текущий день сумму.
+     */
+    public Money spent(Long cardId) {
+        return cardDailySpendRepository.findSpent(cardId, LocalDate.now()).map(Money::of).orElse(Money.ZERO);
+    }
+
+    /**
+     * Открывает остаток лимита, резервирующий суммы в строке карты за текущий день.
+     */
+    public DailyLimitBudget openBudget(Long cardId, Money limit) {
+        return new TableBudget(cardId, LocalDate.now(), limit);
+    }
+
+    public void release(Long cardId, LocalDate day, Money amount) {
+        cardDailySpendRepository.subtract(cardId, day, amount.toBigDecimal());
+    }
+
+    /**
+     * Дополняет суммы за день по данным {@code card_transfers}.
+     *
+     * @return количество добавленных или изменённых записей
+     */
+    public int reconcile(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        return cardDailySpendRepository.reconcile(from, from.plusDays(1));
+    }
+
+    private final class TableBudget implements DailyLimitBudget {
+
+        private final Long cardId;
+        private final LocalDate day;
+        private final Money limit;
+
+        private TableBudget(Long cardId, LocalDate day, Money limit) {
+            this.cardId = cardId;
+            this.day = day;
+            this.limit = limit;
+        }
+
+        @Override
+        public void reserve(Money amount) {
+            if (cardDailySpendRepository.addIfWithinLimit(cardId, day, amount.toBigDecimal(), limit.toBigDecimal()) == 0) {
+                String message = String.format("Daily transfer limit of %s exceeded", limit);
+                throw new TransferLimitExceededException(message, limit.toBigDecimal());
+            }
+        }
+
+        @Override
+        public void release(Money amount) {
+            DailySpendTable.this.release(cardId, day, amount);
+        }
+    }
+}
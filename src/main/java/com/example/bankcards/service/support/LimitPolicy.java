@@ -0,0 +1,28 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.entity.Money;
+
+/**
+ * Действующие лимиты карты по периодам. {@code null} означает отсутствие лимита.
+ */
+public record LimitPolicy(Money daily, Money weekly, Money monthly) {
+
+    public Money limit(LimitWindow window) {
+        return switch (window) {
+            case DAILY -> daily;
+            case WEEKLY -> weekly;
+            case MONTHLY -> monthly;
+        };
+    }
+
+    public boolean isUnlimited() {
+        return daily == null && weekly == null && monthly == null;
+    }
+
+    /**
+     * Проверяет, заданы ли лимиты на периоды длиннее суток.
+     */
+    public boolean hasLongerWindows() {
+        return weekly != null || monthly != null;
+    }
+}
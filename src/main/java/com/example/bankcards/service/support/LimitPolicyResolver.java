@@ -0,0 +1,114 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.TransferLimitPolicy;
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.repository.TransferLimitPolicyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Определяет действующие лимиты карты.
+ * <p>
+ * Для каждого периода используется первый заданный лимит в порядке: политика карты,
+ * политика владельца, политики ролей владельца (наибольший из лимитов), глобальная
+ * настройка {@code transfer.limit}. Результат кэшируется по ID карты и сбрасывается
+ * при изменении политик и ролей. Время жизни записи ограничивает устаревание кэша
+ * на других экземплярах приложения.
+ */
+@Component
+public class LimitPolicyResolver {
+
+    private final TransferLimitPolicyRepository transferLimitPolicyRepository;
+    private final TransferProperties transferProperties;
+    private final Cache<Long, LimitPolicy> cache;
+
+    public LimitPolicyResolver(TransferLimitPolicyRepository transferLimitPolicyRepository,
+                               TransferProperties transferProperties,
+                               MeterRegistry meterRegistry) {
+        this.transferLimitPolicyRepository = transferLimitPolicyRepository;
+        this.transferProperties = transferProperties;
+        TransferProperties.Limit properties = transferProperties.getLimit();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getPolicyCacheSize())
+                .expireAfterWrite(properties.getPolicyCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transfer.limit.policy");
+    }
+
+    public LimitPolicy resolve(Long cardId) {
+        return cache.get(cardId, this::load);
+    }
+
+    /**
+     * Сбрасывает кэш сейчас и повторно после фиксации текущей транзакции, чтобы
+     * в кэш не попали значения, прочитанные до фиксации изменений.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private LimitPolicy load(Long cardId) {
+        List<TransferLimitPolicy> policies = transferLimitPolicyRepository.findApplicableToCard(cardId);
+        TransferProperties.Limit defaults = transferProperties.getLimit();
+        return new LimitPolicy(
+                toMoney(resolve(policies, TransferLimitPolicy::getDailyLimit, defaults.getDaily())),
+                toMoney(resolve(policies, TransferLimitPolicy::getWeeklyLimit, defaults.getWeekly())),
+                toMoney(resolve(policies, TransferLimitPolicy::getMonthlyLimit, defaults.getMonthly()))
+        );
+    }
+
+    private BigDecimal resolve(List<TransferLimitPolicy> policies,
+                               Function<TransferLimitPolicy, BigDecimal> limit,
+                               BigDecimal defaultLimit) {
+        BigDecimal cardLimit = find(policies, LimitPolicyScope.CARD, limit);
+        if (cardLimit != null) {
+            return cardLimit;
+        }
+        BigDecimal userLimit = find(policies, LimitPolicyScope.USER, limit);
+        if (userLimit != null) {
+            return userLimit;
+        }
+        BigDecimal roleLimit = policies.stream()
+                .filter(policy -> policy.getScope() == LimitPolicyScope.ROLE)
+                .map(limit)
+                .filter(Objects::nonNull)
+                .max(BigDecimal::compareTo)
+                .orElse(null);
+        return roleLimit != null ? roleLimit : defaultLimit;
+    }
+
+    private Money toMoney(BigDecimal limit) {
+        return limit != null ? Money.of(limit) : null;
+    }
+
+    private BigDecimal find(List<TransferLimitPolicy> policies,
+                            LimitPolicyScope scope,
+                            Function<TransferLimitPolicy, BigDecimal> limit) {
+        return policies.stream()
+                .filter(policy -> policy.getScope() == scope)
+                .map(limit)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.service.support;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Календарный период, за который ограничивается сумма переводов.
+ */
+public enum LimitWindow {
+
+    DAILY("Daily") {
+        @Override
+        public LocalDate start(LocalDate today) {
+            return today;
+        }
+    },
+    WEEKLY("Weekly") {
+        @Override
+        public LocalDate start(LocalDate today) {
+            return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    },
+    MONTHLY("Monthly") {
+        @Override
+        public LocalDate start(LocalDate today) {
+            return today.withDayOfMonth(1);
+        }
+    };
+
+    private final String label;
+
+    LimitWindow(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Первый день периода, которому принадлежит указанная дата.
+     */
+    public abstract LocalDate start(LocalDate today);
+
+    public String label() {
+        return label;
+    }
+}
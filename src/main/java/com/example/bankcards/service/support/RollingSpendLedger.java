@@ -0,0 +1,277 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.repository.projection.TransferSpendEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Суммы исходящих переводов карт за скользящие 24 часа, которые хранятся в памяти процесса.
+ * <p>
+ * Для каждой карты ведётся кольцевой буфер сумм по интервалам длиной {@code rolling-bucket}
+ * и их общий итог. Окно включает текущий интервал и полные 24 часа перед ним, то есть
+ * граница окна округляется в сторону более строгой проверки. Устаревшие интервалы
+ * обнуляются при обращении, поэтому проверка требует не более одного прохода по буферу
+ * и не создаёт объектов. Буфер заполняется из {@code card_transfers} при первом обращении
+ * к карте. Буферы хранятся в кэше ограниченного размера и удаляются, если к карте не
+ * обращались дольше {@code spend-cache-ttl}; удалённый буфер заполняется из БД заново.
+ * Как и {@link DailySpendLedger}, пригоден лишь для развёртывания в одном экземпляре.
+ * Количество попаданий и промахов публикуется в метриках {@code cache.gets} с тегом
+ * {@code cache=transfer.limit.rolling.spend}.
+ */
+@Component
+public class RollingSpendLedger {
+
+    private static final Duration WINDOW = Duration.ofDays(1);
+
+    private static final Set<TransferStatus> STATUSES_FOR_LIMIT = EnumSet.of(
+            TransferStatus.PENDING,
+            TransferStatus.COMPLETED
+    );
+
+    private final CardTransferRepository cardTransferRepository;
+    private final Clock clock;
+    private final long bucketSeconds;
+    private final int bucketCount;
+    private final Cache<Long, SpendWindow> windows;
+
+    @Autowired
+    public RollingSpendLedger(CardTransferRepository cardTransferRepository,
+                              TransferProperties transferProperties,
+                              MeterRegistry meterRegistry) {
+        this(cardTransferRepository, transferProperties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    RollingSpendLedger(CardTransferRepository cardTransferRepository,
+                       TransferProperties transferProperties,
+                       MeterRegistry meterRegistry,
+                       Clock clock) {
+        TransferProperties.Limit properties = transferProperties.getLimit();
+        Duration bucket = properties.getRollingBucket();
+        Assert.isTrue(bucket.getSeconds() > 0 && WINDOW.getSeconds() % bucket.getSeconds() == 0,
+                "Rolling limit bucket must be a whole number of seconds that evenly divides 24 hours");
+        this.cardTransferRepository = cardTransferRepository;
+        this.clock = clock;
+        this.bucketSeconds = bucket.getSeconds();
+        this.bucketCount = (int) (WINDOW.getSeconds() / bucketSeconds) + 1;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(properties.getSpendCacheSize())
+                .expireAfterAccess(properties.getSpendCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, windows, "transfer.limit.rolling.spend");
+    }
+
+    /**
+     * Возвращает израсходованную за последние 24 часа сумму.
+     */
+    public Money spent(Long cardId) {
+        long bucket = bucketOf(LocalDateTime.now(clock));
+        return Money.ofMinorUnits(window(cardId, bucket).total(bucket));
+    }
+
+    /**
+     * Открывает остаток лимита, резервирующий суммы непосредственно в буфере карты.
+     * Резервы, сделанные в транзакции, снимаются при её откате.
+     */
+    public DailyLimitBudget openBudget(Long cardId, Money limit) {
+        long bucket = bucketOf(LocalDateTime.now(clock));
+        return new RollingBudget(window(cardId, bucket), limit);
+    }
+
+    /**
+     * Возвращает в лимит сумму перевода, выполненного в указанное время. Если интервал
+     * перевода уже вышел за пределы окна, ничего не делает.
+     */
+    public void release(Long cardId, LocalDateTime spentAt, Money amount) {
+        SpendWindow window = windows.getIfPresent(cardId);
+        if (window != null) {
+            window.subtract(bucketOf(spentAt), amount.minorUnits());
+        }
+    }
+
+    private SpendWindow window(Long cardId, long bucket) {
+        SpendWindow window = windows.getIfPresent(cardId);
+        if (window != null) {
+            return window;
+        }
+        SpendWindow loaded = load(cardId, bucket);
+        SpendWindow existing = windows.asMap().putIfAbsent(cardId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private SpendWindow load(Long cardId, long bucket) {
+        SpendWindow window = new SpendWindow(bucket);
+        LocalDateTime from = startOf(bucket - bucketCount + 1);
+        LocalDateTime to = startOf(bucket + 1);
+        for (TransferSpendEntry entry : cardTransferRepository.findOutgoingSpend(cardId, STATUSES_FOR_LIMIT, from, to)) {
+            window.seed(bucketOf(entry.createdAt()), entry.amount().minorUnits());
+        }
+        return window;
+    }
+
+    // Время переводов хранится без часового пояса, поэтому интервалы отсчитываются от локального времени
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Кольцевой буфер сумм одной карты. Интервал {@code bucket} хранится в ячейке
+     * {@code bucket % bucketCount}, {@code head} — последний интервал, до которого
+     * буфер сдвинут.
+     */
+    private final class SpendWindow {
+
+        private final long[] amounts = new long[bucketCount];
+        private long head;
+        private long total;
+
+        private SpendWindow(long head) {
+            this.head = head;
+        }
+
+        private synchronized long total(long bucket) {
+            advance(bucket);
+            return total;
+        }
+
+        private synchronized boolean tryAdd(long bucket, long amount, long limit) {
+            advance(bucket);
+            if (total + amount > limit) {
+                return false;
+            }
+            amounts[slot(head)] += amount;
+            total += amount;
+            return true;
+        }
+
+        private synchronized void seed(long bucket, long amount) {
+            if (bucket > head - bucketCount) {
+                amounts[slot(Math.min(bucket, head))] += amount;
+                total += amount;
+            }
+        }
+
+        /**
+         * Снимает сумму с указанного интервала, но не больше, чем в нём учтено.
+         */
+        private synchronized void subtract(long bucket, long amount) {
+            if (bucket > head || bucket <= head - bucketCount) {
+                return;
+            }
+            int slot = slot(bucket);
+            long removed = Math.min(amount, amounts[slot]);
+            amounts[slot] -= removed;
+            total -= removed;
+        }
+
+        /**
+         * Снимает сумму начиная с последнего интервала. Используется для отмены резервов,
+         * которые всегда попадают в последние интервалы окна.
+         */
+        private synchronized void subtractRecent(long amount) {
+            for (long bucket = head; amount > 0 && bucket > head - bucketCount; bucket--) {
+                int slot = slot(bucket);
+                long removed = Math.min(amount, amounts[slot]);
+                amounts[slot] -= removed;
+                total -= removed;
+                amount -= removed;
+            }
+        }
+
+        private void advance(long bucket) {
+            if (bucket <= head) {
+                return;
+            }
+            if (bucket - head >= bucketCount) {
+                Arrays.fill(amounts, 0L);
+                total = 0;
+            } else {
+                for (long expired = head + 1; expired <= bucket; expired++) {
+                    int slot = slot(expired);
+                    total -= amounts[slot];
+                    amounts[slot] = 0;
+                }
+            }
+            head = bucket;
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) bucketCount);
+        }
+    }
+
+    /**
+     * Остаток лимита, который используется в одном потоке в рамках одной транзакции.
+     */
+    private final class RollingBudget implements DailyLimitBudget {
+
+        private final SpendWindow window;
+        private final Money limit;
+        private final long limitMinorUnits;
+        private long reserved;
+        private boolean rollbackRegistered;
+
+        private RollingBudget(SpendWindow window, Money limit) {
+            this.window = window;
+            this.limit = limit;
+            this.limitMinorUnits = limit.minorUnits();
+        }
+
+        @Override
+        public void reserve(Money amount) {
+            long minorUnits = amount.minorUnits();
+            if (!window.tryAdd(bucketOf(LocalDateTime.now(clock)), minorUnits, limitMinorUnits)) {
+                String message = String.format("Daily transfer limit of %s exceeded", limit);
+                throw new TransferLimitExceededException(message, limit.toBigDecimal());
+            }
+            reserved += minorUnits;
+            registerRollbackRelease();
+        }
+
+        @Override
+        public void release(Money amount) {
+            long minorUnits = Math.min(amount.minorUnits(), reserved);
+            reserved -= minorUnits;
+            window.subtractRecent(minorUnits);
+        }
+
+        private void registerRollbackRelease() {
+            if (rollbackRegistered || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            rollbackRegistered = true;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        window.subtractRecent(reserved);
+                        reserved = 0;
+                    }
+                }
+            });
+        }
+    }
+}
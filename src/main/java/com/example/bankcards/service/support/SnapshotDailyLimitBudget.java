@@ -0,0 +1,42 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.exception.TransferLimitExceededException;
+
+/**
+ * Остаток лимита, рассчитанный по данным БД и учитываемый в памяти в рамках одной операции.
+ */
+final class SnapshotDailyLimitBudget implements DailyLimitBudget {
+
+    static final SnapshotDailyLimitBudget UNLIMITED = new SnapshotDailyLimitBudget(LimitWindow.DAILY, null, Money.ZERO);
+
+    private final LimitWindow window;
+    private final Money limit;
+    private long spent;
+
+    SnapshotDailyLimitBudget(LimitWindow window, Money limit, Money spent) {
+        this.window = window;
+        this.limit = limit;
+        this.spent = spent.minorUnits();
+    }
+
+    @Override
+    public void reserve(Money amount) {
+        if (limit == null) {
+            return;
+        }
+        long total = Math.addExact(spent, amount.minorUnits());
+        if (total > limit.minorUnits()) {
+            String message = String.format("%s transfer limit of %s exceeded", window.label(), limit);
+            throw new TransferLimitExceededException(message, limit.toBigDecimal());
+        }
+        spent = total;
+    }
+
+    @Override
+    public void release(Money amount) {
+        if (limit != null) {
+            spent -= amount.minorUnits();
+        }
+    }
+}
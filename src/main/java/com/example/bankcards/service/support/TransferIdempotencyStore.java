@@ -0,0 +1,137 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.DuplicateResourceException;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.example.bankcards.util.mapper.CardTransferMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Хранилище ответов на запросы перевода с ключом идемпотентности.
+ * <p>
+ * Ответы хранятся в таблице {@code transfer_idempotency_keys}, перед ней стоит
+ * ограниченный по размеру и времени жизни кэш. Одновременные запросы с одним ключом
+ * ожидают результата первого из них и не выполняют перевод повторно. Ключи хранятся
+ * {@link TransferProperties.Idempotency#getRetention()} и затем удаляются
+ * {@link TransferIdempotencySweeper}: повтор запроса с удалённым ключом выполнит новый перевод.
+ */
+@Component
+public class TransferIdempotencyStore {
+
+    private final TransferIdempotencyKeyRepository repository;
+    private final CardTransferMapper cardTransferMapper;
+    private final Cache<Key, StoredResponse> cache;
+    private final ConcurrentMap<Key, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public TransferIdempotencyStore(TransferIdempotencyKeyRepository repository,
+                                    CardTransferMapper cardTransferMapper,
+                                    TransferProperties transferProperties,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.cardTransferMapper = cardTransferMapper;
+        TransferProperties.Idempotency properties = transferProperties.getIdempotency();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transfer.idempotency");
+    }
+
+    /**
+     * Возвращает сохранённый ответ по ключу или выполняет перевод. Действие должно
+     * сохранить ключ через {@link #record} в транзакции перевода.
+     *
+     * @throws DuplicateResourceException если ключ уже использован для другого запроса
+     */
+    public CardTransferDto execute(Long operatorId,
+                                   String idempotencyKey,
+                                   String requestHash,
+                                   Supplier<CardTransferDto> action) {
+        Key key = new Key(operatorId, idempotencyKey);
+        StoredResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.replay(requestHash);
+        }
+        CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running).replay(requestHash);
+        }
+        try {
+            StoredResponse response = findStored(key).orElseGet(() -> executeOnce(key, requestHash, action));
+            cache.put(key, response);
+            own.complete(response);
+            return response.replay(requestHash);
+        } catch (RuntimeException ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Сохраняет ключ идемпотентности для созданного перевода.
+     */
+    public void record(Long operatorId, String idempotencyKey, String requestHash, CardTransfer transfer) {
+        TransferIdempotencyKey entity = new TransferIdempotencyKey();
+        entity.setOperatorId(operatorId);
+        entity.setIdempotencyKey(idempotencyKey);
+        entity.setRequestHash(requestHash);
+        entity.setTransfer(transfer);
+        repository.saveAndFlush(entity);
+    }
+
+    private StoredResponse executeOnce(Key key, String requestHash, Supplier<CardTransferDto> action) {
+        try {
+            return new StoredResponse(requestHash, action.get());
+        } catch (DataIntegrityViolationException ex) {
+            // Ключ успел сохранить параллельный запрос на другом узле, перевод этого запроса откатился
+            return findStored(key).orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<StoredResponse> findStored(Key key) {
+        return repository.findWithTransfer(key.operatorId(), key.idempotencyKey())
+                .map(stored -> new StoredResponse(stored.getRequestHash(), cardTransferMapper.toDto(stored.getTransfer())));
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record Key(Long operatorId, String idempotencyKey) {
+    }
+
+    private record StoredResponse(String requestHash, CardTransferDto transfer) {
+
+        CardTransferDto replay(String expectedHash) {
+            if (!requestHash.equals(expectedHash)) {
+                throw new DuplicateResourceException("Idempotency key has already been used for a different transfer request");
+            }
+            return transfer;
+        }
+    }
+}
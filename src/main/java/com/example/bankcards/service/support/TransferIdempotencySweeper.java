@@ -0,0 +1,95 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Периодически удаляет ключи идемпотентности переводов старше
+ * {@link TransferProperties.Idempotency#getRetention()}.
+ * <p>
+ * Ключи удаляются порциями по {@link TransferProperties.Idempotency#getSweepChunkSize()}, каждая
+ * порция фиксируется в отдельной транзакции. Срок хранения не может быть меньше времени жизни
+ * кэша ответов, иначе кэш отвечал бы по ключу, которого уже нет в БД.
+ */
+@Slf4j
+@Component
+public class TransferIdempotencySweeper {
+
+    private final TransferIdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties.Idempotency properties;
+    private final ScheduledExecutorService scheduler;
+    private final Counter deletedKeys;
+
+    public TransferIdempotencySweeper(TransferIdempotencyKeyRepository repository,
+                                      TransactionTemplate transactionTemplate,
+                                      TransferProperties transferProperties,
+                                      MeterRegistry meterRegistry) {
+        this.properties = transferProperties.getIdempotency();
+        Assert.isTrue(properties.getSweepChunkSize() > 0, "Idempotency key sweep chunk size must be positive");
+        Assert.isTrue(properties.getSweepInterval().toMillis() > 0, "Idempotency key sweep interval must be positive");
+        Assert.isTrue(properties.getRetention().compareTo(properties.getCacheTtl()) >= 0,
+                "Idempotency key retention must not be shorter than the cache TTL");
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("idempotency-sweeper-"));
+        this.deletedKeys = Counter.builder("bank.transfer.idempotency.deleted")
+                .description("Transfer idempotency keys deleted after the retention period")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getSweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Удаляет порции устаревших ключей, пока они не закончатся. Ошибки записываются в журнал,
+     * оставшиеся ключи удаляются при следующем запуске.
+     *
+     * @return количество удалённых ключей
+     */
+    public long sweep() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getRetention());
+        long deleted = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer count = transactionTemplate.execute(
+                        status -> repository.deleteCreatedBefore(createdBefore, properties.getSweepChunkSize()));
+                int chunk = count != null ? count : 0;
+                deletedKeys.increment(chunk);
+                deleted += chunk;
+                if (chunk < properties.getSweepChunkSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Исключение из задачи отменило бы все следующие запуски планировщика
+            log.warn("Idempotency key sweep failed and will be retried", ex);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired transfer idempotency keys", deleted);
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.bankcards.service.support;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.exception.TransferQueueFullException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Очередь асинхронного проведения переводов.
+ * <p>
+ * Задачи распределяются по однопоточным разделам по ID карты-источника, поэтому
+ * переводы одной карты проводятся строго в порядке поступления. Ёмкость каждого
+ * раздела ограничена, при переполнении новые переводы отклоняются.
+ */
+@Component
+public class TransferSettlementQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferSettlementQueue.class);
+
+    private final ExecutorService[] partitions;
+    private final Semaphore[] permits;
+    private final int queueCapacity;
+
+    public TransferSettlementQueue(TransferProperties transferProperties, MeterRegistry meterRegistry) {
+        TransferProperties.Async properties = transferProperties.getAsync();
+        Assert.isTrue(properties.getWorkers() > 0, "Number of settlement workers must be positive");
+        Assert.isTrue(properties.getQueueCapacity() > 0, "Settlement queue capacity must be positive");
+        this.queueCapacity = properties.getQueueCapacity();
+        this.partitions = new ExecutorService[properties.getWorkers()];
+        this.permits = new Semaphore[properties.getWorkers()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("transfer-settlement-" + i + "-"));
+            permits[i] = new Semaphore(queueCapacity);
+        }
+        Gauge.builder("bank.transfer.settlement.queue.size", this, TransferSettlementQueue::size)
+                .description("Transfers waiting for asynchronous settlement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Резервирует место в разделе очереди.
+     *
+     * @throws TransferQueueFullException если раздел переполнен
+     */
+    public Reservation reserve(Long partitionKey) {
+        int index = partitionIndex(partitionKey);
+        if (!permits[index].tryAcquire()) {
+            throw new TransferQueueFullException("Transfer settlement queue is full, retry later");
+        }
+        return new Reservation(index);
+    }
+
+    /**
+     * Ставит задачу в очередь без проверки ёмкости. Используется для возобновления
+     * проведения после перезапуска.
+     */
+    public void dispatch(Long partitionKey, Runnable task) {
+        partitions[partitionIndex(partitionKey)].execute(task);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        for (ExecutorService partition : partitions) {
+            if (!partition.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Transfer settlement worker did not finish in time, pending transfers will be resumed on restart");
+                partition.shutdownNow();
+            }
+        }
+    }
+
+    private int partitionIndex(Long partitionKey) {
+        return Math.floorMod(Long.hashCode(partitionKey), partitions.length);
+    }
+
+    private int size() {
+        int size = 0;
+        for (Semaphore semaphore : permits) {
+            size += queueCapacity - semaphore.availablePermits();
+        }
+        return size;
+    }
+
+    /**
+     * Зарезервированное место в очереди. Освобождается после выполнения задачи,
+     * при откате транзакции или явной отмене.
+     */
+    public final class Reservation {
+
+        private final int index;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Ставит задачу в очередь после фиксации текущей транзакции.
+         */
+        public void dispatchAfterCommit(Runnable task) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(task);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release();
+                    }
+                }
+            });
+        }
+
+        public void cancel() {
+            release();
+        }
+
+        private void dispatch(Runnable task) {
+            if (released.get()) {
+                return;
+            }
+            try {
+                partitions[index].execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                release();
+                log.warn("Transfer settlement queue is shut down, transfer will be resumed on restart");
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits[index].release();
+            }
+        }
+    }
+}
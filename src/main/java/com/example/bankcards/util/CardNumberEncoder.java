@@ -3,10 +3,20 @@ package com.example.bankcards.util;
 import com.example.bankcards.config.properties.EncryptionProperties;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
 import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -14,30 +24,79 @@ import org.springframework.util.Assert;
 
 /**
  * Утилита для шифрования и маскирования номеров карт.
+ * <p>
+ * Номер шифруется AES-GCM со случайным вектором инициализации, поэтому шифртекст нельзя
+ * использовать для поиска. Для поиска по номеру используется HMAC-SHA256 номера
+ * ({@link #hash(String)}) с отдельным ключом.
+ * <p>
+ * Шифртекст начинается с ID ключа и двоеточия, поэтому номера, зашифрованные прежними ключами
+ * из {@link EncryptionProperties#getPreviousKeys()}, расшифровываются до завершения ротации.
+ * Новые номера всегда шифруются текущим ключом. Шифртексты без префикса созданы до введения
+ * версий ключей и расшифровываются ключом с ID {@value #UNVERSIONED_KEY_ID}.
+ * <p>
+ * Созданные шифры и MAC переиспользуются через ограниченные пулы. Пул не привязан к потоку,
+ * поэтому не разрастается при выполнении на виртуальных потоках и не удерживает поток-носитель:
+ * при пустом пуле создаётся новый объект, а лишний объект при возврате в заполненный пул
+ * отбрасывается.
  */
 @Component
 @RequiredArgsConstructor
 public class CardNumberEncoder {
 
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String HASH_ALGORITHM = "HmacSHA256";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+    private static final char KEY_ID_SEPARATOR = ':';
+    private static final Pattern KEY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,16}");
+
+    /**
+     * ID ключа, которым зашифрованы номера без префикса версии.
+     */
+    public static final String UNVERSIONED_KEY_ID = "1";
+
     private final EncryptionProperties properties;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private String keyId;
+    private String keyPrefix;
     private SecretKeySpec secretKeySpec;
+    private SecretKeySpec hashKeySpec;
+    private BlockingQueue<Cipher> ciphers;
+    private BlockingQueue<Mac> macs;
 
     @PostConstruct
     void init() {
         Assert.hasText(properties.getSecretKey(), "Encryption secret key must not be empty");
-        byte[] keyBytes = properties.getSecretKey().getBytes(StandardCharsets.UTF_8);
-        int keyLength = resolveKeyLength(keyBytes.length);
-        byte[] resized = Arrays.copyOf(keyBytes, keyLength);
-        this.secretKeySpec = new SecretKeySpec(resized, "AES");
+        Assert.hasText(properties.getHashKey(), "Card number hash key must not be empty");
+        Assert.isTrue(properties.getCipherPoolSize() > 0, "Cipher pool size must be positive");
+        requireValidKeyId(properties.getKeyId());
+        this.keyId = properties.getKeyId();
+        this.keyPrefix = keyId + KEY_ID_SEPARATOR;
+        this.secretKeySpec = toKeySpec(properties.getSecretKey());
+        keys.clear();
+        properties.getPreviousKeys().forEach((previousKeyId, previousKey) -> {
+            requireValidKeyId(previousKeyId);
+            Assert.isTrue(!previousKeyId.equals(keyId), "Previous encryption keys must not reuse current key id");
+            Assert.hasText(previousKey, "Previous encryption key " + previousKeyId + " must not be empty");
+            keys.put(previousKeyId, toKeySpec(previousKey));
+        });
+        keys.put(keyId, secretKeySpec);
+        this.hashKeySpec = new SecretKeySpec(properties.getHashKey().getBytes(StandardCharsets.UTF_8), HASH_ALGORITHM);
+        this.ciphers = new ArrayBlockingQueue<>(properties.getCipherPoolSize());
+        this.macs = new ArrayBlockingQueue<>(properties.getCipherPoolSize());
     }
 
     public String encrypt(String plainCardNumber) {
         Assert.hasText(plainCardNumber, "Card number must not be empty");
+        Cipher cipher = borrowCipher();
         try {
-            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-            byte[] encrypted = cipher.doFinal(plainCardNumber.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encrypted);
+            byte[] input = plainCardNumber.getBytes(StandardCharsets.UTF_8);
+            byte[] output = new byte[IV_LENGTH + input.length + TAG_LENGTH];
+            int length = encrypt(cipher, input, output);
+            ciphers.offer(cipher);
+            return keyPrefix + Base64.getEncoder().encodeToString(Arrays.copyOf(output, length));
         } catch (GeneralSecurityException e) {
             throw new IllegalStateException("Failed to encrypt card number", e);
         }
@@ -45,17 +104,141 @@ public class CardNumberEncoder {
 
     public String decrypt(String encryptedCardNumber) {
         Assert.hasText(encryptedCardNumber, "Encrypted card number must not be empty");
+        int separator = encryptedCardNumber.indexOf(KEY_ID_SEPARATOR);
+        SecretKeySpec key = keyFor(encryptedCardNumber, separator);
+        Cipher cipher = borrowCipher();
+        try {
+            byte[] decoded = Base64.getDecoder().decode(encryptedCardNumber.substring(separator + 1));
+            byte[] output = new byte[decoded.length];
+            int length = decrypt(cipher, key, decoded, decoded.length, output);
+            ciphers.offer(cipher);
+            return new String(output, 0, length, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt card number", e);
+        }
+    }
+
+    /**
+     * Шифрует номера карт одним шифром и общим буфером результата.
+     *
+     * @return зашифрованные номера в порядке исходного списка
+     */
+    public List<String> encryptAll(List<String> plainCardNumbers) {
+        List<String> result = new ArrayList<>(plainCardNumbers.size());
+        if (plainCardNumbers.isEmpty()) {
+            return result;
+        }
+        Cipher cipher = borrowCipher();
+        try {
+            byte[] output = new byte[0];
+            for (String plainCardNumber : plainCardNumbers) {
+                Assert.hasText(plainCardNumber, "Card number must not be empty");
+                byte[] input = plainCardNumber.getBytes(StandardCharsets.UTF_8);
+                output = ensureCapacity(output, IV_LENGTH + input.length + TAG_LENGTH);
+                int length = encrypt(cipher, input, output);
+                result.add(keyPrefix + Base64.getEncoder().encodeToString(Arrays.copyOf(output, length)));
+            }
+            ciphers.offer(cipher);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt card number", e);
+        }
+    }
+
+    /**
+     * Расшифровывает номера карт одним шифром и общими буферами.
+     *
+     * @return номера карт в порядке исходного списка
+     */
+    public List<String> decryptAll(List<String> encryptedCardNumbers) {
+        List<String> result = new ArrayList<>(encryptedCardNumbers.size());
+        if (encryptedCardNumbers.isEmpty()) {
+            return result;
+        }
+        Cipher cipher = borrowCipher();
+        try {
+            byte[] decoded = new byte[0];
+            byte[] output = new byte[0];
+            for (String encryptedCardNumber : encryptedCardNumbers) {
+                Assert.hasText(encryptedCardNumber, "Encrypted card number must not be empty");
+                int separator = encryptedCardNumber.indexOf(KEY_ID_SEPARATOR);
+                SecretKeySpec key = keyFor(encryptedCardNumber, separator);
+                byte[] encoded = encryptedCardNumber.substring(separator + 1).getBytes(StandardCharsets.ISO_8859_1);
+                decoded = ensureCapacity(decoded, encoded.length);
+                int decodedLength = Base64.getDecoder().decode(encoded, decoded);
+                output = ensureCapacity(output, decodedLength);
+                int length = decrypt(cipher, key, decoded, decodedLength, output);
+                result.add(new String(output, 0, length, StandardCharsets.UTF_8));
+            }
+            ciphers.offer(cipher);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt card number", e);
+        }
+    }
+
+    /**
+     * Расшифровывает номер, зашифрованный прежней схемой AES/ECB. Используется только
+     * для перевода существующих записей на AES-GCM. Такие номера зашифрованы ключом
+     * с ID {@value #UNVERSIONED_KEY_ID}.
+     */
+    public String decryptLegacy(String encryptedCardNumber) {
+        Assert.hasText(encryptedCardNumber, "Encrypted card number must not be empty");
+        SecretKeySpec key = keyFor(encryptedCardNumber, -1);
         try {
-            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
-            byte[] decoded = Base64.getDecoder().decode(encryptedCardNumber);
-            byte[] decrypted = cipher.doFinal(decoded);
+            Cipher cipher = Cipher.getInstance(LEGACY_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key);
+            byte[] decrypted = cipher.doFinal(Base64.getDecoder().decode(encryptedCardNumber));
             return new String(decrypted, StandardCharsets.UTF_8);
         } catch (GeneralSecurityException e) {
             throw new IllegalStateException("Failed to decrypt card number", e);
         }
     }
 
+    /**
+     * Возвращает HMAC-SHA256 номера карты длиной 32 байта для поиска по номеру.
+     */
+    public byte[] hash(String plainCardNumber) {
+        Assert.hasText(plainCardNumber, "Card number must not be empty");
+        Mac mac = borrowMac();
+        byte[] hash = mac.doFinal(plainCardNumber.getBytes(StandardCharsets.UTF_8));
+        macs.offer(mac);
+        return hash;
+    }
+
+    /**
+     * Вычисляет HMAC номеров карт одним экземпляром MAC.
+     *
+     * @return значения в порядке исходного списка
+     */
+    public List<byte[]> hashAll(List<String> plainCardNumbers) {
+        List<byte[]> result = new ArrayList<>(plainCardNumbers.size());
+        if (plainCardNumbers.isEmpty()) {
+            return result;
+        }
+        Mac mac = borrowMac();
+        for (String plainCardNumber : plainCardNumbers) {
+            Assert.hasText(plainCardNumber, "Card number must not be empty");
+            result.add(mac.doFinal(plainCardNumber.getBytes(StandardCharsets.UTF_8)));
+        }
+        macs.offer(mac);
+        return result;
+    }
+
+    /**
+     * @return ID ключа, которым шифруются новые номера
+     */
+    public String currentKeyId() {
+        return keyId;
+    }
+
+    /**
+     * @return начало шифртекстов, зашифрованных текущим ключом
+     */
+    public String currentKeyPrefix() {
+        return keyPrefix;
+    }
+
     public String extractLastDigits(String cardNumber) {
         Assert.hasText(cardNumber, "Card number must not be empty");
         String normalized = cardNumber.replaceAll("\\s", "");
@@ -67,6 +250,89 @@ public class CardNumberEncoder {
         return "**** **** **** " + lastDigits;
     }
 
+    /**
+     * Записывает в {@code output} вектор инициализации и шифртекст с тегом.
+     *
+     * @return длина записанных данных
+     */
+    private int encrypt(Cipher cipher, byte[] input, byte[] output) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, iv));
+        System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+        return IV_LENGTH + cipher.doFinal(input, 0, input.length, output, IV_LENGTH);
+    }
+
+    private int decrypt(Cipher cipher, SecretKeySpec key, byte[] input, int length, byte[] output)
+            throws GeneralSecurityException {
+        if (length < IV_LENGTH + TAG_LENGTH) {
+            throw new IllegalStateException("Encrypted card number is too short");
+        }
+        GCMParameterSpec spec = new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, input, 0, IV_LENGTH);
+        cipher.init(Cipher.DECRYPT_MODE, key, spec);
+        return cipher.doFinal(input, IV_LENGTH, length - IV_LENGTH, output, 0);
+    }
+
+    /**
+     * Возвращает ключ по ID из префикса шифртекста.
+     *
+     * @param separator позиция разделителя после ID ключа или отрицательное значение, если префикса нет
+     * @throws IllegalStateException если ключ с таким ID не настроен
+     */
+    private SecretKeySpec keyFor(String encryptedCardNumber, int separator) {
+        String id = separator < 0 ? UNVERSIONED_KEY_ID : encryptedCardNumber.substring(0, separator);
+        SecretKeySpec key = keys.get(id);
+        if (key == null) {
+            throw new IllegalStateException("Card number is encrypted with unknown key " + id);
+        }
+        return key;
+    }
+
+    private void requireValidKeyId(String id) {
+        Assert.isTrue(id != null && KEY_ID_PATTERN.matcher(id).matches(),
+                "Encryption key id must be 1-16 letters, digits, '_' or '-'");
+    }
+
+    private SecretKeySpec toKeySpec(String secret) {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        return new SecretKeySpec(Arrays.copyOf(keyBytes, resolveKeyLength(keyBytes.length)), "AES");
+    }
+
+    /**
+     * Берёт шифр из пула или создаёт новый. Перед каждой операцией шифр инициализируется
+     * заново, так как GCM требует нового вектора; дорогой поиск реализации при этом не
+     * повторяется. Шифр, на котором произошла ошибка, в пул не возвращается.
+     */
+    private Cipher borrowCipher() {
+        Cipher cipher = ciphers.poll();
+        if (cipher != null) {
+            return cipher;
+        }
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize card number cipher", e);
+        }
+    }
+
+    private Mac borrowMac() {
+        Mac mac = macs.poll();
+        if (mac != null) {
+            return mac;
+        }
+        try {
+            mac = Mac.getInstance(HASH_ALGORITHM);
+            mac.init(hashKeySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize card number hash", e);
+        }
+    }
+
+    private byte[] ensureCapacity(byte[] buffer, int size) {
+        return buffer.length >= size ? buffer : new byte[size];
+    }
+
     private int resolveKeyLength(int currentLength) {
         if (currentLength == 16 || currentLength == 24 || currentLength == 32) {
             return currentLength;
@@ -79,4 +345,4 @@ public class CardNumberEncoder {
         }
         return 32;
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.entity.Money;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Objects;
 
 /**
@@ -11,10 +11,15 @@ public final class ValidationUtils {
 
     private ValidationUtils() {}
 
-    public static BigDecimal normalizeAmount(BigDecimal amount) {
+    public static Money normalizeAmount(BigDecimal amount) {
         Objects.requireNonNull(amount, "Amount must be provided");
-        BigDecimal normalized = amount.setScale(2, RoundingMode.HALF_UP);
-        if (normalized.signum() <= 0) {
+        Money normalized;
+        try {
+            normalized = Money.of(amount);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is too large");
+        }
+        if (!normalized.isPositive()) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
         return normalized;
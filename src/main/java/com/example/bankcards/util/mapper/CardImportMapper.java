@@ -0,0 +1,24 @@
+package com.example.bankcards.util.mapper;
+
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.entity.CardImport;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CardImportMapper {
+
+    public CardImportDto toDto(CardImport cardImport) {
+        if (cardImport == null) {
+            return null;
+        }
+        return new CardImportDto(
+                cardImport.getId(),
+                cardImport.getFormat(),
+                cardImport.getTotalCount(),
+                cardImport.getIssuedCount(),
+                cardImport.getFailedCount(),
+                cardImport.getCreatedAt(),
+                cardImport.getCompletedAt()
+        );
+    }
+}
@@ -2,31 +2,50 @@ package com.example.bankcards.util.mapper;
 
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.service.CardLifecycleService;
 import com.example.bankcards.util.CardNumberEncoder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Маскированный номер строится по {@code last_digits}, поэтому номер карты
+ * при преобразовании не расшифровывается. Статус возвращается с учётом срока действия.
+ */
 @Component
 @RequiredArgsConstructor
 public class CardMapper {
 
     private final CardNumberEncoder cardNumberEncoder;
+    private final CardLifecycleService cardLifecycleService;
 
     public CardDto toDto(Card card) {
         if (card == null) {
             return null;
         }
-        String maskedNumber = null;
-        if (card.getEncryptedNumber() != null) {
-            String decrypted = cardNumberEncoder.decrypt(card.getEncryptedNumber());
-            maskedNumber = cardNumberEncoder.mask(decrypted);
-        }
         return new CardDto(
                 card.getId(),
-                maskedNumber,
+                mask(card.getLastDigits()),
                 card.getExpirationDate(),
-                card.getStatus(),
-                card.getBalance()
+                cardLifecycleService.effectiveStatus(card.getStatus(), card.getExpirationDate()),
+                card.getBalance().toBigDecimal()
+        );
+    }
+
+    public CardDto toDto(CardSummary card) {
+        if (card == null) {
+            return null;
+        }
+        return new CardDto(
+                card.id(),
+                mask(card.lastDigits()),
+                card.expirationDate(),
+                cardLifecycleService.effectiveStatus(card.status(), card.expirationDate()),
+                card.balance().toBigDecimal()
         );
     }
-}
\ No newline at end of file
+
+    private String mask(String lastDigits) {
+        return lastDigits != null ? cardNumberEncoder.mask(lastDigits) : null;
+    }
+}
@@ -15,7 +15,7 @@ public class CardTransferMapper {
                 transfer.getId(),
                 transfer.getFromCard().getId(),
                 transfer.getToCard().getId(),
-                transfer.getAmount(),
+                transfer.getAmount().toBigDecimal(),
                 transfer.getStatus(),
                 transfer.getDescription(),
                 transfer.getCreatedAt()
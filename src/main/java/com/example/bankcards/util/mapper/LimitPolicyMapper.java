@@ -0,0 +1,25 @@
+package com.example.bankcards.util.mapper;
+
+import com.example.bankcards.dto.LimitPolicyDto;
+import com.example.bankcards.entity.TransferLimitPolicy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LimitPolicyMapper {
+
+    public LimitPolicyDto toDto(TransferLimitPolicy policy) {
+        if (policy == null) {
+            return null;
+        }
+        return new LimitPolicyDto(
+                policy.getId(),
+                policy.getScope(),
+                policy.getCard() == null ? null : policy.getCard().getId(),
+                policy.getUser() == null ? null : policy.getUser().getId(),
+                policy.getRole(),
+                policy.getDailyLimit(),
+                policy.getWeeklyLimit(),
+                policy.getMonthlyLimit()
+        );
+    }
+}
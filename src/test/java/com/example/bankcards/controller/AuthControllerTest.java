@@ -10,14 +10,17 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.bankcards.dto.auth.JwtResponseDto;
 import com.example.bankcards.dto.auth.LoginRequestDto;
 import com.example.bankcards.dto.auth.RefreshTokenRequestDto;
+import com.example.bankcards.exception.ServiceOverloadedException;
 import com.example.bankcards.security.service.AuthenticationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -25,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -73,6 +77,20 @@ class AuthControllerTest {
         verify(authenticationService, never()).authenticate(any());
     }
 
+    @Test
+    void login_shouldReturnServiceUnavailableWhenPasswordHashingIsSaturated() throws Exception {
+        when(authenticationService.authenticate(any(LoginRequestDto.class)))
+                .thenThrow(new ServiceOverloadedException("Too many password checks in progress, retry later",
+                        Duration.ofSeconds(2)));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.message", equalTo("Too many password checks in progress, retry later")));
+    }
+
     @Test
     void refresh_shouldReturnTokens() throws Exception {
         RefreshTokenRequestDto request = refreshTokenRequest();
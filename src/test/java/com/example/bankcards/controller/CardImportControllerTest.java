@@ -0,0 +1,98 @@
+package com.example.bankcards.controller;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.bankcards.controller.support.OperatorContextResolver;
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.example.bankcards.exception.AccessDeniedException;
+import com.example.bankcards.service.CardImportService;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(CardImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(OperatorContextResolver.class)
+class CardImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CardImportService cardImportService;
+
+    @Test
+    void importCsv_shouldReturnCreatedImport() throws Exception {
+        when(cardImportService.importCards(eq(10L), eq(CardImportFormat.CSV), any(InputStream.class)))
+                .thenReturn(cardImport());
+
+        mockMvc.perform(post("/api/cards/imports")
+                        .contentType(CardImportController.TEXT_CSV_VALUE)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content("userId,cardNumber,expirationDate,initialBalance\n5,4111222233334444,2030-12-31,0\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", equalTo(3)))
+                .andExpect(jsonPath("$.issued", equalTo(1)))
+                .andExpect(jsonPath("$.failed", equalTo(1)));
+    }
+
+    @Test
+    void importNdjson_shouldReturnForbiddenForNonAdmin() throws Exception {
+        when(cardImportService.importCards(eq(11L), eq(CardImportFormat.NDJSON), any(InputStream.class)))
+                .thenThrow(new AccessDeniedException("User 11 cannot import cards"));
+
+        mockMvc.perform(post("/api/cards/imports")
+                        .contentType(CardImportController.APPLICATION_NDJSON_VALUE)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "11")
+                        .content("{\"userId\":5}\n"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message", equalTo("User 11 cannot import cards")));
+    }
+
+    @Test
+    void downloadErrors_shouldStreamCsvReport() throws Exception {
+        when(cardImportService.getImport(10L, 3L)).thenReturn(cardImport());
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("line,error\n4,\"Invalid userId\"\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(cardImportService).writeErrorReport(eq(3L), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/cards/imports/3/errors")
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"card-import-3-errors.csv\""))
+                .andExpect(content().string("line,error\n4,\"Invalid userId\"\n"));
+    }
+
+    private static CardImportDto cardImport() {
+        LocalDateTime now = LocalDateTime.now();
+        return new CardImportDto(3L, CardImportFormat.CSV, 2, 1, 1, now, now);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.controller;
+
+import static com.example.bankcards.testutil.TestDataFactory.cardLimitPolicyDto;
+import static com.example.bankcards.testutil.TestDataFactory.createCardLimitPolicyRequest;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.bankcards.controller.support.OperatorContextResolver;
+import com.example.bankcards.dto.CreateLimitPolicyRequestDto;
+import com.example.bankcards.dto.UpdateLimitPolicyRequestDto;
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.exception.AccessDeniedException;
+import com.example.bankcards.exception.InvalidLimitPolicyException;
+import com.example.bankcards.service.LimitPolicyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(LimitPolicyController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(OperatorContextResolver.class)
+class LimitPolicyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private LimitPolicyService limitPolicyService;
+
+    @Test
+    void getPolicies_shouldReturnList() throws Exception {
+        when(limitPolicyService.getPolicies(1L)).thenReturn(List.of(cardLimitPolicyDto(5L, 7L)));
+
+        mockMvc.perform(get("/api/limit-policies")
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].cardId", equalTo(7)));
+    }
+
+    @Test
+    void createPolicy_shouldReturnCreatedPolicy() throws Exception {
+        when(limitPolicyService.createPolicy(eq(1L), any(CreateLimitPolicyRequestDto.class)))
+                .thenReturn(cardLimitPolicyDto(5L, 7L));
+
+        mockMvc.perform(post("/api/limit-policies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1")
+                        .content(objectMapper.writeValueAsString(createCardLimitPolicyRequest(7L))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", equalTo(5)))
+                .andExpect(jsonPath("$.scope", equalTo("CARD")));
+    }
+
+    @Test
+    void createPolicy_shouldRejectNonPositiveLimit() throws Exception {
+        CreateLimitPolicyRequestDto request = new CreateLimitPolicyRequestDto(
+                LimitPolicyScope.CARD, 7L, null, null, BigDecimal.ZERO, null, null);
+
+        mockMvc.perform(post("/api/limit-policies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createPolicy_shouldReturnUnprocessableEntityForMismatchedTarget() throws Exception {
+        when(limitPolicyService.createPolicy(eq(1L), any(CreateLimitPolicyRequestDto.class)))
+                .thenThrow(new InvalidLimitPolicyException("Policy of this scope must specify only cardId"));
+
+        mockMvc.perform(post("/api/limit-policies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1")
+                        .content(objectMapper.writeValueAsString(createCardLimitPolicyRequest(7L))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void updatePolicy_shouldReturnUpdatedPolicy() throws Exception {
+        UpdateLimitPolicyRequestDto request = new UpdateLimitPolicyRequestDto(BigDecimal.valueOf(300), BigDecimal.valueOf(1500), null);
+        when(limitPolicyService.updatePolicy(eq(1L), eq(5L), any(UpdateLimitPolicyRequestDto.class)))
+                .thenReturn(cardLimitPolicyDto(5L, 7L));
+
+        mockMvc.perform(put("/api/limit-policies/5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weeklyLimit", equalTo(1500)));
+    }
+
+    @Test
+    void deletePolicy_shouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/limit-policies/5")
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "1"))
+                .andExpect(status().isNoContent());
+
+        verify(limitPolicyService).deletePolicy(1L, 5L);
+    }
+
+    @Test
+    void deletePolicy_shouldReturnForbiddenForNonAdmin() throws Exception {
+        doThrow(new AccessDeniedException("User 2 cannot manage limit policies"))
+                .when(limitPolicyService).deletePolicy(2L, 5L);
+
+        mockMvc.perform(delete("/api/limit-policies/5")
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "2"))
+                .andExpect(status().isForbidden());
+    }
+}
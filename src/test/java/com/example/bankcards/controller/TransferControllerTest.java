@@ -1,5 +1,7 @@
 package com.example.bankcards.controller;
 
+import static com.example.bankcards.testutil.TestDataFactory.batchTransferRequest;
+import static com.example.bankcards.testutil.TestDataFactory.batchTransferResult;
 import static com.example.bankcards.testutil.TestDataFactory.cardTransferDto;
 import static com.example.bankcards.testutil.TestDataFactory.dailyLimit;
 import static com.example.bankcards.testutil.TestDataFactory.transferList;
@@ -7,6 +9,7 @@ import static com.example.bankcards.testutil.TestDataFactory.transferRequest;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -15,14 +18,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.bankcards.controller.support.OperatorContextResolver;
+import com.example.bankcards.dto.BatchTransferRequestDto;
 import com.example.bankcards.dto.CardTransferDto;
 import com.example.bankcards.dto.CardTransferRequestDto;
 import com.example.bankcards.dto.DailyLimitDto;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.TransferQueueFullException;
 import com.example.bankcards.service.TransferLimitService;
 import com.example.bankcards.service.TransferService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -63,6 +71,20 @@ class TransferControllerTest {
                 .andExpect(jsonPath("$.id", equalTo(1)));
     }
 
+    @Test
+    void transfer_shouldPassIdempotencyKeyToService() throws Exception {
+        when(transferService.transfer(eq(10L), any(CardTransferRequestDto.class), eq("retry-1")))
+                .thenReturn(cardTransferDto(1L));
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .header(TransferController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                        .content(objectMapper.writeValueAsString(transferRequest())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", equalTo(1)));
+    }
+
     @Test
     void transfer_shouldReturnBusinessErrorWhenInsufficientFunds() throws Exception {
         when(transferService.transfer(eq(10L), any(CardTransferRequestDto.class)))
@@ -76,6 +98,67 @@ class TransferControllerTest {
                 .andExpect(jsonPath("$.message", equalTo("Not enough funds")));
     }
 
+    @Test
+    void submitTransfer_shouldReturnAcceptedPendingTransfer() throws Exception {
+        CardTransferDto response = cardTransferDto(1L, TransferStatus.PENDING);
+        when(transferService.submitTransfer(eq(10L), any(CardTransferRequestDto.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(transferRequest())))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", equalTo(1)))
+                .andExpect(jsonPath("$.status", equalTo("PENDING")));
+    }
+
+    @Test
+    void submitTransfer_shouldReturnTooManyRequestsWhenQueueIsFull() throws Exception {
+        when(transferService.submitTransfer(eq(10L), any(CardTransferRequestDto.class)))
+                .thenThrow(new TransferQueueFullException("Transfer settlement queue is full, retry later"));
+
+        mockMvc.perform(post("/api/transfers/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(transferRequest())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message", equalTo("Transfer settlement queue is full, retry later")));
+    }
+
+    @Test
+    void getTransfer_shouldReturnTransferStatus() throws Exception {
+        when(transferService.getTransfer(10L, 1L)).thenReturn(cardTransferDto(1L, TransferStatus.COMPLETED));
+
+        mockMvc.perform(get("/api/transfers/1")
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", equalTo("COMPLETED")));
+    }
+
+    @Test
+    void transferBatch_shouldReturnPerItemResults() throws Exception {
+        when(transferService.transferBatch(eq(10L), anyList())).thenReturn(batchTransferResult());
+
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(batchTransferRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed", equalTo(1)))
+                .andExpect(jsonPath("$.failed", equalTo(1)))
+                .andExpect(jsonPath("$.items[1].status", equalTo("FAILED")))
+                .andExpect(jsonPath("$.items[1].failureReason", equalTo("Not enough funds to perform transfer")));
+    }
+
+    @Test
+    void transferBatch_shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getTransfers_shouldReturnList() throws Exception {
         when(transferService.getTransfersForCard(eq(10L), eq(5L))).thenReturn(transferList());
@@ -89,12 +172,12 @@ class TransferControllerTest {
     @Test
     void getDailyLimit_shouldReturnRemainingLimit() throws Exception {
         DailyLimitDto response = dailyLimit(BigDecimal.valueOf(2500));
-        when(transferLimitService.getRemainingDailyLimit(5L)).thenReturn(response.remaining());
+        when(transferLimitService.getRemainingDailyLimit(5L)).thenReturn(Money.of(response.remaining()));
 
         mockMvc.perform(get("/api/cards/5/limits/daily")
                         .header(OperatorContextResolver.OPERATOR_HEADER, "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.remaining", equalTo(2500)));
+                .andExpect(jsonPath("$.remaining", equalTo(2500.0)));
     }
 
     @Test
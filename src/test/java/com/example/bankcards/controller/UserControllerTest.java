@@ -16,9 +16,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.bankcards.controller.support.OperatorContextResolver;
 import com.example.bankcards.dto.CreateUserRequestDto;
 import com.example.bankcards.dto.UpdateUserRolesRequestDto;
 import com.example.bankcards.dto.UpdateUserStatusRequestDto;
+import com.example.bankcards.dto.UpdateUsersStatusRequestDto;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.entity.enums.RoleType;
 import com.example.bankcards.entity.enums.UserStatus;
@@ -33,11 +35,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(UserController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(OperatorContextResolver.class)
 class UserControllerTest {
 
     @Autowired
@@ -113,6 +117,32 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.username", equalTo("john.doe")));
     }
 
+    @Test
+    void updateStatuses_shouldReturnUpdatedUsers() throws Exception {
+        UpdateUsersStatusRequestDto request = new UpdateUsersStatusRequestDto(Set.of(1L, 2L), UserStatus.BLOCKED);
+        when(userService.updateStatuses(eq(10L), eq(Set.of(1L, 2L)), eq(UserStatus.BLOCKED)))
+                .thenReturn(List.of(createUserDto(1L), createUserDto(2L)));
+
+        mockMvc.perform(patch("/api/users/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", equalTo(2)));
+    }
+
+    @Test
+    void updateStatuses_shouldRejectEmptyUserList() throws Exception {
+        UpdateUsersStatusRequestDto request = new UpdateUsersStatusRequestDto(Set.of(), UserStatus.ACTIVE);
+
+        mockMvc.perform(patch("/api/users/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(OperatorContextResolver.OPERATOR_HEADER, "10")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateRoles_shouldReturnUpdatedUser() throws Exception {
         UpdateUserRolesRequestDto request = updateUserRolesRequest(Set.of(RoleType.ADMIN));
@@ -0,0 +1,97 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Сумма переводов за день при проверке лимита ({@code sumLimit*}) и проверка достаточности баланса
+ * при списании ({@code debit*}) на {@link Money} и на {@link BigDecimal}, как это считалось до
+ * перехода на минорные единицы. Время указывается на один перевод. Объём выделяемой памяти
+ * показывает {@code org.openjdk.jmh.Main MoneyBenchmark -prof gc}, запущенный с тестовым classpath.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=MoneyBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final int TRANSFERS = 1_000;
+
+    private Money[] amounts;
+    private BigDecimal[] decimalAmounts;
+    private Money balance;
+    private BigDecimal decimalBalance;
+
+    @Setup
+    public void setUp() {
+        amounts = new Money[TRANSFERS];
+        decimalAmounts = new BigDecimal[TRANSFERS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < TRANSFERS; i++) {
+            long minorUnits = random.nextLong(1, 1_000_000);
+            amounts[i] = Money.ofMinorUnits(minorUnits);
+            decimalAmounts[i] = BigDecimal.valueOf(minorUnits, 2);
+        }
+        balance = Money.of("5000.00");
+        decimalBalance = new BigDecimal("5000.00");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public Money sumLimitMoney() {
+        Money total = Money.ZERO;
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public BigDecimal sumLimitBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimalAmounts) {
+            total = total.add(amount);
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void debitMoney(Blackhole blackhole) {
+        for (Money amount : amounts) {
+            if (!balance.isLessThan(amount)) {
+                blackhole.consume(balance.minus(amount));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public void debitBigDecimal(Blackhole blackhole) {
+        for (BigDecimal amount : decimalAmounts) {
+            BigDecimal normalized = amount.setScale(2, RoundingMode.HALF_UP);
+            if (decimalBalance.compareTo(normalized) >= 0) {
+                blackhole.consume(decimalBalance.subtract(normalized));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void of_shouldStoreAmountInMinorUnits() {
+        assertThat(Money.of(new BigDecimal("1234.5")).minorUnits()).isEqualTo(123450);
+        assertThat(Money.of("0.01").minorUnits()).isEqualTo(1);
+        assertThat(Money.of(BigDecimal.ZERO)).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void of_shouldRoundAmountWithMoreThanTwoFractionalDigits() {
+        assertThat(Money.of("10.005")).isEqualTo(Money.ofMinorUnits(1001));
+        assertThat(Money.of("10.004")).isEqualTo(Money.ofMinorUnits(1000));
+        assertThat(Money.of("-10.005")).isEqualTo(Money.ofMinorUnits(-1001));
+    }
+
+    @Test
+    void of_shouldRejectAmountOutsideOfLongRange() {
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE, 2).add(new BigDecimal("0.01"));
+
+        assertThat(Money.of(BigDecimal.valueOf(Long.MAX_VALUE, 2)).minorUnits()).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> Money.of(tooLarge)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(tooLarge.negate().subtract(new BigDecimal("0.01"))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arithmetic_shouldThrowOnOverflow() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE);
+        Money min = Money.ofMinorUnits(Long.MIN_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinorUnits(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> min.minus(Money.ofMinorUnits(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(min::negate).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arithmetic_shouldWorkOnMinorUnits() {
+        Money balance = Money.of("100.10");
+
+        assertThat(balance.minus(Money.of("0.20"))).isEqualTo(Money.of("99.90"));
+        assertThat(balance.plus(Money.of("0.90"))).isEqualTo(Money.of("101.00"));
+        assertThat(balance.negate()).isEqualTo(Money.of("-100.10"));
+        assertThat(balance.isPositive()).isTrue();
+        assertThat(Money.ZERO.isPositive()).isFalse();
+        assertThat(balance.isLessThan(Money.of("100.11"))).isTrue();
+        assertThat(balance.isGreaterThan(Money.of("100.10"))).isFalse();
+        assertThat(balance.min(Money.ZERO)).isEqualTo(Money.ZERO);
+        assertThat(balance.max(Money.ZERO)).isEqualTo(balance);
+    }
+
+    @Test
+    void toBigDecimal_shouldAlwaysUseTwoFractionalDigits() {
+        assertThat(Money.ofMinorUnits(500).toBigDecimal()).isEqualTo(new BigDecimal("5.00"));
+        assertThat(Money.ofMinorUnits(-1).toBigDecimal()).isEqualTo(new BigDecimal("-0.01"));
+        assertThat(Money.ofMinorUnits(123456).toString()).isEqualTo("1234.56");
+    }
+}
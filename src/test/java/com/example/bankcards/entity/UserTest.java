@@ -0,0 +1,25 @@
+package com.example.bankcards.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class UserTest {
+
+    @Test
+    void removeCard_shouldDetachCardFromOwner() {
+        User user = new User();
+        Card keptCard = new Card();
+        keptCard.setId(10L);
+        Card removedCard = new Card();
+        removedCard.setId(11L);
+        user.addCard(keptCard);
+        user.addCard(removedCard);
+
+        user.removeCard(removedCard);
+
+        assertThat(user.getCards()).containsExactly(keptCard);
+        assertThat(keptCard.getOwner()).isSameAs(user);
+        assertThat(removedCard.getOwner()).isNull();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.entity.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bankcards.entity.Money;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyConverterTest {
+
+    private final MoneyConverter converter = new MoneyConverter();
+
+    @Test
+    void convert_shouldRoundTripThroughDatabaseColumn() {
+        Money amount = Money.of("1234.56");
+
+        BigDecimal column = converter.convertToDatabaseColumn(amount);
+
+        assertThat(column).isEqualTo(new BigDecimal("1234.56"));
+        assertThat(converter.convertToEntityAttribute(column)).isEqualTo(amount);
+    }
+
+    @Test
+    void convert_shouldReadNumericColumnWithAnyScale() {
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("10"))).isEqualTo(Money.ofMinorUnits(1000));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("10.5000"))).isEqualTo(Money.ofMinorUnits(1050));
+        assertThat(converter.convertToDatabaseColumn(Money.ofMinorUnits(1000)).scale()).isEqualTo(2);
+    }
+
+    @Test
+    void convert_shouldPassNullThrough() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
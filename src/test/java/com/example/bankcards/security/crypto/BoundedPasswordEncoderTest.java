@@ -0,0 +1,90 @@
+package com.example.bankcards.security.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getPasswordHashing().setThreads(1);
+        properties.getPasswordHashing().setQueueCapacity(1);
+        properties.getPasswordHashing().setRetryAfter(Duration.ofSeconds(3));
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void encode_shouldHashOnDedicatedThread() {
+        release.countDown();
+
+        assertThat(passwordEncoder.encode("Secret123")).startsWith("password-hashing-");
+        assertThat(passwordEncoder.matches("Secret123", "{Secret123}")).isTrue();
+    }
+
+    @Test
+    void matches_shouldFailFastWhenQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.matches("third", "{third}"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting("retryAfter")
+                .isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("bank.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    /**
+     * Возвращает имя потока, на котором выполнено хеширование, и ждёт разрешения завершить его.
+     */
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("{" + rawPassword + "}");
+        }
+    }
+}
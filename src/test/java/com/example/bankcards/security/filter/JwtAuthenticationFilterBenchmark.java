@@ -0,0 +1,122 @@
+package com.example.bankcards.security.filter;
+
+import static org.mockito.Mockito.mock;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.jwt.JwtTokenProvider;
+import com.example.bankcards.security.jwt.TokenVersionRegistry;
+import com.example.bankcards.security.model.UserPrincipal;
+import com.example.bankcards.security.service.BankUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Аутентификация запроса фильтром с токеном из кэша проверенных токенов ({@code hotToken}) и с
+ * токеном, подпись и утверждения которого проверяются заново ({@code coldToken}).
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=JwtAuthenticationFilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    /**
+     * Количество различных токенов для {@code coldToken}; степень двойки.
+     */
+    private static final int COLD_TOKENS = 1 << 16;
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter hotFilter;
+    private JwtAuthenticationFilter coldFilter;
+    private MockHttpServletRequest hotRequest;
+    private MockHttpServletRequest[] coldRequests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider cachingProvider = tokenProvider(10_000);
+        JwtTokenProvider nonCachingProvider = tokenProvider(0);
+        hotFilter = new JwtAuthenticationFilter(cachingProvider);
+        coldFilter = new JwtAuthenticationFilter(nonCachingProvider);
+        hotRequest = request(cachingProvider.createAccessToken(principal(1L)));
+        coldRequests = new MockHttpServletRequest[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldRequests[i] = request(nonCachingProvider.createAccessToken(principal(i + 1L)));
+        }
+    }
+
+    @Benchmark
+    public Authentication hotToken() throws Exception {
+        return authenticate(hotFilter, hotRequest);
+    }
+
+    @Benchmark
+    public Authentication coldToken() throws Exception {
+        return authenticate(coldFilter, coldRequests[next++ & (COLD_TOKENS - 1)]);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtTokenProvider tokenProvider(long tokenCacheSize) {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getJwt().setIssuer("bank-rest");
+        properties.getJwt().setSecret("benchmark-bank-rest-jwt-secret-that-is-long-enough");
+        properties.getJwt().getAccessToken().setTtl(Duration.ofHours(1));
+        properties.getJwt().getRefreshToken().setTtl(Duration.ofDays(7));
+        properties.getJwt().getTokenCache().setSize(tokenCacheSize);
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(mock(UserRepository.class),
+                mock(PlatformTransactionManager.class), properties);
+        JwtTokenProvider provider = new JwtTokenProvider(properties, mock(BankUserDetailsService.class),
+                tokenVersionRegistry, new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static UserPrincipal principal(Long id) {
+        return new UserPrincipal(id, "user" + id, "encoded", List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                true, true, true, true, UserStatus.ACTIVE, Set.of(RoleType.USER), 0);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
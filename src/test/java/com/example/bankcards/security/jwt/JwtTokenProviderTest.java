@@ -0,0 +1,236 @@
+package com.example.bankcards.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.TokenVersionRow;
+import com.example.bankcards.security.exception.JwtAuthenticationException;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.security.model.UserPrincipal;
+import com.example.bankcards.security.service.BankUserDetailsService;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.service.support.LimitPolicyResolver;
+import com.example.bankcards.util.mapper.UserMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenProviderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BankUserDetailsService userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = tokenProvider(securityProperties());
+    }
+
+    @Test
+    void getAuthentication_shouldAuthenticateFromClaimsWithoutLoadingUser() {
+        String token = tokenProvider.createAccessToken(principal(Set.of(RoleType.ADMIN), 0));
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("john.doe");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(OperatorContext.of(principal).hasRole(RoleType.ADMIN)).isTrue();
+        verifyNoInteractions(userRepository, userDetailsService);
+    }
+
+    @Test
+    void getAuthentication_shouldRejectTokenRightAfterBlocking() {
+        User user = new User();
+        user.setId(1L);
+        user.addRole(new Role(RoleType.USER));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findTokenVersionsByIdIn(List.of(1L))).thenReturn(List.of(row(1L, 1)));
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(RoleRepository.class),
+                mock(CardRepository.class), mock(UserAccessService.class), new UserMapper(),
+                mock(PasswordEncoder.class), mock(LimitPolicyResolver.class), userDetailsService,
+                tokenVersionRegistry);
+        String token = tokenProvider.createAccessToken(principal(Set.of(RoleType.USER), 0));
+        assertThat(tokenProvider.getAuthentication(token).isAuthenticated()).isTrue();
+
+        userService.updateStatus(1L, UserStatus.BLOCKED);
+
+        assertThatThrownBy(() -> tokenProvider.getAuthentication(token))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Token has been revoked");
+    }
+
+    @Test
+    void getAuthentication_shouldVerifyRepeatedTokenOnce() {
+        String token = tokenProvider.createAccessToken(principal(Set.of(RoleType.USER), 0));
+
+        Authentication first = tokenProvider.getAuthentication(token);
+        Authentication second = tokenProvider.getAuthentication(token);
+
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "security.jwt").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getAuthentication_shouldRejectCachedTokenAfterExpiration() throws InterruptedException {
+        SecurityProperties properties = securityProperties();
+        properties.getJwt().getAccessToken().setTtl(Duration.ofSeconds(1));
+        JwtTokenProvider shortLivedProvider = tokenProvider(properties);
+        String token = shortLivedProvider.createAccessToken(principal(Set.of(RoleType.USER), 0));
+        assertThat(shortLivedProvider.getAuthentication(token).isAuthenticated()).isTrue();
+
+        Thread.sleep(1100);
+
+        assertThatThrownBy(() -> shortLivedProvider.getAuthentication(token))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Token expired");
+    }
+
+    @Test
+    void getAuthentication_shouldRejectRefreshToken() {
+        String token = tokenProvider.createRefreshToken(principal(Set.of(RoleType.USER), 0),
+                UUID.randomUUID(), UUID.randomUUID());
+
+        assertThatThrownBy(() -> tokenProvider.getAuthentication(token))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Invalid token type");
+    }
+
+    @Test
+    void currentPrincipal_shouldUseRefreshTokenClaimsWhileVersionIsCurrent() {
+        UUID jti = UUID.randomUUID();
+        UUID familyId = UUID.randomUUID();
+        String token = tokenProvider.createRefreshToken(principal(Set.of(RoleType.USER), 0), jti, familyId);
+
+        JwtTokenProvider.RefreshTokenClaims claims = tokenProvider.parseRefreshToken(token);
+        UserPrincipal principal = tokenProvider.currentPrincipal(claims);
+
+        assertThat(claims.jti()).isEqualTo(jti);
+        assertThat(claims.familyId()).isEqualTo(familyId);
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getRoles()).containsExactly(RoleType.USER);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void currentPrincipal_shouldReloadUserAfterVersionChange() {
+        when(userRepository.findTokenVersionsByIdIn(List.of(1L))).thenReturn(List.of(row(1L, 1)));
+        UserPrincipal reloaded = principal(Set.of(RoleType.ADMIN), 1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(reloaded);
+        String token = tokenProvider.createRefreshToken(principal(Set.of(RoleType.USER), 0),
+                UUID.randomUUID(), UUID.randomUUID());
+        tokenVersionRegistry.versionChanged(List.of(1L));
+
+        UserPrincipal principal = tokenProvider.currentPrincipal(tokenProvider.parseRefreshToken(token));
+
+        assertThat(principal).isSameAs(reloaded);
+    }
+
+    @Test
+    void parseRefreshToken_shouldRejectAccessToken() {
+        String token = tokenProvider.createAccessToken(principal(Set.of(RoleType.USER), 0));
+
+        assertThatThrownBy(() -> tokenProvider.parseRefreshToken(token))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Invalid token type");
+    }
+
+    @Test
+    void parseRefreshToken_shouldRejectTokenIssuedBeforeRotation() {
+        SecurityProperties properties = securityProperties();
+        String legacyToken = Jwts.builder()
+                .setSubject("1")
+                .setIssuer(properties.getJwt().getIssuer())
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                .claim("type", "REFRESH")
+                .claim("username", "john.doe")
+                .claim("ver", 0)
+                .signWith(Keys.hmacShaKeyFor(properties.getJwt().getSecret().getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.forName(properties.getJwt().getAlgorithm()))
+                .compact();
+
+        assertThatThrownBy(() -> tokenProvider.parseRefreshToken(legacyToken))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Token id is missing");
+    }
+
+    private JwtTokenProvider tokenProvider(SecurityProperties properties) {
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository, mock(PlatformTransactionManager.class), properties);
+        JwtTokenProvider provider = new JwtTokenProvider(properties, userDetailsService, tokenVersionRegistry,
+                meterRegistry);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    static TokenVersionRow row(Long id, int tokenVersion) {
+        return new TokenVersionRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public int getTokenVersion() {
+                return tokenVersion;
+            }
+        };
+    }
+
+    private static UserPrincipal principal(Set<RoleType> roles, int tokenVersion) {
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .toList();
+        return new UserPrincipal(1L, "john.doe", "encoded", authorities, true, true, true, true,
+                UserStatus.ACTIVE, roles, tokenVersion);
+    }
+
+    private static SecurityProperties securityProperties() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getJwt().setIssuer("bank-rest");
+        properties.getJwt().setSecret("test-bank-rest-jwt-secret-that-is-long-enough");
+        properties.getJwt().getAccessToken().setTtl(Duration.ofMinutes(15));
+        properties.getJwt().getRefreshToken().setTtl(Duration.ofDays(7));
+        return properties;
+    }
+}
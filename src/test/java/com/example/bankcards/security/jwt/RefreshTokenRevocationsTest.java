@@ -0,0 +1,53 @@
+package com.example.bankcards.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RefreshTokenRevocationsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenRevocations revocations;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getRefreshTokenStore().setRevocationCacheSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        revocations = new RefreshTokenRevocations(properties, meterRegistry);
+    }
+
+    @Test
+    void used_shouldKeepNoMoreTokensThanCacheSize() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        for (int i = 0; i < 1000; i++) {
+            revocations.used(UUID.randomUUID(), expiresAt);
+        }
+
+        revocations.compact();
+
+        assertThat(meterRegistry.get("bank.refresh.token.revocations").gauge().value()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "refresh.token.revocations")
+                .functionCounter().count()).isGreaterThanOrEqualTo(990);
+    }
+
+    @Test
+    void revoked_shouldReplaceUsedTokenAndExpireWithIt() {
+        UUID active = UUID.randomUUID();
+        UUID expired = UUID.randomUUID();
+        revocations.used(active, Instant.now().plusSeconds(3600));
+        revocations.revoked(active, Instant.now().plusSeconds(3600));
+        revocations.revoked(expired, Instant.now().minusSeconds(1));
+
+        revocations.compact();
+
+        assertThat(revocations.find(active).familyRevoked()).isTrue();
+        assertThat(revocations.find(expired)).isNull();
+        assertThat(meterRegistry.get("bank.refresh.token.revocations").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bankcards.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenSweeperTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenRevocations revocations;
+    private RefreshTokenSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getRefreshTokenStore().setCompactionChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        revocations = new RefreshTokenRevocations(properties, meterRegistry);
+        sweeper = new RefreshTokenSweeper(refreshTokenRepository, revocations,
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(sweeper, "shutdown");
+    }
+
+    @Test
+    void sweep_shouldDeleteTokensInChunksAndForgetExpiredRevocations() {
+        when(refreshTokenRepository.deleteExpired(any(), eq(2))).thenReturn(2, 1);
+        revocations.used(UUID.randomUUID(), Instant.now().minusSeconds(1));
+        UUID active = UUID.randomUUID();
+        revocations.used(active, Instant.now().plusSeconds(60));
+
+        assertThat(sweeper.sweep()).isEqualTo(3);
+
+        verify(refreshTokenRepository, times(2)).deleteExpired(any(), eq(2));
+        assertThat(meterRegistry.get("bank.refresh.token.deleted").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("bank.refresh.token.revocations").gauge().value()).isEqualTo(1);
+        assertThat(revocations.find(active)).isNotNull();
+    }
+
+    @Test
+    void sweep_shouldNotPropagateUnexpectedErrors() {
+        when(refreshTokenRepository.deleteExpired(any(), eq(2)))
+                .thenReturn(2)
+                .thenThrow(new IllegalStateException("Unexpected"));
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.security.jwt;
+
+import static com.example.bankcards.security.jwt.JwtTokenProviderTest.row;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenVersionRegistry(userRepository, mock(PlatformTransactionManager.class),
+                new SecurityProperties());
+    }
+
+    @Test
+    void load_shouldKeepChangedVersionsAndDefaultOthersToInitialVersion() {
+        long largeId = Integer.MAX_VALUE + 10L;
+        when(userRepository.findChangedTokenVersions()).thenReturn(List.of(row(5000L, 3), row(largeId, 2)));
+
+        ReflectionTestUtils.invokeMethod(registry, "load");
+
+        assertThat(registry.currentVersion(5000L)).isEqualTo(3);
+        assertThat(registry.currentVersion(largeId)).isEqualTo(2);
+        assertThat(registry.currentVersion(7L)).isZero();
+        assertThat(registry.currentVersion(1_000_000_000L)).isZero();
+    }
+
+    @Test
+    void versionChanged_shouldRevokeTokensUntilTransactionCompletes() {
+        when(userRepository.findTokenVersionsByIdIn(List.of(1L))).thenReturn(List.of(row(1L, 1)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.versionChanged(List.of(1L));
+
+            assertThat(registry.isCurrent(1L, 0)).isFalse();
+            assertThat(registry.isCurrent(1L, 1)).isFalse();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(registry.isCurrent(1L, 1)).isTrue();
+    }
+
+    @Test
+    void refresh_shouldReloadVersionsThatFailedToLoad() {
+        when(userRepository.findTokenVersionsByIdIn(List.of(1L)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(row(1L, 2)));
+        when(userRepository.findChangedTokenVersions()).thenReturn(List.of());
+        ReflectionTestUtils.invokeMethod(registry, "load");
+
+        registry.versionChanged(List.of(1L));
+        assertThat(registry.isCurrent(1L, 2)).isFalse();
+
+        registry.refresh();
+
+        assertThat(registry.isCurrent(1L, 2)).isTrue();
+    }
+
+    @Test
+    void refresh_shouldNotPropagateUnexpectedErrors() {
+        when(userRepository.findChangedTokenVersions()).thenReturn(List.of());
+        ReflectionTestUtils.invokeMethod(registry, "load");
+        when(userRepository.findTokenVersionsUpdatedSince(any())).thenThrow(new IllegalStateException("Unexpected"));
+
+        registry.refresh();
+
+        assertThat(registry.currentVersion(1L)).isZero();
+    }
+}
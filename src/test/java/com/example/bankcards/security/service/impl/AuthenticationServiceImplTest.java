@@ -8,10 +8,14 @@ import static org.mockito.Mockito.when;
 import com.example.bankcards.dto.auth.JwtResponseDto;
 import com.example.bankcards.dto.auth.LoginRequestDto;
 import com.example.bankcards.dto.auth.RefreshTokenRequestDto;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
 import com.example.bankcards.security.model.UserPrincipal;
+import com.example.bankcards.security.service.RefreshTokenService;
 import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +35,9 @@ class AuthenticationServiceImplTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -38,7 +45,8 @@ class AuthenticationServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        principal = new UserPrincipal(1L, "john.doe", "encoded", List.of(), true, true, true, true);
+        principal = new UserPrincipal(1L, "john.doe", "encoded", List.of(), true, true, true, true,
+                UserStatus.ACTIVE, Set.of(RoleType.USER), 0);
     }
 
     @Test
@@ -47,7 +55,7 @@ class AuthenticationServiceImplTest {
         Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
         when(jwtTokenProvider.createAccessToken(principal)).thenReturn("access-token");
-        when(jwtTokenProvider.createRefreshToken(principal)).thenReturn("refresh-token");
+        when(refreshTokenService.issue(principal)).thenReturn("refresh-token");
         when(jwtTokenProvider.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(15));
         when(jwtTokenProvider.getRefreshTokenTtl()).thenReturn(Duration.ofDays(7));
 
@@ -57,15 +65,15 @@ class AuthenticationServiceImplTest {
         assertThat(response.accessToken()).isEqualTo("access-token");
         assertThat(response.refreshToken()).isEqualTo("refresh-token");
         verify(jwtTokenProvider).createAccessToken(principal);
-        verify(jwtTokenProvider).createRefreshToken(principal);
+        verify(refreshTokenService).issue(principal);
     }
 
     @Test
     void refreshToken_shouldReturnNewTokens() {
         RefreshTokenRequestDto request = new RefreshTokenRequestDto("refresh-token");
-        when(jwtTokenProvider.getUserFromRefreshToken(request.refreshToken())).thenReturn(principal);
+        when(refreshTokenService.rotate(request.refreshToken()))
+                .thenReturn(new RefreshTokenService.Rotation(principal, "new-refresh"));
         when(jwtTokenProvider.createAccessToken(principal)).thenReturn("new-access");
-        when(jwtTokenProvider.createRefreshToken(principal)).thenReturn("new-refresh");
         when(jwtTokenProvider.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(15));
         when(jwtTokenProvider.getRefreshTokenTtl()).thenReturn(Duration.ofDays(7));
 
@@ -73,6 +81,6 @@ class AuthenticationServiceImplTest {
 
         assertThat(response.accessToken()).isEqualTo("new-access");
         assertThat(response.refreshToken()).isEqualTo("new-refresh");
-        verify(jwtTokenProvider).getUserFromRefreshToken(request.refreshToken());
+        verify(refreshTokenService).rotate(request.refreshToken());
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.bankcards.security.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.model.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class BankUserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BankUserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new BankUserDetailsServiceImpl(userRepository, securityProperties(), meterRegistry);
+    }
+
+    @Test
+    void loadUserById_shouldCachePrincipalAndCountHits() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(UserStatus.ACTIVE)));
+
+        UserPrincipal first = userDetailsService.loadUserById(1L);
+        UserPrincipal second = userDetailsService.loadUserById(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userRepository, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "security.principal").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "security.principal").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserById_shouldNotCacheMissingUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(user(UserStatus.ACTIVE)));
+
+        assertThatThrownBy(() -> userDetailsService.loadUserById(1L)).isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(userDetailsService.loadUserById(1L).getId()).isEqualTo(1L);
+    }
+
+    private static User user(UserStatus status) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("john.doe");
+        user.setPassword("encoded");
+        user.setStatus(status);
+        user.addRole(new Role(RoleType.USER));
+        return user;
+    }
+
+    private static SecurityProperties securityProperties() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getJwt().setIssuer("bank-rest");
+        properties.getJwt().setSecret("test-bank-rest-jwt-secret-that-is-long-enough");
+        properties.getJwt().getAccessToken().setTtl(Duration.ofMinutes(15));
+        properties.getJwt().getRefreshToken().setTtl(Duration.ofDays(7));
+        return properties;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.bankcards.security.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.SecurityProperties;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.projection.RefreshTokenRow;
+import com.example.bankcards.security.exception.JwtAuthenticationException;
+import com.example.bankcards.security.jwt.JwtTokenProvider;
+import com.example.bankcards.security.jwt.RefreshTokenRevocations;
+import com.example.bankcards.security.model.UserPrincipal;
+import com.example.bankcards.security.service.RefreshTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenServiceImpl refreshTokenService;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RefreshTokenRevocations revocations = new RefreshTokenRevocations(new SecurityProperties(), meterRegistry);
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, revocations, jwtTokenProvider,
+                meterRegistry);
+        principal = new UserPrincipal(1L, "john.doe", null, List.of(), true, true, true, true,
+                UserStatus.ACTIVE, Set.of(RoleType.USER), 0);
+    }
+
+    @Test
+    void rotate_shouldMarkTokenUsedAndIssueNextTokenOfSameFamily() {
+        JwtTokenProvider.RefreshTokenClaims claims = claims("refresh-token", UUID.randomUUID());
+        when(jwtTokenProvider.currentPrincipal(claims)).thenReturn(principal);
+        when(refreshTokenRepository.markUsed(eq(claims.jti()), any())).thenReturn(1);
+        when(jwtTokenProvider.getRefreshTokenTtl()).thenReturn(Duration.ofDays(7));
+        when(jwtTokenProvider.createRefreshToken(eq(principal), any(), eq(claims.familyId()))).thenReturn("next-token");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("refresh-token");
+
+        assertThat(rotation.principal()).isSameAs(principal);
+        assertThat(rotation.refreshToken()).isEqualTo("next-token");
+        verify(refreshTokenRepository).insertToken(any(), eq(1L), eq(claims.familyId()), any(), any());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenUsedTokenIsPresentedAgain() {
+        JwtTokenProvider.RefreshTokenClaims claims = claims("refresh-token", UUID.randomUUID());
+        when(jwtTokenProvider.currentPrincipal(claims)).thenReturn(principal);
+        when(refreshTokenRepository.markUsed(eq(claims.jti()), any())).thenReturn(1);
+        when(jwtTokenProvider.getRefreshTokenTtl()).thenReturn(Duration.ofDays(7));
+        refreshTokenService.rotate("refresh-token");
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("refresh-token"))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Refresh token has already been used");
+
+        verify(refreshTokenRepository).markUsed(eq(claims.jti()), any());
+        verify(refreshTokenRepository).revokeFamily(eq(claims.familyId()), any());
+        assertThat(meterRegistry.get("bank.refresh.token.reused").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenTokenWasUsedByAnotherInstance() {
+        JwtTokenProvider.RefreshTokenClaims claims = claims("refresh-token", UUID.randomUUID());
+        when(jwtTokenProvider.currentPrincipal(claims)).thenReturn(principal);
+        when(refreshTokenRepository.markUsed(eq(claims.jti()), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("refresh-token"))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Refresh token has already been used");
+
+        verify(refreshTokenRepository).revokeFamily(eq(claims.familyId()), any());
+        verify(refreshTokenRepository, never()).insertToken(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rotate_shouldRejectRevokedFamilyMemberWithoutQueries() {
+        UUID familyId = UUID.randomUUID();
+        JwtTokenProvider.RefreshTokenClaims reused = claims("reused-token", familyId);
+        JwtTokenProvider.RefreshTokenClaims latest = claims("latest-token", familyId);
+        when(jwtTokenProvider.currentPrincipal(reused)).thenReturn(principal);
+        when(refreshTokenRepository.markUsed(eq(reused.jti()), any())).thenReturn(0);
+        when(refreshTokenRepository.findByFamilyId(familyId)).thenReturn(List.of(row(reused), row(latest)));
+        assertThatThrownBy(() -> refreshTokenService.rotate("reused-token"))
+                .isInstanceOf(JwtAuthenticationException.class);
+        verify(refreshTokenRepository).markUsed(eq(reused.jti()), any());
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+        verify(refreshTokenRepository).findByFamilyId(familyId);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("latest-token"))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("Refresh token has been revoked");
+
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    private JwtTokenProvider.RefreshTokenClaims claims(String token, UUID familyId) {
+        JwtTokenProvider.RefreshTokenClaims claims = new JwtTokenProvider.RefreshTokenClaims(UUID.randomUUID(),
+                familyId, Instant.now().plus(Duration.ofDays(7)), principal);
+        when(jwtTokenProvider.parseRefreshToken(token)).thenReturn(claims);
+        return claims;
+    }
+
+    private static RefreshTokenRow row(JwtTokenProvider.RefreshTokenClaims claims) {
+        return new RefreshTokenRow() {
+            @Override
+            public UUID getJti() {
+                return claims.jti();
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return LocalDateTime.now().plusDays(7);
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.bankcards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.CardImportProperties;
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.dto.CardImportDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardImport;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.AccessDeniedException;
+import com.example.bankcards.repository.CardImportRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardImportError;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.util.CardNumberEncoder;
+import com.example.bankcards.util.mapper.CardImportMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CardImportServiceImplTest {
+
+    private static final String EXPIRATION = LocalDate.now().plusYears(2).toString();
+
+    @Mock
+    private CardImportRepository cardImportRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserAccessService userAccessService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardNumberEncoder encoder;
+    private CardImportServiceImpl service;
+    private OperatorContext admin;
+
+    @BeforeEach
+    void setUp() {
+        EncryptionProperties encryptionProperties = new EncryptionProperties();
+        encryptionProperties.setSecretKey("super-secret-key-123");
+        encryptionProperties.setHashKey("card-number-hash-key");
+        encoder = new CardNumberEncoder(encryptionProperties);
+        ReflectionTestUtils.invokeMethod(encoder, "init");
+        CardImportProperties properties = new CardImportProperties();
+        properties.setChunkSize(3);
+        properties.setParallelism(2);
+        service = new CardImportServiceImpl(cardImportRepository, cardRepository, userRepository, userAccessService,
+                encoder, new CardImportMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), new TransactionTemplate(transactionManager), properties);
+        admin = new OperatorContext(1L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCards_shouldIssueValidLinesInChunksAndRecordErrors() throws Exception {
+        when(userAccessService.requireActiveOperator(1L)).thenReturn(admin);
+        when(userAccessService.isAdmin(admin)).thenReturn(true);
+        CardImport saved = new CardImport();
+        saved.setId(7L);
+        when(cardImportRepository.save(any(CardImport.class))).thenReturn(saved);
+        when(cardImportRepository.findById(7L)).thenReturn(Optional.of(saved));
+        when(userRepository.findIdsByIdInAndStatus(anyCollection(), eq(UserStatus.ACTIVE))).thenReturn(List.of(5L));
+        when(userRepository.getReferenceById(5L)).thenReturn(user(5L));
+        when(cardRepository.findExistingNumberHashes(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(encoder.hash("4000000000000001")));
+        when(cardRepository.insertAllSkippingDuplicates(any()))
+                .thenReturn(new boolean[]{true})
+                .thenReturn(new boolean[]{true})
+                .thenReturn(new boolean[]{false});
+        String csv = String.join("\n",
+                "userId,cardNumber,expirationDate,initialBalance",
+                "5,4111222233334444," + EXPIRATION + ",100.00",
+                "6,5500000000000004," + EXPIRATION + ",1.00",
+                "5,123," + EXPIRATION + ",1.00",
+                "5,4000000000000001," + EXPIRATION + ",1.00",
+                "5,4000000000000002," + EXPIRATION + ",1.00",
+                "5,4000000000000002," + EXPIRATION + ",1.00",
+                "5,4000000000000003," + EXPIRATION + ",1.00");
+
+        CardImportDto result = service.importCards(1L, CardImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.id()).isEqualTo(7L);
+        assertThat(result.completedAt()).isNotNull();
+        ArgumentCaptor<List<Card>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(cardRepository, times(3)).insertAllSkippingDuplicates(inserted.capture());
+        Card first = inserted.getAllValues().get(0).get(0);
+        assertThat(encoder.decrypt(first.getEncryptedNumber())).isEqualTo("4111222233334444");
+        assertThat(first.getNumberHash()).isEqualTo(encoder.hash("4111222233334444"));
+        assertThat(first.getLastDigits()).isEqualTo("4444");
+        assertThat(inserted.getAllValues().get(1)).extracting(Card::getLastDigits).containsExactly("0002");
+        assertThat(inserted.getAllValues().get(2)).extracting(Card::getLastDigits).containsExactly("0003");
+
+        ArgumentCaptor<List<CardImportError>> errors = ArgumentCaptor.forClass(List.class);
+        verify(cardImportRepository, times(3)).insertErrors(eq(7L), errors.capture());
+        assertThat(errors.getAllValues().get(0)).extracting(CardImportError::lineNumber).containsExactly(3L, 4L);
+        assertThat(errors.getAllValues().get(0).get(0).message()).isEqualTo("User 6 not found or not active");
+        assertThat(errors.getAllValues().get(0).get(1).message())
+                .isEqualTo("cardNumber: Card number must contain exactly 16 digits");
+        assertThat(errors.getAllValues().get(1)).containsExactly(
+                new CardImportError(5L, "Card already exists for provided number"),
+                new CardImportError(7L, "Card already exists for provided number"));
+        assertThat(errors.getAllValues().get(2)).containsExactly(
+                new CardImportError(8L, "Card already exists for provided number"));
+        verify(cardImportRepository, times(2)).addProgress(7L, 3, 1, 2);
+        verify(cardImportRepository).addProgress(7L, 1, 0, 1);
+    }
+
+    @Test
+    void importCards_shouldRejectNonAdmin() {
+        when(userAccessService.requireActiveOperator(2L)).thenReturn(admin);
+        when(userAccessService.isAdmin(admin)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.importCards(2L, CardImportFormat.CSV, new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(cardImportRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeErrorReport_shouldWriteCsv() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CardImportError> consumer = invocation.getArgument(1);
+            consumer.accept(new CardImportError(3L, "User 6 not found or not active"));
+            consumer.accept(new CardImportError(4L, "Invalid JSON: unexpected \"token\""));
+            return null;
+        }).when(cardImportRepository).forEachError(eq(7L), any(Consumer.class));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        service.writeErrorReport(7L, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("line,error\n"
+                + "3,\"User 6 not found or not active\"\n"
+                + "4,\"Invalid JSON: unexpected \"\"token\"\"\"\n");
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
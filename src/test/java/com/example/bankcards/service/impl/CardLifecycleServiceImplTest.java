@@ -0,0 +1,46 @@
+package com.example.bankcards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CardLifecycleServiceImplTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @InjectMocks
+    private CardLifecycleServiceImpl cardLifecycleService;
+
+    @Test
+    void effectiveStatus_shouldTreatActiveAndBlockedCardsPastExpirationAsExpired() {
+        LocalDate today = LocalDate.now();
+
+        assertThat(cardLifecycleService.effectiveStatus(CardStatus.ACTIVE, today)).isEqualTo(CardStatus.EXPIRED);
+        assertThat(cardLifecycleService.effectiveStatus(CardStatus.BLOCKED, today.minusDays(1)))
+                .isEqualTo(CardStatus.EXPIRED);
+        assertThat(cardLifecycleService.effectiveStatus(CardStatus.CLOSED, today)).isEqualTo(CardStatus.CLOSED);
+        assertThat(cardLifecycleService.effectiveStatus(CardStatus.ACTIVE, today.plusDays(1)))
+                .isEqualTo(CardStatus.ACTIVE);
+    }
+
+    @Test
+    void refreshExpiration_shouldMarkCardWithoutSaving() {
+        Card card = new Card();
+        card.setStatus(CardStatus.ACTIVE);
+        card.setExpirationDate(LocalDate.now().minusDays(1));
+
+        assertThat(cardLifecycleService.refreshExpiration(card).getStatus()).isEqualTo(CardStatus.EXPIRED);
+        verifyNoInteractions(cardRepository);
+    }
+}
@@ -5,19 +5,37 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.example.bankcards.config.properties.TransferProperties;
-import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.TransferLimitPolicy;
+import com.example.bankcards.entity.enums.LimitPolicyScope;
 import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardDailySpendRepository;
 import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.repository.TransferLimitPolicyRepository;
+import com.example.bankcards.repository.projection.TransferSpendEntry;
+import com.example.bankcards.repository.projection.TransferSpendTotals;
+import com.example.bankcards.service.support.DailyLimitBudget;
+import com.example.bankcards.service.support.DailySpendLedger;
+import com.example.bankcards.service.support.DailySpendTable;
+import com.example.bankcards.service.support.LimitPolicyResolver;
+import com.example.bankcards.service.support.RollingSpendLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -28,6 +46,12 @@ class TransferLimitServiceImplTest {
     @Mock
     private CardTransferRepository cardTransferRepository;
 
+    @Mock
+    private CardDailySpendRepository cardDailySpendRepository;
+
+    @Mock
+    private TransferLimitPolicyRepository transferLimitPolicyRepository;
+
     private TransferProperties transferProperties;
 
     @InjectMocks
@@ -36,25 +60,31 @@ class TransferLimitServiceImplTest {
     @BeforeEach
     void setUp() {
         transferProperties = new TransferProperties();
-        transferLimitService = new TransferLimitServiceImpl(cardTransferRepository, transferProperties);
+        transferLimitService = new TransferLimitServiceImpl(
+                cardTransferRepository,
+                transferProperties,
+                new DailySpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry()),
+                new DailySpendTable(cardDailySpendRepository),
+                new LimitPolicyResolver(transferLimitPolicyRepository, transferProperties, new SimpleMeterRegistry()),
+                new RollingSpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry()));
     }
 
     @Test
     void validateDailyLimit_shouldPassWhenLimitNotExceeded() {
-        mockTransfers(BigDecimal.valueOf(200), TransferStatus.COMPLETED);
+        mockDailySpent(Money.of("200"));
         transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
 
-        transferLimitService.validateDailyLimit(1L, BigDecimal.valueOf(100));
+        transferLimitService.validateDailyLimit(1L, Money.of("100"));
 
-        verify(cardTransferRepository).findAllByFromCardIdAndCreatedAtBetween(eq(1L), any(), any());
+        verify(cardTransferRepository).sumOutgoingAmount(eq(1L), any(), any(), any());
     }
 
     @Test
     void validateDailyLimit_shouldThrowWhenLimitExceeded() {
-        mockTransfers(BigDecimal.valueOf(400), TransferStatus.COMPLETED);
+        mockDailySpent(Money.of("400"));
         transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
 
-        assertThatThrownBy(() -> transferLimitService.validateDailyLimit(1L, BigDecimal.valueOf(200)))
+        assertThatThrownBy(() -> transferLimitService.validateDailyLimit(1L, Money.of("200")))
                 .isInstanceOf(TransferLimitExceededException.class)
                 .hasMessageContaining("Daily transfer limit of 500");
     }
@@ -63,36 +93,227 @@ class TransferLimitServiceImplTest {
     void validateDailyLimit_shouldIgnoreDisabledLimit() {
         transferProperties.getLimit().setDaily(null);
 
-        transferLimitService.validateDailyLimit(1L, BigDecimal.valueOf(100));
+        transferLimitService.validateDailyLimit(1L, Money.of("100"));
+
+        verify(cardTransferRepository, never()).sumOutgoingAmount(any(), any(), any(), any());
+    }
+
+    @Test
+    void openDailyBudget_shouldTrackConsumedAmountsWithoutNewQueries() {
+        mockDailySpent(Money.of("200"));
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+
+        DailyLimitBudget budget = transferLimitService.openDailyBudget(1L);
+        budget.reserve(Money.of("200"));
+
+        assertThatThrownBy(() -> budget.reserve(Money.of("150")))
+                .isInstanceOf(TransferLimitExceededException.class);
+        verify(cardTransferRepository, times(1)).sumOutgoingAmount(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void openDailyBudget_shouldServeRepeatedChecksFromMemoryWhenTrackedInMemory() {
+        mockDailySpent(Money.of("200"));
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.MEMORY);
+
+        transferLimitService.openDailyBudget(1L).reserve(Money.of("100"));
+        transferLimitService.openDailyBudget(1L).reserve(Money.of("150"));
+
+        assertThat(transferLimitService.getRemainingDailyLimit(1L)).isEqualTo(Money.of("50"));
+        assertThatThrownBy(() -> transferLimitService.openDailyBudget(1L).reserve(Money.of("60")))
+                .isInstanceOf(TransferLimitExceededException.class);
+        verify(cardTransferRepository, times(1)).sumOutgoingAmount(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void releaseDailySpend_shouldReturnAmountToLimitWhenTrackedInMemory() {
+        mockDailySpent(Money.ZERO);
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.MEMORY);
+        transferLimitService.openDailyBudget(1L).reserve(Money.of("300"));
+
+        transferLimitService.releaseDailySpend(1L, LocalDateTime.now(), Money.of("300"));
 
-        verify(cardTransferRepository, never()).findAllByFromCardIdAndCreatedAtBetween(any(), any(), any());
+        assertThat(transferLimitService.getRemainingDailyLimit(1L)).isEqualTo(Money.of("500"));
+    }
+
+    @Test
+    void openDailyBudget_shouldReserveInDailySpendTable() {
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.TABLE);
+        when(cardDailySpendRepository.addIfWithinLimit(eq(1L), any(), eq(new BigDecimal("100.00")), eq(new BigDecimal("500.00"))))
+                .thenReturn(1);
+        when(cardDailySpendRepository.addIfWithinLimit(eq(1L), any(), eq(new BigDecimal("450.00")), eq(new BigDecimal("500.00"))))
+                .thenReturn(0);
+
+        DailyLimitBudget budget = transferLimitService.openDailyBudget(1L);
+        budget.reserve(Money.of("100"));
+
+        assertThatThrownBy(() -> budget.reserve(Money.of("450")))
+                .isInstanceOf(TransferLimitExceededException.class);
+        verify(cardTransferRepository, never()).sumOutgoingAmount(any(), any(), any(), any());
+    }
+
+    @Test
+    void getRemainingDailyLimit_shouldReadDailySpendTable() {
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.TABLE);
+        when(cardDailySpendRepository.findSpent(eq(1L), any())).thenReturn(Optional.of(BigDecimal.valueOf(320)));
+
+        assertThat(transferLimitService.getRemainingDailyLimit(1L)).isEqualTo(Money.of("180"));
     }
 
     @Test
     void getRemainingDailyLimit_shouldReturnPositiveValue() {
-        mockTransfers(BigDecimal.valueOf(120), TransferStatus.PENDING);
+        mockDailySpent(Money.of("120"));
         transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
 
-        BigDecimal remaining = transferLimitService.getRemainingDailyLimit(1L);
+        Money remaining = transferLimitService.getRemainingDailyLimit(1L);
 
-        assertThat(remaining).isEqualByComparingTo("380");
+        assertThat(remaining).isEqualTo(Money.of("380"));
+    }
+
+    @Test
+    void calculateDailySpent_shouldCountPendingAndCompletedTransfersOfCurrentDay() {
+        mockDailySpent(Money.ZERO);
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+
+        transferLimitService.getRemainingDailyLimit(1L);
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardTransferRepository).sumOutgoingAmount(
+                eq(1L), eq(EnumSet.of(TransferStatus.PENDING, TransferStatus.COMPLETED)), from.capture(), to.capture());
+        assertThat(from.getValue()).isEqualTo(from.getValue().toLocalDate().atStartOfDay());
+        assertThat(to.getValue()).isEqualTo(from.getValue().plusDays(1));
     }
 
     @Test
     void getRemainingDailyLimit_shouldNotGoBelowZero() {
-        mockTransfers(BigDecimal.valueOf(700), TransferStatus.COMPLETED);
+        mockDailySpent(Money.of("700"));
         transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
 
-        BigDecimal remaining = transferLimitService.getRemainingDailyLimit(1L);
+        Money remaining = transferLimitService.getRemainingDailyLimit(1L);
+
+        assertThat(remaining).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void openDailyBudget_shouldApplyCardPolicyInsteadOfGlobalLimit() {
+        mockDailySpent(Money.of("50"));
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        TransferLimitPolicy policy = new TransferLimitPolicy();
+        policy.setScope(LimitPolicyScope.CARD);
+        policy.setDailyLimit(BigDecimal.valueOf(100));
+        when(transferLimitPolicyRepository.findApplicableToCard(1L)).thenReturn(List.of(policy));
+
+        assertThatThrownBy(() -> transferLimitService.openDailyBudget(1L).reserve(Money.of("60")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessageContaining("Daily transfer limit of 100");
+    }
+
+    @Test
+    void openDailyBudget_shouldCheckLongerWindowsWithSingleQuery() {
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setWeekly(BigDecimal.valueOf(1000));
+        mockWindowSpent(Money.of("100"), Money.of("900"), Money.of("900"));
+
+        DailyLimitBudget budget = transferLimitService.openDailyBudget(1L);
+        budget.reserve(Money.of("100"));
+
+        assertThatThrownBy(() -> budget.reserve(Money.of("1")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessageContaining("Weekly transfer limit of 1000");
+        verify(cardTransferRepository, never()).sumOutgoingAmount(any(), any(), any(), any());
+        verify(cardTransferRepository, times(1))
+                .sumOutgoingAmountByWindow(eq(1L), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void openDailyBudget_shouldReleaseDailyReservationWhenMonthlyLimitExceeded() {
+        mockDailySpent(Money.ZERO);
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(250));
+        transferProperties.getLimit().setMonthly(BigDecimal.valueOf(2000));
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.MEMORY);
+        mockWindowSpent(Money.ZERO, Money.ZERO, Money.of("1900"));
+
+        assertThatThrownBy(() -> transferLimitService.openDailyBudget(1L).reserve(Money.of("200")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessageContaining("Monthly transfer limit of 2000");
+        transferLimitService.openDailyBudget(1L).reserve(Money.of("100"));
+    }
+
+    @Test
+    void getRemainingDailyLimit_shouldReturnSmallestRemainingAcrossWindows() {
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setWeekly(BigDecimal.valueOf(1000));
+        transferProperties.getLimit().setMonthly(BigDecimal.valueOf(3000));
+        mockWindowSpent(Money.of("100"), Money.of("700"), Money.of("2900"));
+
+        assertThat(transferLimitService.getRemainingDailyLimit(1L)).isEqualTo(Money.of("100"));
+    }
+
+    @Test
+    void calculateSpent_shouldScanTransfersFromStartOfLongestLimitedWindow() {
+        transferProperties.getLimit().setWeekly(BigDecimal.valueOf(1000));
+        mockWindowSpent(Money.ZERO, Money.ZERO, Money.ZERO);
+
+        transferLimitService.getRemainingDailyLimit(1L);
+
+        ArgumentCaptor<LocalDateTime> weekStart = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardTransferRepository).sumOutgoingAmountByWindow(
+                eq(1L), any(), any(), weekStart.capture(), any(), from.capture(), any());
+        assertThat(from.getValue()).isEqualTo(weekStart.getValue());
+        assertThat(from.getValue().getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+    }
+
+    @Test
+    void validateDailyLimit_shouldQueryLast24HoursWhenWindowIsRolling() {
+        mockDailySpent(Money.of("450"));
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setDailyWindow(TransferProperties.DailyWindow.ROLLING);
+
+        assertThatThrownBy(() -> transferLimitService.validateDailyLimit(1L, Money.of("100")))
+                .isInstanceOf(TransferLimitExceededException.class);
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardTransferRepository).sumOutgoingAmount(eq(1L), any(), from.capture(), to.capture());
+        assertThat(from.getValue()).isEqualTo(to.getValue().minusDays(1));
+    }
+
+    @Test
+    void openDailyBudget_shouldUseRingBufferWhenWindowIsRollingAndTrackedInMemory() {
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(500));
+        transferProperties.getLimit().setDailyWindow(TransferProperties.DailyWindow.ROLLING);
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.MEMORY);
+        when(cardTransferRepository.findOutgoingSpend(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(new TransferSpendEntry(LocalDateTime.now().minusHours(3), Money.of("400"))));
+
+        transferLimitService.openDailyBudget(1L).reserve(Money.of("50"));
+
+        assertThat(transferLimitService.getRemainingDailyLimit(1L)).isEqualTo(Money.of("50"));
+        verify(cardTransferRepository, times(1)).findOutgoingSpend(eq(1L), any(), any(), any());
+        verify(cardTransferRepository, never()).sumOutgoingAmount(any(), any(), any(), any());
+    }
+
+    @Test
+    void validateConfiguration_shouldRejectRollingWindowWithSpendTable() {
+        transferProperties.getLimit().setDailyWindow(TransferProperties.DailyWindow.ROLLING);
+        transferProperties.getLimit().setSpendTracking(TransferProperties.SpendTracking.TABLE);
+
+        assertThatThrownBy(() -> transferLimitService.validateConfiguration())
+                .isInstanceOf(IllegalStateException.class);
+    }
 
-        assertThat(remaining).isEqualByComparingTo(BigDecimal.ZERO);
+    private void mockWindowSpent(Money daily, Money weekly, Money monthly) {
+        when(cardTransferRepository.sumOutgoingAmountByWindow(eq(1L), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new TransferSpendTotals(daily.toBigDecimal(), weekly.toBigDecimal(), monthly.toBigDecimal()));
     }
 
-    private void mockTransfers(BigDecimal amount, TransferStatus status) {
-        CardTransfer transfer = new CardTransfer();
-        transfer.setAmount(amount);
-        transfer.setStatus(status);
-        when(cardTransferRepository.findAllByFromCardIdAndCreatedAtBetween(eq(1L), any(), any()))
-                .thenReturn(List.of(transfer));
+    private void mockDailySpent(Money spent) {
+        when(cardTransferRepository.sumOutgoingAmount(eq(1L), any(), any(), any())).thenReturn(spent.toBigDecimal());
     }
-}
\ No newline at end of file
+}
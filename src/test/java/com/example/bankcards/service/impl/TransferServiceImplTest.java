@@ -0,0 +1,588 @@
+package com.example.bankcards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.dto.BatchTransferItemDto;
+import com.example.bankcards.dto.BatchTransferResultDto;
+import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.dto.CardTransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.TransferStatus;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.CardInactiveException;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.service.CardLifecycleService;
+import com.example.bankcards.service.NotificationService;
+import com.example.bankcards.service.TransferLimitService;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.support.CardIdResolver;
+import com.example.bankcards.service.support.CardLockManager;
+import com.example.bankcards.service.support.DailyLimitBudget;
+import com.example.bankcards.service.support.TransferIdempotencyStore;
+import com.example.bankcards.service.support.TransferSettlementQueue;
+import com.example.bankcards.util.mapper.CardTransferMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TransferServiceImplTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("15.00");
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardTransferRepository cardTransferRepository;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    @Mock
+    private CardLifecycleService cardLifecycleService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private CardIdResolver cardIdResolver;
+
+    @Mock
+    private UserAccessService userAccessService;
+
+    @Mock
+    private CardLockManager cardLockManager;
+
+    @Mock
+    private TransferSettlementQueue transferSettlementQueue;
+
+    @Mock
+    private TransferIdempotencyStore transferIdempotencyStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DailyLimitBudget budget;
+
+    @Mock
+    private TransferSettlementQueue.Reservation reservation;
+
+    private final AtomicLong transferIds = new AtomicLong(100);
+    private TransferProperties transferProperties;
+    private TransferServiceImpl transferService;
+    private OperatorContext admin;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferService = new TransferServiceImpl(cardRepository, cardTransferRepository, transferLimitService,
+                cardLifecycleService, notificationService, cardIdResolver, new CardTransferMapper(), userAccessService,
+                cardLockManager, transferProperties, new TransactionTemplate(transactionManager),
+                transferSettlementQueue, transferIdempotencyStore);
+        admin = new OperatorContext(1L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN));
+    }
+
+    @Test
+    void transfer_shouldDebitLowerCardIdFirstInAtomicMode() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.debitIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(1);
+        when(cardRepository.creditIfActive(eq(20L), eq(AMOUNT), any())).thenReturn(1);
+
+        CardTransferDto result = transferService.transfer(1L, request(from, to));
+
+        assertThat(result.status()).isEqualTo(TransferStatus.COMPLETED);
+        InOrder updates = inOrder(cardRepository);
+        updates.verify(cardRepository).debitIfActive(eq(10L), eq(AMOUNT), any());
+        updates.verify(cardRepository).creditIfActive(eq(20L), eq(AMOUNT), any());
+        verify(cardRepository, never()).addToBalance(anyLong(), any(), any());
+        verify(cardRepository, never()).findAllByIdInForUpdate(any());
+        assertThat(from.getBalance()).isEqualTo(Money.of("100.00"));
+        assertThat(to.getBalance()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    void transfer_shouldCreditLowerCardIdFirstInAtomicMode() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(20L, "100.00");
+        Card to = card(10L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.creditIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(1);
+        when(cardRepository.debitIfActive(eq(20L), eq(AMOUNT), any())).thenReturn(1);
+
+        CardTransferDto result = transferService.transfer(1L, request(from, to));
+
+        assertThat(result.status()).isEqualTo(TransferStatus.COMPLETED);
+        InOrder updates = inOrder(cardRepository);
+        updates.verify(cardRepository).creditIfActive(eq(10L), eq(AMOUNT), any());
+        updates.verify(cardRepository).debitIfActive(eq(20L), eq(AMOUNT), any());
+        verify(cardRepository, never()).addToBalance(anyLong(), any(), any());
+    }
+
+    @Test
+    void transfer_shouldSaveFailedTransferWhenAtomicDebitIsRejected() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(10L, "5.00");
+        Card to = card(20L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.debitIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(0);
+        when(cardRepository.findStatusById(10L)).thenReturn(Optional.of(CardStatus.ACTIVE));
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        verify(cardRepository, never()).creditIfActive(anyLong(), any(), any());
+        verify(cardRepository, never()).addToBalance(anyLong(), any(), any());
+        verify(budget).release(Money.of(AMOUNT));
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void transfer_shouldReportInactiveCardWhenAtomicDebitIsRejectedForBlockedCard() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.debitIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(0);
+        when(cardRepository.findStatusById(10L)).thenReturn(Optional.of(CardStatus.BLOCKED));
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(CardInactiveException.class)
+                .hasMessage("Card 10 is not active");
+
+        verify(cardRepository, never()).creditIfActive(anyLong(), any(), any());
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void transfer_shouldCompensateDebitWhenAtomicCreditIsRejected() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.debitIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(1);
+        when(cardRepository.creditIfActive(eq(20L), eq(AMOUNT), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(CardInactiveException.class)
+                .hasMessage("Card 20 is not active");
+
+        verify(cardRepository).addToBalance(eq(10L), eq(AMOUNT), any());
+        verify(budget).release(Money.of(AMOUNT));
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void transfer_shouldCompensateCreditWhenAtomicDebitIsRejectedAfterIt() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(20L, "5.00");
+        Card to = card(10L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.creditIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(1);
+        when(cardRepository.debitIfActive(eq(20L), eq(AMOUNT), any())).thenReturn(0);
+        when(cardRepository.findStatusById(20L)).thenReturn(Optional.of(CardStatus.ACTIVE));
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        verify(cardRepository).addToBalance(eq(10L), eq(AMOUNT.negate()), any());
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void transfer_shouldNotDebitWhenAtomicCreditOfLowerCardIsRejected() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card from = card(20L, "100.00");
+        Card to = card(10L, "0.00");
+        stubAtomicTransfer(from, to);
+        when(cardRepository.creditIfActive(eq(10L), eq(AMOUNT), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(CardInactiveException.class);
+
+        verify(cardRepository, never()).debitIfActive(anyLong(), any(), any());
+        verify(cardRepository, never()).addToBalance(anyLong(), any(), any());
+    }
+
+    @Test
+    void transfer_shouldLockCardsAndMoveBalancesInEntityMode() {
+        Card from = card(20L, "100.00");
+        Card to = card(10L, "1.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(to, from));
+
+        CardTransferDto result = transferService.transfer(1L, request(from, to));
+
+        assertThat(result.status()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(from.getBalance()).isEqualTo(Money.of("85.00"));
+        assertThat(to.getBalance()).isEqualTo(Money.of("16.00"));
+        InOrder locks = inOrder(cardLockManager, cardRepository);
+        locks.verify(cardLockManager).lockForTransaction(Set.of(10L, 20L));
+        locks.verify(cardRepository).findAllByIdInForUpdate(Set.of(10L, 20L));
+        verify(cardRepository, never()).debitIfActive(anyLong(), any(), any());
+        verify(cardRepository, never()).creditIfActive(anyLong(), any(), any());
+    }
+
+    @Test
+    void transfer_shouldKeepBalancesWhenFundsAreInsufficientInEntityMode() {
+        Card from = card(10L, "5.00");
+        Card to = card(20L, "0.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(from, to));
+
+        assertThatThrownBy(() -> transferService.transfer(1L, request(from, to)))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(from.getBalance()).isEqualTo(Money.of("5.00"));
+        assertThat(to.getBalance()).isEqualTo(Money.ZERO);
+        verify(budget).release(Money.of(AMOUNT));
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void transferBatch_shouldContinueChunkAfterFailingItem() {
+        Card first = card(10L, "20.00");
+        Card target = card(20L, "0.00");
+        Card second = card(30L, "100.00");
+        stubBatch(first, target, second);
+        when(transferLimitService.openDailyBudget(anyLong())).thenReturn(DailyLimitBudget.unlimited());
+
+        BatchTransferResultDto result = transferService.transferBatch(1L, List.of(
+                request(first, target), request(first, target), request(second, target)));
+
+        assertThat(result.items()).extracting(BatchTransferItemDto::status)
+                .containsExactly(TransferStatus.COMPLETED, TransferStatus.FAILED, TransferStatus.COMPLETED);
+        assertThat(result.items().get(1).failureReason()).isEqualTo("Not enough funds to perform transfer");
+        assertThat(result.items().get(1).transferId()).isNotNull();
+        assertThat(first.getBalance()).isEqualTo(Money.of("5.00"));
+        assertThat(second.getBalance()).isEqualTo(Money.of("85.00"));
+        assertThat(target.getBalance()).isEqualTo(Money.of("30.00"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void transferBatch_shouldLockAllCardsOfChunkInIdOrderInAtomicMode() {
+        transferProperties.setBalanceUpdate(TransferProperties.BalanceUpdateMode.ATOMIC);
+        Card first = card(30L, "100.00");
+        Card second = card(10L, "100.00");
+        Card third = card(20L, "0.00");
+        stubBatch(first, second, third);
+        when(transferLimitService.openDailyBudget(anyLong())).thenReturn(DailyLimitBudget.unlimited());
+        when(cardRepository.debitIfActive(anyLong(), eq(AMOUNT), any())).thenReturn(1);
+        when(cardRepository.creditIfActive(anyLong(), eq(AMOUNT), any())).thenReturn(1);
+
+        BatchTransferResultDto result = transferService.transferBatch(1L, List.of(
+                request(first, second), request(third, first)));
+
+        assertThat(result.completed()).isEqualTo(2);
+        InOrder locks = inOrder(cardLockManager, cardRepository);
+        locks.verify(cardLockManager).lockForTransaction(Set.of(10L, 20L, 30L));
+        locks.verify(cardRepository).findAllByIdInForUpdate(Set.of(10L, 20L, 30L));
+        locks.verify(cardRepository).creditIfActive(eq(10L), eq(AMOUNT), any());
+        verify(cardRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void transferBatch_shouldShareLimitBudgetBetweenItemsOfSameSourceCard() {
+        Card source = card(10L, "100.00");
+        Card target = card(20L, "0.00");
+        stubBatch(source, target);
+        when(transferLimitService.openDailyBudget(10L)).thenReturn(DailyLimitBudget.snapshot(Money.of("40"), Money.ZERO));
+
+        BatchTransferResultDto result = transferService.transferBatch(1L, List.of(
+                request(source, target), request(source, target), request(source, target)));
+
+        assertThat(result.items()).extracting(BatchTransferItemDto::status)
+                .containsExactly(TransferStatus.COMPLETED, TransferStatus.COMPLETED, TransferStatus.FAILED);
+        assertThat(result.items().get(2).failureReason()).isEqualTo("Daily transfer limit of 40.00 exceeded");
+        assertThat(source.getBalance()).isEqualTo(Money.of("70.00"));
+        verify(transferLimitService).openDailyBudget(10L);
+    }
+
+    @Test
+    void transferBatch_shouldSettleEachChunkInSeparateTransaction() {
+        transferProperties.getBatch().setChunkSize(2);
+        Card source = card(10L, "1000.00");
+        Card target = card(20L, "0.00");
+        stubBatch(source, target);
+        when(transferLimitService.openDailyBudget(10L)).thenReturn(DailyLimitBudget.unlimited());
+
+        BatchTransferResultDto result = transferService.transferBatch(1L, List.of(request(source, target),
+                request(source, target), request(source, target), request(source, target), request(source, target)));
+
+        assertThat(result.completed()).isEqualTo(5);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(cardRepository, times(3)).findAllByIdInForUpdate(Set.of(10L, 20L));
+        verify(transferLimitService, times(3)).openDailyBudget(10L);
+    }
+
+    @Test
+    void transferBatch_shouldFailOnlyItemsOfRolledBackChunk() {
+        transferProperties.getBatch().setChunkSize(2);
+        Card source = card(10L, "1000.00");
+        Card target = card(20L, "0.00");
+        stubBatch(source, target);
+        when(transferLimitService.openDailyBudget(10L)).thenReturn(DailyLimitBudget.unlimited());
+        doNothing().doThrow(new TransactionSystemException("Commit failed")).when(transactionManager).commit(any());
+
+        BatchTransferResultDto result = transferService.transferBatch(1L, List.of(request(source, target),
+                request(source, target), request(source, target)));
+
+        assertThat(result.items()).extracting(BatchTransferItemDto::status)
+                .containsExactly(TransferStatus.COMPLETED, TransferStatus.COMPLETED, TransferStatus.FAILED);
+        assertThat(result.items().get(2).transferId()).isNull();
+        assertThat(result.items().get(2).failureReason()).isEqualTo("Batch chunk was rolled back: Commit failed");
+    }
+
+    @Test
+    void submitTransfer_shouldSettlePendingTransferAfterCommit() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(from, to));
+        when(transferSettlementQueue.reserve(10L)).thenReturn(reservation);
+
+        CardTransferDto accepted = transferService.submitTransfer(1L, request(from, to));
+
+        assertThat(accepted.status()).isEqualTo(TransferStatus.PENDING);
+        assertThat(from.getBalance()).isEqualTo(Money.of("100.00"));
+        CardTransfer transfer = savedTransfer();
+        when(cardTransferRepository.findByIdForUpdate(transfer.getId())).thenReturn(Optional.of(transfer));
+        dispatchedTask().run();
+
+        assertThat(transfer.getStatus()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(from.getBalance()).isEqualTo(Money.of("85.00"));
+        assertThat(to.getBalance()).isEqualTo(Money.of("15.00"));
+        verify(notificationService).notifyTransfer(transfer);
+        verify(transferLimitService, never()).releaseDailySpend(any(), any(), any());
+    }
+
+    @Test
+    void submitTransfer_shouldFailPendingTransferAndReleaseLimitWhenSettlementIsRejected() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(from, to));
+        when(transferSettlementQueue.reserve(10L)).thenReturn(reservation);
+        transferService.submitTransfer(1L, request(from, to));
+        CardTransfer transfer = savedTransfer();
+        when(cardTransferRepository.findByIdForUpdate(transfer.getId())).thenReturn(Optional.of(transfer));
+        from.setBalance(Money.of("5.00"));
+
+        dispatchedTask().run();
+
+        assertThat(transfer.getStatus()).isEqualTo(TransferStatus.FAILED);
+        assertThat(from.getBalance()).isEqualTo(Money.of("5.00"));
+        verify(transferLimitService).releaseDailySpend(10L, transfer.getCreatedAt(), Money.of(AMOUNT));
+        verify(notificationService, never()).notifyTransfer(any());
+    }
+
+    @Test
+    void submitTransfer_shouldFailPendingTransferInNewTransactionWhenSettlementThrows() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L)))
+                .thenReturn(List.of(from, to))
+                .thenThrow(new IllegalStateException("Connection reset"));
+        when(transferSettlementQueue.reserve(10L)).thenReturn(reservation);
+        transferService.submitTransfer(1L, request(from, to));
+        CardTransfer transfer = savedTransfer();
+        when(cardTransferRepository.findByIdForUpdate(transfer.getId())).thenReturn(Optional.of(transfer));
+
+        dispatchedTask().run();
+
+        assertThat(transfer.getStatus()).isEqualTo(TransferStatus.FAILED);
+        verify(transactionManager).rollback(any());
+        verify(cardTransferRepository, times(2)).findByIdForUpdate(transfer.getId());
+        verify(transferLimitService).releaseDailySpend(10L, transfer.getCreatedAt(), Money.of(AMOUNT));
+    }
+
+    @Test
+    void submitTransfer_shouldCancelReservationWhenTransferIsRejected() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        stubTransfer(from, to);
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(from, to));
+        when(transferSettlementQueue.reserve(10L)).thenReturn(reservation);
+        doThrow(new TransferLimitExceededException("Daily transfer limit of 10.00 exceeded", BigDecimal.TEN))
+                .when(budget).reserve(Money.of(AMOUNT));
+
+        assertThatThrownBy(() -> transferService.submitTransfer(1L, request(from, to)))
+                .isInstanceOf(TransferLimitExceededException.class);
+
+        verify(reservation).cancel();
+        verify(reservation, never()).dispatchAfterCommit(any());
+        assertThat(savedTransfer().getStatus()).isEqualTo(TransferStatus.FAILED);
+    }
+
+    @Test
+    void resumePendingTransfers_shouldDispatchPendingTransfersBySourceCard() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        CardTransfer pending = pendingTransfer(from, to);
+        when(cardTransferRepository.findAllByStatusOrderByIdAsc(TransferStatus.PENDING)).thenReturn(List.of(pending));
+        when(cardTransferRepository.findByIdForUpdate(pending.getId())).thenReturn(Optional.of(pending));
+        when(cardRepository.findAllByIdInForUpdate(Set.of(10L, 20L))).thenReturn(List.of(from, to));
+        when(cardLifecycleService.effectiveStatus(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        transferService.resumePendingTransfers();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(transferSettlementQueue).dispatch(eq(10L), task.capture());
+        task.getValue().run();
+        assertThat(pending.getStatus()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(from.getBalance()).isEqualTo(Money.of("85.00"));
+    }
+
+    @Test
+    void resumePendingTransfers_shouldSkipTransferSettledMeanwhile() {
+        Card from = card(10L, "100.00");
+        Card to = card(20L, "0.00");
+        CardTransfer pending = pendingTransfer(from, to);
+        when(cardTransferRepository.findAllByStatusOrderByIdAsc(TransferStatus.PENDING)).thenReturn(List.of(pending));
+        CardTransfer settled = pendingTransfer(from, to);
+        settled.setStatus(TransferStatus.COMPLETED);
+        when(cardTransferRepository.findByIdForUpdate(pending.getId())).thenReturn(Optional.of(settled));
+
+        transferService.resumePendingTransfers();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(transferSettlementQueue).dispatch(eq(10L), task.capture());
+        task.getValue().run();
+        verify(cardRepository, never()).findAllByIdInForUpdate(any());
+        assertThat(from.getBalance()).isEqualTo(Money.of("100.00"));
+    }
+
+    private void stubAtomicTransfer(Card from, Card to) {
+        stubTransfer(from, to);
+        when(cardRepository.findAllById(Set.of(from.getId(), to.getId()))).thenReturn(List.of(from, to));
+    }
+
+    private void stubTransfer(Card from, Card to) {
+        when(userAccessService.requireActiveOperator(1L)).thenReturn(admin);
+        when(userAccessService.isAdmin(admin)).thenReturn(true);
+        when(cardIdResolver.resolve(number(from))).thenReturn(Optional.of(from.getId()));
+        when(cardIdResolver.resolve(number(to))).thenReturn(Optional.of(to.getId()));
+        when(cardLifecycleService.effectiveStatus(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transferLimitService.openDailyBudget(from.getId())).thenReturn(budget);
+        when(cardTransferRepository.save(any(CardTransfer.class))).thenAnswer(invocation -> {
+            CardTransfer transfer = invocation.getArgument(0);
+            transfer.setId(transferIds.incrementAndGet());
+            transfer.setCreatedAt(LocalDateTime.now());
+            return transfer;
+        });
+    }
+
+    private void stubBatch(Card... cards) {
+        when(userAccessService.requireActiveOperator(1L)).thenReturn(admin);
+        when(userAccessService.isAdmin(admin)).thenReturn(true);
+        Map<String, Long> ids = new HashMap<>();
+        Map<Long, Card> byId = new HashMap<>();
+        for (Card card : cards) {
+            ids.put(number(card), card.getId());
+            byId.put(card.getId(), card);
+        }
+        when(cardIdResolver.resolveAll(any())).thenReturn(ids);
+        when(cardRepository.findAllByIdInForUpdate(any())).thenAnswer(invocation -> {
+            Collection<Long> requested = invocation.getArgument(0);
+            return requested.stream().map(byId::get).toList();
+        });
+        when(cardLifecycleService.effectiveStatus(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(cardTransferRepository.save(any(CardTransfer.class))).thenAnswer(invocation -> {
+            CardTransfer transfer = invocation.getArgument(0);
+            transfer.setId(transferIds.incrementAndGet());
+            return transfer;
+        });
+    }
+
+    private Runnable dispatchedTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(reservation).dispatchAfterCommit(task.capture());
+        return task.getValue();
+    }
+
+    private CardTransfer pendingTransfer(Card from, Card to) {
+        CardTransfer transfer = new CardTransfer();
+        transfer.setId(transferIds.incrementAndGet());
+        transfer.setFromCard(from);
+        transfer.setToCard(to);
+        transfer.setAmount(Money.of(AMOUNT));
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setCreatedAt(LocalDateTime.now());
+        return transfer;
+    }
+
+    private CardTransfer savedTransfer() {
+        ArgumentCaptor<CardTransfer> captor = ArgumentCaptor.forClass(CardTransfer.class);
+        verify(cardTransferRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static CardTransferRequestDto request(Card from, Card to) {
+        return new CardTransferRequestDto(number(from), number(to), AMOUNT, "Test transfer");
+    }
+
+    private static String number(Card card) {
+        return String.format("4111%012d", card.getId());
+    }
+
+    private static Card card(Long id, String balance) {
+        User owner = new User();
+        owner.setId(id * 100);
+        owner.setStatus(UserStatus.ACTIVE);
+        Card card = new Card();
+        card.setId(id);
+        card.setOwner(owner);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setExpirationDate(LocalDate.now().plusYears(1));
+        card.setBalance(Money.of(balance));
+        return card;
+    }
+}
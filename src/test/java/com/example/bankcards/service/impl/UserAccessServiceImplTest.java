@@ -0,0 +1,111 @@
+package com.example.bankcards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.UserInactiveException;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.filter.JwtAuthenticationFilter;
+import com.example.bankcards.security.jwt.JwtTokenProvider;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.security.model.UserPrincipal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+class UserAccessServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @InjectMocks
+    private UserAccessServiceImpl userAccessService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * В проекте нет тестов с БД, поэтому отсутствие запроса оператора к {@code users} проверяется
+     * по обращениям к репозиторию, а не по количеству SQL-запросов.
+     */
+    @Test
+    void requireActiveOperator_shouldUseAuthenticatedOperatorWithoutQuery() throws Exception {
+        UserPrincipal principal = new UserPrincipal(1L, "admin", "encoded", List.of(), true, true, true, true,
+                UserStatus.ACTIVE, Set.of(RoleType.ADMIN), 0);
+        when(jwtTokenProvider.getAuthentication("token"))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, "token", List.of()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        AtomicReference<OperatorContext> operator = new AtomicReference<>();
+
+        new JwtAuthenticationFilter(jwtTokenProvider).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> operator.set(userAccessService.requireActiveOperator(1L)));
+
+        assertThat(operator.get().id()).isEqualTo(1L);
+        assertThat(userAccessService.isAdmin(operator.get())).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void requireActiveOperator_shouldLoadOperatorDifferentFromAuthenticatedUser() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(OperatorContext.REQUEST_ATTRIBUTE,
+                new OperatorContext(1L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L, UserStatus.ACTIVE)));
+
+        OperatorContext operator = userAccessService.requireActiveOperator(2L);
+
+        assertThat(operator.roles()).containsExactly(RoleType.USER);
+        assertThat(userAccessService.isAdmin(operator)).isFalse();
+        verify(userRepository).findById(2L);
+    }
+
+    @Test
+    void requireActiveOperator_shouldRejectInactiveUser() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L, UserStatus.BLOCKED)));
+
+        assertThatThrownBy(() -> userAccessService.requireActiveOperator(2L))
+                .isInstanceOf(UserInactiveException.class)
+                .hasMessage("User 2 is not active");
+    }
+
+    private static User user(Long id, UserStatus status) {
+        Role role = new Role();
+        role.setName(RoleType.USER);
+        User user = new User();
+        user.setId(id);
+        user.setStatus(status);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
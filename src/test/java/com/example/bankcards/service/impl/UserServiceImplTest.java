@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,11 +17,19 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.entity.enums.RoleType;
 import com.example.bankcards.entity.enums.UserStatus;
+import com.example.bankcards.exception.AccessDeniedException;
 import com.example.bankcards.exception.DuplicateResourceException;
 import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.jwt.TokenVersionRegistry;
+import com.example.bankcards.security.model.OperatorContext;
+import com.example.bankcards.security.service.BankUserDetailsService;
+import com.example.bankcards.service.UserAccessService;
+import com.example.bankcards.service.support.LimitPolicyResolver;
 import com.example.bankcards.util.mapper.UserMapper;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -43,12 +52,27 @@ class UserServiceImplTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private UserAccessService userAccessService;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private LimitPolicyResolver limitPolicyResolver;
+
+    @Mock
+    private BankUserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -173,19 +197,14 @@ class UserServiceImplTest {
     }
 
     @Test
-    void updateStatus_shouldPropagateStatusToCards() {
+    void updateStatus_shouldPropagateStatusToCardsWithBulkUpdate() {
         User user = new User();
         user.setId(1L);
-        Card activeCard = new Card();
-        activeCard.setId(10L);
-        activeCard.setStatus(CardStatus.ACTIVE);
-        activeCard.setOwner(user);
-        Card blockedCard = new Card();
-        blockedCard.setId(11L);
-        blockedCard.setStatus(CardStatus.BLOCKED);
-        blockedCard.setOwner(user);
-        user.addCard(activeCard);
-        user.addCard(blockedCard);
+        user.setStatus(UserStatus.ACTIVE);
+        Card card = new Card();
+        card.setId(10L);
+        card.setStatus(CardStatus.ACTIVE);
+        user.addCard(card);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         UserDto dto = new UserDto(1L, "john.doe@example.com", "john", null, null, UserStatus.BLOCKED, Set.of());
         when(userMapper.toDto(user)).thenReturn(dto);
@@ -193,13 +212,74 @@ class UserServiceImplTest {
         UserDto result = userService.updateStatus(1L, UserStatus.BLOCKED);
 
         assertThat(result).isEqualTo(dto);
-        assertThat(activeCard.getStatus()).isEqualTo(CardStatus.BLOCKED);
-        assertThat(blockedCard.getStatus()).isEqualTo(CardStatus.BLOCKED);
+        assertThat(user.getStatus()).isEqualTo(UserStatus.BLOCKED);
+        verify(userRepository).updateStatusByIdIn(eq(List.of(1L)), eq(UserStatus.BLOCKED), any());
+        verify(cardRepository).updateStatusByOwnerIds(eq(List.of(1L)), eq(EnumSet.of(CardStatus.ACTIVE)),
+                eq(CardStatus.BLOCKED), any());
+        verify(userDetailsService).evictUser(1L);
+        verify(tokenVersionRegistry).versionChanged(List.of(1L));
+        // Карты не загружаются и не изменяются в памяти
+        assertThat(card.getStatus()).isEqualTo(CardStatus.ACTIVE);
+    }
+
+    @Test
+    void updateStatus_shouldCloseAllOpenCardsOfArchivedUser() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.updateStatus(1L, UserStatus.ARCHIVED);
 
-        user.removeCard(blockedCard);
+        verify(cardRepository).updateStatusByOwnerIds(eq(List.of(1L)),
+                eq(EnumSet.of(CardStatus.ACTIVE, CardStatus.BLOCKED, CardStatus.EXPIRED)), eq(CardStatus.CLOSED), any());
+    }
+
+    @Test
+    void updateStatuses_shouldUnblockUsersAndTheirCards() {
+        OperatorContext operator = new OperatorContext(10L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN));
+        User first = new User();
+        first.setId(1L);
+        User second = new User();
+        second.setId(2L);
+        when(userAccessService.requireActiveOperator(10L)).thenReturn(operator);
+        when(userAccessService.isAdmin(operator)).thenReturn(true);
+        when(userRepository.findAllByIdIn(Set.of(1L, 2L))).thenReturn(List.of(second, first));
+        UserDto firstDto = new UserDto(1L, "a@example.com", "a", null, null, UserStatus.ACTIVE, Set.of());
+        UserDto secondDto = new UserDto(2L, "b@example.com", "b", null, null, UserStatus.ACTIVE, Set.of());
+        when(userMapper.toDto(first)).thenReturn(firstDto);
+        when(userMapper.toDto(second)).thenReturn(secondDto);
+
+        List<UserDto> result = userService.updateStatuses(10L, Set.of(1L, 2L), UserStatus.ACTIVE);
+
+        assertThat(result).containsExactly(firstDto, secondDto);
+        verify(userRepository).updateStatusByIdIn(eq(List.of(2L, 1L)), eq(UserStatus.ACTIVE), any());
+        verify(cardRepository).updateStatusByOwnerIds(eq(List.of(2L, 1L)), eq(EnumSet.of(CardStatus.BLOCKED)),
+                eq(CardStatus.ACTIVE), any());
+    }
+
+    @Test
+    void updateStatuses_shouldFailWhenSomeUsersAreMissing() {
+        OperatorContext operator = new OperatorContext(10L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN));
+        User first = new User();
+        first.setId(1L);
+        when(userAccessService.requireActiveOperator(10L)).thenReturn(operator);
+        when(userAccessService.isAdmin(operator)).thenReturn(true);
+        when(userRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(first));
+
+        assertThatThrownBy(() -> userService.updateStatuses(10L, Set.of(1L, 2L, 3L), UserStatus.BLOCKED))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Users not found: [2, 3]");
+        verify(userRepository, never()).updateStatusByIdIn(any(), any(), any());
+    }
+
+    @Test
+    void updateStatuses_shouldRejectNonAdminOperator() {
+        OperatorContext operator = new OperatorContext(10L, UserStatus.ACTIVE, Set.of(RoleType.ADMIN));
+        when(userAccessService.requireActiveOperator(10L)).thenReturn(operator);
 
-        assertThat(user.getCards()).containsExactlyInAnyOrder(activeCard);
-        assertThat(blockedCard.getOwner()).isNull();
+        assertThatThrownBy(() -> userService.updateStatuses(10L, Set.of(1L), UserStatus.BLOCKED))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(userRepository, never()).findAllByIdIn(any());
     }
 
     @Test
@@ -217,6 +297,9 @@ class UserServiceImplTest {
 
         assertThat(result.roles()).containsExactly(RoleType.ADMIN);
         assertThat(user.getRoles()).containsExactly(adminRole);
+        verify(userRepository).incrementTokenVersion(eq(1L), any());
+        verify(userDetailsService).evictUser(1L);
+        verify(tokenVersionRegistry).versionChanged(List.of(1L));
     }
 
     @Test
@@ -0,0 +1,75 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.CardExpirationProperties;
+import com.example.bankcards.service.CardLifecycleService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpirationSweeperTest {
+
+    @Mock
+    private CardLifecycleService cardLifecycleService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpirationSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        CardExpirationProperties properties = new CardExpirationProperties();
+        properties.setChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new CardExpirationSweeper(cardLifecycleService, new TransactionTemplate(transactionManager),
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(sweeper, "shutdown");
+    }
+
+    @Test
+    void sweep_shouldExpireCardsInChunksUntilChunkIsNotFull() {
+        when(cardLifecycleService.expireCards(2)).thenReturn(2, 2, 1);
+
+        assertThat(sweeper.sweep()).isEqualTo(5);
+
+        verify(cardLifecycleService, times(3)).expireCards(2);
+        assertThat(meterRegistry.get("bank.card.expired").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void sweep_shouldStopOnDatabaseErrorAndKeepExpiredCount() {
+        when(cardLifecycleService.expireCards(2))
+                .thenReturn(2)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+
+        assertThat(meterRegistry.get("bank.card.expired").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void sweep_shouldNotPropagateUnexpectedErrors() {
+        when(cardLifecycleService.expireCards(2)).thenThrow(new IllegalStateException("Unexpected"));
+
+        assertThat(sweeper.sweep()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardIdRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class CardIdResolverTest {
+
+    private static final String NUMBER = "4111222233334444";
+    private static final String OTHER_NUMBER = "5500000000000004";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private CardNumberEncoder encoder;
+    private SimpleMeterRegistry meterRegistry;
+    private CardIdResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        EncryptionProperties encryptionProperties = new EncryptionProperties();
+        encryptionProperties.setSecretKey("super-secret-key-123");
+        encryptionProperties.setHashKey("card-number-hash-key");
+        encoder = new CardNumberEncoder(encryptionProperties);
+        ReflectionTestUtils.invokeMethod(encoder, "init");
+        meterRegistry = new SimpleMeterRegistry();
+        resolver = new CardIdResolver(cardRepository, encoder, new TransferProperties(), meterRegistry);
+    }
+
+    @Test
+    void resolve_shouldCacheFoundIdAndCountHits() {
+        when(cardRepository.findIdByNumberHash(any())).thenReturn(Optional.of(7L));
+
+        assertThat(resolver.resolve(NUMBER)).contains(7L);
+        assertThat(resolver.resolve(NUMBER)).contains(7L);
+
+        verify(cardRepository, times(1)).findIdByNumberHash(any());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "transfer.card.id").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "transfer.card.id").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resolve_shouldNotCacheMissingCard() {
+        when(cardRepository.findIdByNumberHash(any())).thenReturn(Optional.empty()).thenReturn(Optional.of(7L));
+
+        assertThat(resolver.resolve(NUMBER)).isEmpty();
+        assertThat(resolver.resolve(NUMBER)).contains(7L);
+    }
+
+    @Test
+    void invalidate_shouldReloadCardId() {
+        when(cardRepository.findIdByNumberHash(any())).thenReturn(Optional.of(7L)).thenReturn(Optional.of(8L));
+        resolver.resolve(NUMBER);
+
+        resolver.invalidate(encoder.hash(NUMBER));
+
+        assertThat(resolver.resolve(NUMBER)).contains(8L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resolveAll_shouldLoadOnlyNumbersMissingInCache() {
+        when(cardRepository.findIdByNumberHash(any())).thenReturn(Optional.of(7L));
+        when(cardRepository.findIdsByNumberHashIn(anyCollection()))
+                .thenReturn(List.of(new CardIdRow(encoder.hash(OTHER_NUMBER), 8L)));
+        resolver.resolve(NUMBER);
+
+        Map<String, Long> ids = resolver.resolveAll(List.of(NUMBER, OTHER_NUMBER, "4000000000000001"));
+
+        assertThat(ids).containsOnly(Map.entry(NUMBER, 7L), Map.entry(OTHER_NUMBER, 8L));
+        ArgumentCaptor<Collection<byte[]>> hashes = ArgumentCaptor.forClass(Collection.class);
+        verify(cardRepository).findIdsByNumberHashIn(hashes.capture());
+        assertThat(hashes.getValue()).hasSize(2);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bankcards.dto.CardImportLineDto;
+import com.example.bankcards.entity.enums.CardImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CardImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void read_shouldParseCsvInChunksAndSkipHeaderAndBlankLines() throws IOException {
+        CardImportReader reader = reader(CardImportFormat.CSV, """
+                userId,cardNumber,expirationDate,initialBalance
+                5,4111222233334444,2030-01-31,100.50
+
+                6, 5500000000000004 ,2031-02-28,0\r
+                7,4000000000000001,31.01.2030,10
+                """);
+
+        List<CardImportReader.Line> first = reader.read(2);
+        List<CardImportReader.Line> second = reader.read(2);
+
+        assertThat(first).extracting(CardImportReader.Line::number).containsExactly(2L, 4L);
+        assertThat(first.get(0).value()).isEqualTo(new CardImportLineDto(5L, "4111222233334444",
+                LocalDate.of(2030, 1, 31), new BigDecimal("100.50")));
+        assertThat(first.get(1).value().cardNumber()).isEqualTo("5500000000000004");
+        assertThat(second).singleElement().satisfies(line -> {
+            assertThat(line.number()).isEqualTo(5L);
+            assertThat(line.error()).isEqualTo("Invalid expirationDate, expected yyyy-MM-dd");
+        });
+        assertThat(reader.read(2)).isEmpty();
+    }
+
+    @Test
+    void read_shouldReportMalformedCsvLines() throws IOException {
+        CardImportReader reader = reader(CardImportFormat.CSV, "x,4111222233334444,2030-01-31,1\n5,4111222233334444\n"
+                + "5,4111222233334444,2030-01-31,ten");
+
+        assertThat(reader.read(10)).extracting(CardImportReader.Line::error).containsExactly(
+                "Invalid userId",
+                "Expected columns: userId,cardNumber,expirationDate,initialBalance",
+                "Invalid initialBalance");
+    }
+
+    @Test
+    void read_shouldParseNdjson() throws IOException {
+        CardImportReader reader = reader(CardImportFormat.NDJSON, """
+                {"userId":5,"cardNumber":"4111222233334444","expirationDate":"2030-01-31","initialBalance":100.50}
+                {"userId":5,"cardNumber":
+                """);
+
+        List<CardImportReader.Line> lines = reader.read(10);
+
+        assertThat(lines.get(0).value()).isEqualTo(new CardImportLineDto(5L, "4111222233334444",
+                LocalDate.of(2030, 1, 31), new BigDecimal("100.50")));
+        assertThat(lines.get(1).error()).startsWith("Invalid JSON");
+    }
+
+    @Test
+    void read_shouldRejectTooLongLineWithoutBufferingIt() throws IOException {
+        String longLine = "5," + "1".repeat(10_000) + ",2030-01-31,1";
+        CardImportReader reader = reader(CardImportFormat.CSV, longLine + "\n5,4111222233334444,2030-01-31,1\n");
+
+        List<CardImportReader.Line> lines = reader.read(10);
+
+        assertThat(lines.get(0).error()).isEqualTo("Line exceeds 1024 characters");
+        assertThat(lines.get(1).number()).isEqualTo(2L);
+        assertThat(lines.get(1).error()).isNull();
+    }
+
+    private CardImportReader reader(CardImportFormat format, String content) {
+        return new CardImportReader(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper);
+    }
+}
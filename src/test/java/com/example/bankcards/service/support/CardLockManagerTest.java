@@ -0,0 +1,133 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.exception.CardLockTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class CardLockManagerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CardLockManagerTest.class);
+
+    private static final int CARDS = 4;
+    private static final int TRANSFERS_PER_CALLER = 2_000;
+    private static final long INITIAL_BALANCE = 1_000_000L;
+
+    private TransferProperties transferProperties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getLock().setTimeout(Duration.ofSeconds(30));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 64})
+    void acquire_shouldKeepBalancesConsistentForOpposingTransfers(int callers) throws Exception {
+        CardLockManager lockManager = new CardLockManager(transferProperties, meterRegistry);
+        long[] balances = new long[CARDS + 1];
+        for (int id = 1; id <= CARDS; id++) {
+            balances[id] = INITIAL_BALANCE;
+        }
+        long[] expectedNet = new long[CARDS + 1];
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int caller = 0; caller < callers; caller++) {
+            long from = caller % CARDS + 1;
+            long to = (caller + 1) % CARDS + 1;
+            boolean reverse = caller % 2 == 1;
+            long source = reverse ? to : from;
+            long target = reverse ? from : to;
+            expectedNet[(int) source] -= TRANSFERS_PER_CALLER;
+            expectedNet[(int) target] += TRANSFERS_PER_CALLER;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_CALLER; i++) {
+                    try (CardLockManager.Lease ignored = lockManager.acquire(List.of(source, target))) {
+                        long sourceBalance = balances[(int) source];
+                        long targetBalance = balances[(int) target];
+                        Thread.yield();
+                        balances[(int) source] = sourceBalance - 1;
+                        balances[(int) target] = targetBalance + 1;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        long total = 0;
+        for (int id = 1; id <= CARDS; id++) {
+            assertThat(balances[id]).isEqualTo(INITIAL_BALANCE + expectedNet[id]);
+            total += balances[id];
+        }
+        assertThat(total).isEqualTo(INITIAL_BALANCE * CARDS);
+        long operations = (long) callers * TRANSFERS_PER_CALLER;
+        log.info("{} callers: {} transfers in {} ms ({} ops/s)",
+                callers, operations, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                operations * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsed, 1));
+        assertThat(meterRegistry.get("bank.transfer.card.lock.wait").timer().count()).isEqualTo(operations);
+    }
+
+    @Test
+    void acquire_shouldFailWhenLockIsNotReleasedInTime() throws Exception {
+        transferProperties.getLock().setTimeout(Duration.ofMillis(50));
+        CardLockManager lockManager = new CardLockManager(transferProperties, meterRegistry);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> {
+            try (CardLockManager.Lease ignored = lockManager.acquire(List.of(1L, 2L))) {
+                locked.countDown();
+                release.await();
+            }
+            return null;
+        });
+        locked.await();
+
+        assertThatThrownBy(() -> lockManager.acquire(List.of(2L, 1L)))
+                .isInstanceOf(CardLockTimeoutException.class);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        try (CardLockManager.Lease lease = lockManager.acquire(List.of(2L, 1L))) {
+            assertThat(lease).isNotNull();
+        }
+    }
+
+    @Test
+    void acquire_shouldAllowSameCardTwice() {
+        CardLockManager lockManager = new CardLockManager(transferProperties, meterRegistry);
+
+        try (CardLockManager.Lease lease = lockManager.acquire(List.of(7L, 7L))) {
+            assertThat(lease).isNotNull();
+        }
+    }
+}
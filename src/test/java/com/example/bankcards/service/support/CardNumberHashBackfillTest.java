@@ -0,0 +1,102 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardNumberRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberHashBackfillTest {
+
+    private static final String SECRET_KEY = "super-secret-key-123";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardNumberEncoder encoder;
+    private CardNumberHashBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setSecretKey(SECRET_KEY);
+        properties.setHashKey("card-number-hash-key");
+        properties.setHashBackfillChunkSize(2);
+        encoder = new CardNumberEncoder(properties);
+        ReflectionTestUtils.invokeMethod(encoder, "init");
+        backfill = new CardNumberHashBackfill(cardRepository, encoder, new TransactionTemplate(transactionManager), properties);
+    }
+
+    @Test
+    void backfill_shouldMigrateCardsInChunksAndSkipUndecryptableNumbers() throws Exception {
+        when(cardRepository.findUnhashedForUpdate(0L, 2)).thenReturn(List.of(
+                row(1L, legacyEncrypt("4111222233334444")),
+                row(2L, "enc-admin-card-1")));
+        when(cardRepository.findUnhashedForUpdate(2L, 2)).thenReturn(List.of(row(5L, legacyEncrypt("5500000000000004"))));
+        when(cardRepository.findUnhashedForUpdate(5L, 2)).thenReturn(List.of());
+
+        int updated = backfill.backfill();
+
+        assertThat(updated).isEqualTo(2);
+        ArgumentCaptor<String> encrypted = ArgumentCaptor.forClass(String.class);
+        verify(cardRepository).updateNumber(eq(1L), encrypted.capture(), eq(encoder.hash("4111222233334444")));
+        assertThat(encoder.decrypt(encrypted.getValue())).isEqualTo("4111222233334444");
+        verify(cardRepository).updateNumber(eq(5L), any(), eq(encoder.hash("5500000000000004")));
+        verify(cardRepository, never()).updateNumber(eq(2L), any(), any());
+    }
+
+    @Test
+    void backfill_shouldDoNothingWhenAllCardsHaveHash() {
+        when(cardRepository.findUnhashedForUpdate(anyLong(), eq(2))).thenReturn(List.of());
+
+        assertThat(backfill.backfill()).isZero();
+        verify(cardRepository, never()).updateNumber(any(), any(), any());
+    }
+
+    private static String legacyEncrypt(String number) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        byte[] key = Arrays.copyOf(SECRET_KEY.getBytes(StandardCharsets.UTF_8), 24);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(number.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static CardNumberRow row(Long id, String encryptedNumber) {
+        return new CardNumberRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEncryptedNumber() {
+                return encryptedNumber;
+            }
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import com.example.bankcards.entity.CardKeyRotation;
+import com.example.bankcards.repository.CardKeyRotationRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardNumberRow;
+import com.example.bankcards.util.CardNumberEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberKeyRotationTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardKeyRotationRepository cardKeyRotationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CardNumberEncoder oldEncoder;
+    private CardNumberEncoder encoder;
+    private SimpleMeterRegistry meterRegistry;
+    private CardNumberKeyRotation rotation;
+
+    @BeforeEach
+    void setUp() {
+        oldEncoder = encoder("1", "old-secret-key-123", Map.of());
+        encoder = encoder("2", "new-secret-key-456", Map.of("1", "old-secret-key-123"));
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.getRotation().setChunkSize(2);
+        properties.getRotation().setPause(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        rotation = new CardNumberKeyRotation(cardRepository, cardKeyRotationRepository, encoder,
+                new TransactionTemplate(transactionManager), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(rotation, "shutdown");
+    }
+
+    @Test
+    void rotate_shouldReencryptCardsInChunksAndSaveProgress() {
+        CardKeyRotation progress = new CardKeyRotation("2");
+        when(cardKeyRotationRepository.findForUpdateSkipLocked("2")).thenReturn(Optional.of(progress));
+        String first = oldEncoder.encrypt("4111222233334444");
+        String second = oldEncoder.encrypt("5500000000000004");
+        when(cardRepository.findEncryptedWithOtherKey(0L, "2:", 2)).thenReturn(List.of(
+                row(1L, first),
+                row(3L, "9:AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=")));
+        when(cardRepository.findEncryptedWithOtherKey(3L, "2:", 2)).thenReturn(List.of(row(4L, second)));
+        when(cardRepository.findEncryptedWithOtherKey(4L, "2:", 2)).thenReturn(List.of());
+        when(cardRepository.replaceEncryptedNumbers(any(), any(), any())).thenReturn(1);
+
+        long rotated = rotation.rotate();
+
+        assertThat(rotated).isEqualTo(2);
+        verify(cardKeyRotationRepository).createIfAbsent("2");
+        ArgumentCaptor<String[]> reencrypted = ArgumentCaptor.forClass(String[].class);
+        verify(cardRepository).replaceEncryptedNumbers(aryEq(new Long[]{1L}), aryEq(new String[]{first}),
+                reencrypted.capture());
+        verify(cardRepository).replaceEncryptedNumbers(aryEq(new Long[]{4L}), aryEq(new String[]{second}),
+                reencrypted.capture());
+        assertThat(reencrypted.getAllValues().get(0)).singleElement().asString().startsWith("2:");
+        assertThat(encoder.decrypt(reencrypted.getAllValues().get(0)[0])).isEqualTo("4111222233334444");
+        assertThat(progress.getLastCardId()).isEqualTo(4L);
+        assertThat(progress.getRotatedCount()).isEqualTo(2);
+        assertThat(progress.getSkippedCount()).isEqualTo(1);
+        assertThat(progress.isCompleted()).isTrue();
+        assertThat(meterRegistry.get("bank.card.key.rotation.cards").tag("result", "rotated").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("bank.card.key.rotation.cards").tag("result", "skipped").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("bank.card.key.rotation.completed").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_shouldResumeAfterSavedCard() {
+        CardKeyRotation progress = new CardKeyRotation("2");
+        progress.setLastCardId(10L);
+        when(cardKeyRotationRepository.findForUpdateSkipLocked("2")).thenReturn(Optional.of(progress));
+        when(cardRepository.findEncryptedWithOtherKey(10L, "2:", 2)).thenReturn(List.of());
+
+        assertThat(rotation.rotate()).isZero();
+
+        verify(cardRepository, never()).findEncryptedWithOtherKey(eq(0L), any(), anyInt());
+        assertThat(progress.isCompleted()).isTrue();
+    }
+
+    @Test
+    void rotate_shouldWaitWhileAnotherInstanceHoldsProgress() {
+        CardKeyRotation progress = new CardKeyRotation("2");
+        progress.setCompletedAt(LocalDateTime.now());
+        when(cardKeyRotationRepository.findForUpdateSkipLocked("2"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(progress));
+
+        assertThat(rotation.rotate()).isZero();
+
+        verify(cardRepository, never()).findEncryptedWithOtherKey(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void rotate_shouldRetryChunkAfterUnexpectedError() {
+        CardKeyRotation progress = new CardKeyRotation("2");
+        when(cardKeyRotationRepository.findForUpdateSkipLocked("2")).thenReturn(Optional.of(progress));
+        when(cardRepository.findEncryptedWithOtherKey(0L, "2:", 2))
+                .thenThrow(new NullPointerException("Unexpected"))
+                .thenReturn(List.of());
+
+        assertThat(rotation.rotate()).isZero();
+
+        verify(cardRepository, times(2)).findEncryptedWithOtherKey(0L, "2:", 2);
+        assertThat(progress.isCompleted()).isTrue();
+        assertThat(meterRegistry.get("bank.card.key.rotation.completed").gauge().value()).isEqualTo(1);
+    }
+
+    private static CardNumberEncoder encoder(String keyId, String secretKey, Map<String, String> previousKeys) {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setSecretKey(secretKey);
+        properties.setKeyId(keyId);
+        properties.setPreviousKeys(previousKeys);
+        properties.setHashKey("card-number-hash-key");
+        CardNumberEncoder encoder = new CardNumberEncoder(properties);
+        ReflectionTestUtils.invokeMethod(encoder, "init");
+        return encoder;
+    }
+
+    private static CardNumberRow row(Long id, String encryptedNumber) {
+        return new CardNumberRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEncryptedNumber() {
+                return encryptedNumber;
+            }
+        };
+    }
+}
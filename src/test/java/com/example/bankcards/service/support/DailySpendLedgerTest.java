@@ -0,0 +1,145 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardTransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class DailySpendLedgerTest {
+
+    private static final Money LIMIT = Money.of("1000.00");
+
+    @Mock
+    private CardTransferRepository cardTransferRepository;
+
+    private TransferProperties transferProperties;
+    private DailySpendLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        ledger = new DailySpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry());
+        when(cardTransferRepository.sumOutgoingAmount(eq(1L), any(), any(), any())).thenReturn(new BigDecimal("100.50"));
+    }
+
+    @Test
+    void openBudget_shouldNeverExceedLimitUnderConcurrentReservations() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int caller = 0; caller < callers; caller++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int reserved = 0;
+                for (int i = 0; i < 100; i++) {
+                    try {
+                        ledger.openBudget(1L, LIMIT).reserve(Money.of("0.99"));
+                        reserved++;
+                    } catch (TransferLimitExceededException ex) {
+                        // лимит исчерпан
+                    }
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(total).isEqualTo(908);
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("999.42"));
+    }
+
+    @Test
+    void openBudget_shouldReleaseReservationsWhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            DailyLimitBudget budget = ledger.openBudget(1L, LIMIT);
+            budget.reserve(Money.of("300.00"));
+            budget.reserve(Money.of("200.00"));
+            budget.release(Money.of("200.00"));
+            assertThat(ledger.spent(1L)).isEqualTo(Money.of("400.50"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("100.50"));
+    }
+
+    @Test
+    void openBudget_shouldRejectAmountAboveRemainingLimit() {
+        DailyLimitBudget budget = ledger.openBudget(1L, LIMIT);
+
+        assertThatThrownBy(() -> budget.reserve(Money.of("899.51")))
+                .isInstanceOf(TransferLimitExceededException.class)
+                .hasMessageContaining("Daily transfer limit of 1000.00");
+        budget.reserve(Money.of("899.50"));
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("1000.00"));
+    }
+
+    @Test
+    void spent_shouldReloadCounterRemovedFromCache() {
+        transferProperties.getLimit().setSpendCacheTtl(Duration.ZERO);
+        ledger = new DailySpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry());
+
+        ledger.openBudget(1L, LIMIT).reserve(Money.of("50.00"));
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("100.50"));
+        verify(cardTransferRepository, times(2)).sumOutgoingAmount(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void openBudget_shouldKeepReservationsOfOpenTransactionWhenCounterIsRemovedFromCache() {
+        transferProperties.getLimit().setSpendCacheTtl(Duration.ZERO);
+        ledger = new DailySpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.openBudget(1L, LIMIT).reserve(Money.of("800.00"));
+
+            assertThatThrownBy(() -> ledger.openBudget(1L, LIMIT).reserve(Money.of("200.00")))
+                    .isInstanceOf(TransferLimitExceededException.class);
+            assertThat(ledger.spent(1L)).isEqualTo(Money.of("900.50"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("100.50"));
+        verify(cardTransferRepository, times(2)).sumOutgoingAmount(eq(1L), any(), any(), any());
+    }
+}
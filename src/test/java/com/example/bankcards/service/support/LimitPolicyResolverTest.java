@@ -0,0 +1,91 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.TransferLimitPolicy;
+import com.example.bankcards.entity.enums.LimitPolicyScope;
+import com.example.bankcards.entity.enums.RoleType;
+import com.example.bankcards.repository.TransferLimitPolicyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LimitPolicyResolverTest {
+
+    @Mock
+    private TransferLimitPolicyRepository transferLimitPolicyRepository;
+
+    private TransferProperties transferProperties;
+    private LimitPolicyResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getLimit().setDaily(BigDecimal.valueOf(1000));
+        transferProperties.getLimit().setMonthly(BigDecimal.valueOf(20000));
+        resolver = new LimitPolicyResolver(transferLimitPolicyRepository, transferProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void resolve_shouldUseGlobalLimitsWithoutPolicies() {
+        when(transferLimitPolicyRepository.findApplicableToCard(1L)).thenReturn(List.of());
+
+        LimitPolicy policy = resolver.resolve(1L);
+
+        assertThat(policy.daily()).isEqualTo(Money.of("1000"));
+        assertThat(policy.weekly()).isNull();
+        assertThat(policy.monthly()).isEqualTo(Money.of("20000"));
+    }
+
+    @Test
+    void resolve_shouldPreferCardThenUserThenRolePolicyPerWindow() {
+        when(transferLimitPolicyRepository.findApplicableToCard(1L)).thenReturn(List.of(
+                policy(LimitPolicyScope.ROLE, RoleType.USER, 300, 3000, null),
+                policy(LimitPolicyScope.ROLE, RoleType.ADMIN, 900, 1500, null),
+                policy(LimitPolicyScope.USER, null, 200, null, null),
+                policy(LimitPolicyScope.CARD, null, 100, null, null)
+        ));
+
+        LimitPolicy policy = resolver.resolve(1L);
+
+        assertThat(policy.daily()).isEqualTo(Money.of("100"));
+        assertThat(policy.weekly()).isEqualTo(Money.of("3000"));
+        assertThat(policy.monthly()).isEqualTo(Money.of("20000"));
+    }
+
+    @Test
+    void resolve_shouldCacheUntilInvalidated() {
+        when(transferLimitPolicyRepository.findApplicableToCard(1L))
+                .thenReturn(List.of())
+                .thenReturn(List.of(policy(LimitPolicyScope.CARD, null, 50, null, null)));
+
+        resolver.resolve(1L);
+        resolver.resolve(1L);
+        resolver.invalidateAll();
+        LimitPolicy policy = resolver.resolve(1L);
+
+        assertThat(policy.daily()).isEqualTo(Money.of("50"));
+        verify(transferLimitPolicyRepository, times(2)).findApplicableToCard(1L);
+    }
+
+    private TransferLimitPolicy policy(LimitPolicyScope scope, RoleType role, Integer daily, Integer weekly, Integer monthly) {
+        TransferLimitPolicy policy = new TransferLimitPolicy();
+        policy.setScope(scope);
+        policy.setRole(role);
+        policy.setDailyLimit(daily != null ? BigDecimal.valueOf(daily) : null);
+        policy.setWeeklyLimit(weekly != null ? BigDecimal.valueOf(weekly) : null);
+        policy.setMonthlyLimit(monthly != null ? BigDecimal.valueOf(monthly) : null);
+        return policy;
+    }
+}
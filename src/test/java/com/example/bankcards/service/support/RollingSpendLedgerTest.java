@@ -0,0 +1,161 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.repository.projection.TransferSpendEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class RollingSpendLedgerTest {
+
+    private static final Money LIMIT = Money.of("1000.00");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 10, 23, 30);
+
+    @Mock
+    private CardTransferRepository cardTransferRepository;
+
+    private TransferProperties transferProperties;
+    private MutableClock clock;
+    private RollingSpendLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getLimit().setRollingBucket(Duration.ofHours(1));
+        clock = new MutableClock(START);
+        ledger = new RollingSpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void spent_shouldSeedBucketsFromTransfersOfLast24HoursAndCurrentBucket() {
+        mockTransfers(
+                new TransferSpendEntry(START.minusHours(20), Money.of("300.00")),
+                new TransferSpendEntry(START.minusMinutes(10), Money.of("200.00")));
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("500.00"));
+        verify(cardTransferRepository).findOutgoingSpend(
+                eq(1L), any(), eq(LocalDateTime.of(2024, 3, 9, 23, 0)), eq(LocalDateTime.of(2024, 3, 11, 0, 0)));
+    }
+
+    @Test
+    void spent_shouldNotResetAtMidnight() {
+        mockTransfers(new TransferSpendEntry(START.minusMinutes(10), Money.of("900.00")));
+
+        clock.advance(Duration.ofHours(1));
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("900.00"));
+        assertThatThrownBy(() -> ledger.openBudget(1L, LIMIT).reserve(Money.of("200.00")))
+                .isInstanceOf(TransferLimitExceededException.class);
+    }
+
+    @Test
+    void spent_shouldExpireBucketsOlderThanWindowWithoutReloading() {
+        mockTransfers(
+                new TransferSpendEntry(START.minusHours(20), Money.of("300.00")),
+                new TransferSpendEntry(START.minusMinutes(10), Money.of("200.00")));
+        ledger.spent(1L);
+
+        clock.advance(Duration.ofHours(5));
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("200.00"));
+
+        clock.advance(Duration.ofDays(2));
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("0.00"));
+        verify(cardTransferRepository, times(1)).findOutgoingSpend(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    void release_shouldReturnAmountOfTransferStillInWindow() {
+        mockTransfers();
+        ledger.openBudget(1L, LIMIT).reserve(Money.of("400.00"));
+        clock.advance(Duration.ofHours(2));
+
+        ledger.release(1L, START, Money.of("400.00"));
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("0.00"));
+    }
+
+    @Test
+    void openBudget_shouldReleaseReservationsOnRollback() {
+        mockTransfers();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.openBudget(1L, LIMIT).reserve(Money.of("600.00"));
+            assertThat(ledger.spent(1L)).isEqualTo(Money.of("600.00"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("0.00"));
+    }
+
+    @Test
+    void spent_shouldReloadWindowRemovedFromCache() {
+        transferProperties.getLimit().setSpendCacheTtl(Duration.ZERO);
+        ledger = new RollingSpendLedger(cardTransferRepository, transferProperties, new SimpleMeterRegistry(), clock);
+        mockTransfers(new TransferSpendEntry(START.minusHours(2), Money.of("300.00")));
+
+        ledger.openBudget(1L, LIMIT).reserve(Money.of("50.00"));
+
+        assertThat(ledger.spent(1L)).isEqualTo(Money.of("300.00"));
+        verify(cardTransferRepository, times(2)).findOutgoingSpend(eq(1L), any(), any(), any());
+    }
+
+    private void mockTransfers(TransferSpendEntry... entries) {
+        when(cardTransferRepository.findOutgoingSpend(eq(1L), any(), any(), any())).thenReturn(List.of(entries));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(LocalDateTime time) {
+            this.instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
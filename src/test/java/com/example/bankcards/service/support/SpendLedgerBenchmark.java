@@ -0,0 +1,90 @@
+package com.example.bankcards.service.support;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.repository.CardTransferRepository;
+import com.example.bankcards.repository.projection.TransferSpendEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Израсходованная сумма карты при учёте лимита в памяти: за календарные сутки
+ * ({@code calendar}, {@link DailySpendLedger}) и за скользящие 24 часа ({@code rolling},
+ * {@link RollingSpendLedger}). У карты {@code transfers} переводов за последние 48 часов;
+ * журналы заполняются из заглушки репозитория до измерения, поэтому измеряется только
+ * обращение к памяти, без запросов к БД.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=SpendLedgerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpendLedgerBenchmark {
+
+    private static final Long CARD_ID = 1L;
+
+    @Param({"100", "10000"})
+    private int transfers;
+
+    private DailySpendLedger calendarLedger;
+    private RollingSpendLedger rollingLedger;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferSpendEntry> entries = new ArrayList<>(transfers);
+        BigDecimal today = BigDecimal.ZERO;
+        for (int i = 0; i < transfers; i++) {
+            LocalDateTime createdAt = now.minusSeconds(48L * 3600 * i / transfers);
+            entries.add(new TransferSpendEntry(createdAt, Money.ofMinorUnits(100)));
+            if (!createdAt.toLocalDate().isBefore(LocalDate.now())) {
+                today = today.add(BigDecimal.ONE);
+            }
+        }
+        CardTransferRepository repository = mock(CardTransferRepository.class);
+        when(repository.sumOutgoingAmount(anyLong(), any(), any(), any())).thenReturn(today);
+        when(repository.findOutgoingSpend(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(2);
+            return entries.stream().filter(entry -> !entry.createdAt().isBefore(from)).toList();
+        });
+        TransferProperties properties = new TransferProperties();
+        calendarLedger = new DailySpendLedger(repository, properties, new SimpleMeterRegistry());
+        rollingLedger = new RollingSpendLedger(repository, properties, new SimpleMeterRegistry());
+        calendarLedger.spent(CARD_ID);
+        rollingLedger.spent(CARD_ID);
+    }
+
+    @Benchmark
+    public Money calendar() {
+        return calendarLedger.spent(CARD_ID);
+    }
+
+    @Benchmark
+    public Money rolling() {
+        return rollingLedger.spent(CARD_ID);
+    }
+}
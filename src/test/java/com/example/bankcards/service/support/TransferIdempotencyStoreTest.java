@@ -0,0 +1,128 @@
+package com.example.bankcards.service.support;
+
+import static com.example.bankcards.testutil.TestDataFactory.cardTransferDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.entity.CardTransfer;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.DuplicateResourceException;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.example.bankcards.util.mapper.CardTransferMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdempotencyStoreTest {
+
+    @Mock
+    private TransferIdempotencyKeyRepository repository;
+
+    @Mock
+    private CardTransferMapper cardTransferMapper;
+
+    private TransferIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransferIdempotencyStore(repository, cardTransferMapper, new TransferProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void execute_shouldReplayCachedResponseWithoutRunningTransferAgain() {
+        when(repository.findWithTransfer(10L, "key-1")).thenReturn(Optional.empty());
+        AtomicInteger executions = new AtomicInteger();
+
+        CardTransferDto first = store.execute(10L, "key-1", "hash", () -> {
+            executions.incrementAndGet();
+            return cardTransferDto(1L);
+        });
+        CardTransferDto replay = store.execute(10L, "key-1", "hash", () -> {
+            executions.incrementAndGet();
+            return cardTransferDto(2L);
+        });
+
+        assertThat(replay).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+        verify(repository, times(1)).findWithTransfer(anyLong(), anyString());
+    }
+
+    @Test
+    void execute_shouldReturnResponseStoredInDatabase() {
+        CardTransfer transfer = new CardTransfer();
+        TransferIdempotencyKey stored = new TransferIdempotencyKey();
+        stored.setRequestHash("hash");
+        stored.setTransfer(transfer);
+        when(repository.findWithTransfer(10L, "key-1")).thenReturn(Optional.of(stored));
+        when(cardTransferMapper.toDto(transfer)).thenReturn(cardTransferDto(7L));
+
+        CardTransferDto result = store.execute(10L, "key-1", "hash", () -> {
+            throw new AssertionError("Transfer must not be executed again");
+        });
+
+        assertThat(result.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedForDifferentRequest() {
+        when(repository.findWithTransfer(10L, "key-1")).thenReturn(Optional.empty());
+        store.execute(10L, "key-1", "hash", () -> cardTransferDto(1L));
+
+        assertThatThrownBy(() -> store.execute(10L, "key-1", "other-hash", () -> cardTransferDto(2L)))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentRequestsWithSameKey() throws Exception {
+        when(repository.findWithTransfer(any(), any())).thenReturn(Optional.empty());
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<CardTransferDto> leader = executor.submit(() -> store.execute(10L, "key-1", "hash", () -> {
+            executions.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return cardTransferDto(1L);
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<CardTransferDto> follower = executor.submit(() -> store.execute(10L, "key-1", "hash", () -> {
+            executions.incrementAndGet();
+            return cardTransferDto(2L);
+        }));
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS).id()).isEqualTo(1L);
+        assertThat(follower.get(5, TimeUnit.SECONDS).id()).isEqualTo(1L);
+        assertThat(executions).hasValue(1);
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdempotencySweeperTest {
+
+    @Mock
+    private TransferIdempotencyKeyRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TransferIdempotencySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TransferProperties();
+        properties.getIdempotency().setSweepChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new TransferIdempotencySweeper(repository, new TransactionTemplate(transactionManager),
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(sweeper, "shutdown");
+    }
+
+    @Test
+    void sweep_shouldDeleteKeysOlderThanRetentionInChunks() {
+        ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(repository.deleteCreatedBefore(createdBefore.capture(), eq(2))).thenReturn(2, 1);
+
+        assertThat(sweeper.sweep()).isEqualTo(3);
+
+        verify(repository, times(2)).deleteCreatedBefore(createdBefore.getValue(), 2);
+        assertThat(createdBefore.getValue()).isBefore(LocalDateTime.now().minusHours(23));
+        assertThat(meterRegistry.get("bank.transfer.idempotency.deleted").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void sweep_shouldNotPropagateUnexpectedErrors() {
+        when(repository.deleteCreatedBefore(any(), eq(2)))
+                .thenReturn(2)
+                .thenThrow(new IllegalStateException("Unexpected"));
+
+        assertThat(sweeper.sweep()).isEqualTo(2);
+    }
+
+    @Test
+    void constructor_shouldRejectRetentionShorterThanCacheTtl() {
+        properties.getIdempotency().setRetention(Duration.ofMinutes(30));
+
+        assertThatThrownBy(() -> new TransferIdempotencySweeper(repository, new TransactionTemplate(transactionManager),
+                properties, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Idempotency key retention must not be shorter than the cache TTL");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.config.properties.TransferProperties;
+import com.example.bankcards.exception.TransferQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TransferSettlementQueueTest {
+
+    private TransferSettlementQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.getAsync().setWorkers(2);
+        transferProperties.getAsync().setQueueCapacity(2);
+        queue = new TransferSettlementQueue(transferProperties, new SimpleMeterRegistry());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        TransactionSynchronizationManager.clearSynchronization();
+        queue.shutdown();
+    }
+
+    @Test
+    void reserve_shouldRejectWhenPartitionIsFull() {
+        queue.reserve(1L);
+        queue.reserve(1L);
+
+        assertThatThrownBy(() -> queue.reserve(1L)).isInstanceOf(TransferQueueFullException.class);
+        assertThat(queue.reserve(2L)).isNotNull();
+    }
+
+    @Test
+    void reserve_shouldReleaseSlotWhenTransactionRollsBack() {
+        queue.reserve(1L).dispatchAfterCommit(() -> {
+        });
+        queue.reserve(1L).cancel();
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        queue.reserve(1L);
+        assertThat(queue.reserve(1L)).isNotNull();
+    }
+
+    @Test
+    void dispatchAfterCommit_shouldRunTasksOfOneCardInOrder() throws Exception {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        queue.reserve(5L).dispatchAfterCommit(() -> {
+            executed.add(1);
+            done.countDown();
+        });
+        queue.reserve(5L).dispatchAfterCommit(() -> {
+            executed.add(2);
+            done.countDown();
+        });
+        assertThat(executed).isEmpty();
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).containsExactly(1, 2);
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.bankcards.testutil;
 
+import com.example.bankcards.dto.BatchTransferItemDto;
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResultDto;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardTransferDto;
 import com.example.bankcards.dto.CardTransferRequestDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CreateLimitPolicyRequestDto;
 import com.example.bankcards.dto.CreateUserRequestDto;
 import com.example.bankcards.dto.DailyLimitDto;
+import com.example.bankcards.dto.LimitPolicyDto;
 import com.example.bankcards.dto.UpdateCardRequestDto;
 import com.example.bankcards.dto.UpdateCardStatusRequestDto;
 import com.example.bankcards.dto.UpdateUserRolesRequestDto;
@@ -15,6 +20,7 @@ import com.example.bankcards.dto.auth.JwtResponseDto;
 import com.example.bankcards.dto.auth.LoginRequestDto;
 import com.example.bankcards.dto.auth.RefreshTokenRequestDto;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.LimitPolicyScope;
 import com.example.bankcards.entity.enums.RoleType;
 import com.example.bankcards.entity.enums.TransferStatus;
 import com.example.bankcards.entity.enums.UserStatus;
@@ -95,21 +101,46 @@ public final class TestDataFactory {
     }
 
     public static CardTransferDto cardTransferDto(Long id) {
+        return cardTransferDto(id, TransferStatus.COMPLETED);
+    }
+
+    public static CardTransferDto cardTransferDto(Long id, TransferStatus status) {
         return new CardTransferDto(
                 id,
                 10L,
                 20L,
                 BigDecimal.valueOf(1500),
-                TransferStatus.COMPLETED,
+                status,
                 "Rent payment",
                 LocalDateTime.now()
         );
     }
 
+    public static BatchTransferRequestDto batchTransferRequest() {
+        return new BatchTransferRequestDto(List.of(transferRequest(), transferRequest()));
+    }
+
+    public static BatchTransferResultDto batchTransferResult() {
+        return BatchTransferResultDto.of(List.of(
+                BatchTransferItemDto.completed(0, 1L),
+                BatchTransferItemDto.failed(1, 2L, "Not enough funds to perform transfer")
+        ));
+    }
+
     public static DailyLimitDto dailyLimit(BigDecimal remaining) {
         return new DailyLimitDto(remaining);
     }
 
+    public static CreateLimitPolicyRequestDto createCardLimitPolicyRequest(Long cardId) {
+        return new CreateLimitPolicyRequestDto(LimitPolicyScope.CARD, cardId, null, null,
+                BigDecimal.valueOf(300), BigDecimal.valueOf(1500), null);
+    }
+
+    public static LimitPolicyDto cardLimitPolicyDto(Long id, Long cardId) {
+        return new LimitPolicyDto(id, LimitPolicyScope.CARD, cardId, null, null,
+                BigDecimal.valueOf(300), BigDecimal.valueOf(1500), null);
+    }
+
     public static LoginRequestDto loginRequest() {
         return new LoginRequestDto("john.doe", "Secret123");
     }
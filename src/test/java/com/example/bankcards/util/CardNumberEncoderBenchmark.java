@@ -0,0 +1,104 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.properties.EncryptionProperties;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Шифрование и расшифровка номеров карт по одному ({@code encrypt}, {@code decrypt}) и списком
+ * ({@code encryptAll}, {@code decryptAll}). Для сравнения {@code encryptWithNewCipher} создаёт и
+ * инициализирует шифр на каждый номер, как это делалось до появления пула шифров. Время
+ * указывается на один номер.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark test -DskipTests -Dbenchmark=CardNumberEncoderBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardNumberEncoderBenchmark {
+
+    private static final int NUMBERS = 100;
+    private static final String SECRET_KEY = "benchmark-key-16";
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final SecretKeySpec keySpec = new SecretKeySpec(SECRET_KEY.getBytes(StandardCharsets.UTF_8), "AES");
+    private CardNumberEncoder encoder;
+    private List<String> numbers;
+    private List<String> encrypted;
+
+    @Setup
+    public void setUp() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setSecretKey(SECRET_KEY);
+        properties.setHashKey("benchmark-hash-key");
+        encoder = new CardNumberEncoder(properties);
+        encoder.init();
+        numbers = new ArrayList<>(NUMBERS);
+        for (int i = 0; i < NUMBERS; i++) {
+            numbers.add(String.format("4111%012d", i));
+        }
+        encrypted = encoder.encryptAll(numbers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBERS)
+    public void encrypt(Blackhole blackhole) {
+        for (String number : numbers) {
+            blackhole.consume(encoder.encrypt(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBERS)
+    public List<String> encryptAll() {
+        return encoder.encryptAll(numbers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBERS)
+    public void decrypt(Blackhole blackhole) {
+        for (String number : encrypted) {
+            blackhole.consume(encoder.decrypt(number));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBERS)
+    public List<String> decryptAll() {
+        return encoder.decryptAll(encrypted);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBERS)
+    public void encryptWithNewCipher(Blackhole blackhole) throws GeneralSecurityException {
+        for (String number : numbers) {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            byte[] iv = new byte[12];
+            secureRandom.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(128, iv));
+            blackhole.consume(cipher.doFinal(number.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
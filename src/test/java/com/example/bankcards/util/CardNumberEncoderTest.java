@@ -4,6 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.example.bankcards.config.properties.EncryptionProperties;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -15,6 +22,7 @@ class CardNumberEncoderTest {
     void setUp() {
         EncryptionProperties properties = new EncryptionProperties();
         properties.setSecretKey("super-secret-key-123");
+        properties.setHashKey("card-number-hash-key");
         encoder = new CardNumberEncoder(properties);
         encoder.init();
     }
@@ -30,6 +38,92 @@ class CardNumberEncoderTest {
         assertThat(decrypted).isEqualTo(cardNumber);
     }
 
+    @Test
+    void encrypt_shouldProduceDifferentCiphertextForSameNumber() {
+        String cardNumber = "4111222233334444";
+
+        assertThat(encoder.encrypt(cardNumber)).isNotEqualTo(encoder.encrypt(cardNumber));
+    }
+
+    @Test
+    void encryptAllAndDecryptAll_shouldKeepOrder() {
+        List<String> cardNumbers = List.of("4111222233334444", "5500000000000004", "4111222233334444");
+
+        List<String> encrypted = encoder.encryptAll(cardNumbers);
+
+        assertThat(encrypted).doesNotHaveDuplicates();
+        assertThat(encoder.decryptAll(encrypted)).containsExactlyElementsOf(cardNumbers);
+        assertThat(encoder.decrypt(encrypted.get(1))).isEqualTo("5500000000000004");
+    }
+
+    @Test
+    void hash_shouldBeDeterministicFixedWidthAndMatchBatch() {
+        byte[] hash = encoder.hash("4111222233334444");
+
+        assertThat(hash).hasSize(32).isEqualTo(encoder.hash("4111222233334444"));
+        assertThat(encoder.hash("5500000000000004")).isNotEqualTo(hash);
+        assertThat(encoder.hashAll(List.of("5500000000000004", "4111222233334444")).get(1)).isEqualTo(hash);
+    }
+
+    @Test
+    void decryptLegacy_shouldReadEcbCiphertext() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        byte[] key = Arrays.copyOf("super-secret-key-123".getBytes(StandardCharsets.UTF_8), 24);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+        String legacy = Base64.getEncoder().encodeToString(cipher.doFinal("4111222233334444".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(encoder.decryptLegacy(legacy)).isEqualTo("4111222233334444");
+    }
+
+    @Test
+    void decrypt_shouldKeepWorkingAfterFailedDecryption() {
+        String encrypted = encoder.encrypt("4111222233334444");
+
+        assertThatThrownBy(() -> encoder.decrypt("AAAAAAAAAAAAAAAAAAAA"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(encoder.decrypt(encrypted)).isEqualTo("4111222233334444");
+    }
+
+    @Test
+    void encrypt_shouldPrefixCiphertextWithKeyId() {
+        assertThat(encoder.encrypt("4111222233334444")).startsWith("1:");
+        assertThat(encoder.encryptAll(List.of("4111222233334444"))).allMatch(value -> value.startsWith("1:"));
+        assertThat(encoder.currentKeyPrefix()).isEqualTo("1:");
+    }
+
+    @Test
+    void decrypt_shouldUsePreviousKeyAfterRotation() {
+        String oldCiphertext = encoder.encrypt("4111222233334444");
+        String unversioned = oldCiphertext.substring("1:".length());
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setSecretKey("another-secret-key-456");
+        properties.setKeyId("2");
+        properties.setPreviousKeys(Map.of("1", "super-secret-key-123"));
+        properties.setHashKey("card-number-hash-key");
+        CardNumberEncoder rotated = new CardNumberEncoder(properties);
+        rotated.init();
+
+        assertThat(rotated.decrypt(oldCiphertext)).isEqualTo("4111222233334444");
+        assertThat(rotated.decryptAll(List.of(unversioned, rotated.encrypt("5500000000000004"))))
+                .containsExactly("4111222233334444", "5500000000000004");
+        assertThat(rotated.encrypt("4111222233334444")).startsWith("2:");
+        assertThatThrownBy(() -> encoder.decrypt(rotated.encrypt("4111222233334444")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unknown key 2");
+    }
+
+    @Test
+    void init_shouldRejectInvalidKeyId() {
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setSecretKey("super-secret-key-123");
+        properties.setHashKey("card-number-hash-key");
+        properties.setKeyId("v:2");
+
+        assertThatThrownBy(() -> new CardNumberEncoder(properties).init())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void extractLastDigits_shouldIgnoreWhitespaces() {
         String result = encoder.extractLastDigits("4111 2222 3333 4444");
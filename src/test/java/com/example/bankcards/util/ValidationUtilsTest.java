@@ -0,0 +1,79 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.dto.CardTransferRequestDto;
+import com.example.bankcards.entity.Money;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.math.BigDecimal;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ValidationUtilsTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void normalizeAmount_shouldConvertAmountToMoney() {
+        assertThat(ValidationUtils.normalizeAmount(new BigDecimal("25.5"))).isEqualTo(Money.ofMinorUnits(2550));
+    }
+
+    @Test
+    void normalizeAmount_shouldWrapOverflowIntoIllegalArgumentException() {
+        BigDecimal tooLarge = new BigDecimal("100000000000000000");
+
+        assertThatThrownBy(() -> ValidationUtils.normalizeAmount(tooLarge))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount is too large");
+    }
+
+    @Test
+    void normalizeAmount_shouldRejectAmountRoundedToZero() {
+        assertThatThrownBy(() -> ValidationUtils.normalizeAmount(new BigDecimal("0.004")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount must be greater than zero");
+        assertThatThrownBy(() -> ValidationUtils.normalizeAmount(new BigDecimal("-1")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount must be greater than zero");
+        assertThatThrownBy(() -> ValidationUtils.normalizeAmount(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Amount must be provided");
+    }
+
+    @Test
+    void transferRequest_shouldRejectAmountWithMoreThanTwoFractionalDigits() {
+        Set<ConstraintViolation<CardTransferRequestDto>> violations = validator.validate(
+                new CardTransferRequestDto("4111111111111111", "4222222222222222", new BigDecimal("10.005"), null));
+
+        assertThat(violations).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Amount must have up to 2 fractional digits");
+    }
+
+    @Test
+    void transferRequest_shouldRejectAmountThatDoesNotFitMinorUnits() {
+        Set<ConstraintViolation<CardTransferRequestDto>> violations = validator.validate(
+                new CardTransferRequestDto("4111111111111111", "4222222222222222",
+                        new BigDecimal("100000000000000000"), null));
+
+        assertThat(violations).extracting(ConstraintViolation::getMessage)
+                .containsExactly("Amount must have up to 2 fractional digits");
+    }
+}